@@ -0,0 +1,80 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// response path of the patient appointment endpoints: PatientService.convertToDTO and the Jackson serialization
+// of the resulting {"appointments": [...]} body
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AppointmentDtoBenchmark {
+
+    @Param({"1", "12"})
+    public int appointmentCount;
+
+    private PatientService patientService;
+    private ObjectMapper objectMapper;
+    private List<Appointment> appointments;
+    private List<AppointmentDTO> dtos;
+
+    @Setup
+    public void setUp() {
+        // convertToDTO does not touch the repositories
+        patientService = new PatientService(null, null, null, null, null, null);
+        // same defaults as the ObjectMapper Spring Boot configures for the controllers
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        Doctor doctor = BenchmarkData.withId(new Doctor("fullday@clinic.example", "secret", "5550000000",
+                "Dr. Full Day", "MD", "LIC-000000", "General", BenchmarkData.DAY_SLOTS), 1L);
+        appointments = BenchmarkData.bookedAppointments(doctor, LocalDate.of(2030, 1, 7), appointmentCount, 42);
+        dtos = convert();
+    }
+
+    private List<AppointmentDTO> convert() {
+        return appointments.stream()
+                .map(patientService::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> convertToDTO() {
+        return convert();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(Map.of("appointments", dtos));
+    }
+
+    @Benchmark
+    public byte[] convertAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(Map.of("appointments", convert()));
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// set-difference of getDoctorAvailability (DoctorService.availableSlots): a full day of slots minus the booked ones
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AvailabilityBenchmark {
+
+    // empty, half booked, fully booked day (12 slots)
+    @Param({"0", "6", "12"})
+    public int bookedCount;
+
+    private List<String> daySlots;
+    private List<Appointment> bookedAppointments;
+
+    @Setup
+    public void setUp() {
+        Doctor doctor = BenchmarkData.withId(new Doctor("fullday@clinic.example", "secret", "5550000000",
+                "Dr. Full Day", "MD", "LIC-000000", "General", BenchmarkData.DAY_SLOTS), 1L);
+        daySlots = doctor.getAvailableTimes();
+        bookedAppointments = BenchmarkData.bookedAppointments(doctor, LocalDate.of(2030, 1, 7), bookedCount, 42);
+    }
+
+    @Benchmark
+    public List<String> availableSlots() {
+        return DoctorService.availableSlots(daySlots, bookedAppointments);
+    }
+
+}
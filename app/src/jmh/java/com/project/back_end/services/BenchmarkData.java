@@ -0,0 +1,87 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// synthetic but realistic entities for the benchmarks (fixed seed, so every run measures the same data)
+final class BenchmarkData {
+
+    static final String[] SPECIALTIES = {"Cardiology", "Dermatology", "Neurology", "Pediatrics", "Orthopedics", "General"};
+
+    // hourly slots of a working day, format like "09:00-10:00" (as stored in doctor_available_times)
+    static final List<String> DAY_SLOTS = daySlots(7, 19);
+
+    private BenchmarkData() {
+    }
+
+    static List<String> daySlots(int fromHour, int toHour) {
+        List<String> slots = new ArrayList<>();
+        for (int hour = fromHour; hour < toHour; hour++) {
+            slots.add(LocalTime.of(hour, 0) + "-" + LocalTime.of(hour + 1, 0));
+        }
+        return slots;
+    }
+
+    // doctors working mornings, afternoons or the whole day with 4 - 12 slots each
+    static List<Doctor> doctors(int count, long seed) {
+        Random random = new Random(seed);
+        List<Doctor> doctors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int shift = random.nextInt(3);
+            List<String> slots = switch (shift) {
+                case 0 -> daySlots(7, 7 + 4 + random.nextInt(2));
+                case 1 -> daySlots(12 + random.nextInt(2), 19);
+                default -> daySlots(8, 8 + 8 + random.nextInt(3));
+            };
+            Doctor doctor = new Doctor("doctor" + i + "@clinic.example", "secret" + i, "555" + (1000000 + i),
+                    "Dr. Doctor " + i, "MD", "LIC-" + (100000 + i),
+                    SPECIALTIES[random.nextInt(SPECIALTIES.length)], new ArrayList<>(slots));
+            doctors.add(withId(doctor, i + 1));
+        }
+        return doctors;
+    }
+
+    static Patient patient(long id) {
+        Patient patient = new Patient("patient" + id + "@mail.example", "secret" + id, "555" + (2000000 + id),
+                "Patient " + id, LocalDate.of(1980, 1, 1).plusDays(id * 37 % 15000), "Main Street " + id + ", Springfield");
+        return withId(patient, id);
+    }
+
+    // appointments of one doctor on one day, booked into a random subset of the doctor's slots
+    static List<Appointment> bookedAppointments(Doctor doctor, LocalDate date, int count, long seed) {
+        Random random = new Random(seed);
+        List<String> freeSlots = new ArrayList<>(doctor.getAvailableTimes());
+        List<Appointment> appointments = new ArrayList<>(count);
+        for (int i = 0; i < count && !freeSlots.isEmpty(); i++) {
+            String slot = freeSlots.remove(random.nextInt(freeSlots.size()));
+            LocalDateTime time = date.atTime(LocalTime.parse(slot.substring(0, 5)));
+            Appointment appointment = new Appointment(doctor, patient(i + 1), time, Duration.ofHours(1),
+                    "check-up", null, 0);
+            appointments.add(withId(appointment, i + 1));
+        }
+        return appointments;
+    }
+
+    // the entities have no id setter (generated by the database)
+    static <T> T withId(T entity, long id) {
+        try {
+            Field field = entity.getClass().getDeclaredField("id");
+            field.setAccessible(true);
+            field.set(entity, id);
+            return entity;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("cannot set id of " + entity.getClass().getSimpleName(), e);
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// AM/PM filter of the doctor search (DoctorService.filterDoctorsByTime) on doctor sets of realistic size
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DoctorServiceBenchmark {
+
+    // a small practice, a clinic, a hospital group
+    @Param({"20", "200", "2000"})
+    public int doctorCount;
+
+    @Param({"AM", "PM", ""})
+    public String amOrPm;
+
+    private DoctorService doctorService;
+    private List<Doctor> doctors;
+
+    @Setup
+    public void setUp() {
+        // filterDoctorsByTime does not touch the repositories
+        doctorService = new DoctorService(null, null, null, null, null);
+        doctors = BenchmarkData.doctors(doctorCount, 42);
+    }
+
+    @Benchmark
+    public List<Doctor> filterDoctorsByTime() {
+        return doctorService.filterDoctorsByTime(doctors, amOrPm);
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.project.back_end.services;
+
+import com.project.back_end.BackEndApplication;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// the same JPA query (appointments with doctor and patient) in a read-write and in a read-only transaction, against
+// the in-memory database of the profile "test". Read-only keeps no snapshots of the loaded entities and skips the
+// dirty check at commit: compare the time and gc.alloc.rate.norm (bytes per call, -prof gc) of both
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadOnlyTransactionBenchmark {
+
+    private static final int DOCTORS = 20;
+    private static final int PATIENTS = 50;
+    private static final int APPOINTMENTS = 5000;
+
+    // appointments loaded per call
+    @Param({"50", "1000", "5000"})
+    public int resultSize;
+
+    private ConfigurableApplicationContext context;
+    private AppointmentRepository appointmentRepository;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BackEndApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.properties.jakarta.persistence.validation.mode=none",
+                        "--logging.level.root=WARN");
+        appointmentRepository = context.getBean(AppointmentRepository.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // one appointment per minute, spread over the doctors
+        LocalDateTime first = LocalDate.now().plusDays(1).atTime(8, 0);
+        seed(first);
+        start = first;
+        end = first.plusMinutes(resultSize);
+    }
+
+    private void seed(LocalDateTime first) {
+        List<Doctor> doctors = new ArrayList<>();
+        for (int i = 0; i < DOCTORS; i++) {
+            doctors.add(new Doctor("doctor" + i + "@clinic.example", "secret" + i, "555" + (1000000 + i),
+                    "Dr. Doctor " + i, "MD", "LIC-" + (100000 + i),
+                    BenchmarkData.SPECIALTIES[i % BenchmarkData.SPECIALTIES.length], new ArrayList<>(BenchmarkData.DAY_SLOTS)));
+        }
+        doctors = context.getBean(DoctorRepository.class).saveAll(doctors);
+
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < PATIENTS; i++) {
+            patients.add(new Patient("patient" + i + "@mail.example", "secret" + i, "555" + (2000000 + i),
+                    "Patient " + i, LocalDate.of(1980, 1, 1).plusDays(i * 97L), "Main Street " + i + ", Springfield"));
+        }
+        patients = context.getBean(PatientRepository.class).saveAll(patients);
+
+        List<Appointment> appointments = new ArrayList<>(APPOINTMENTS);
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            appointments.add(new Appointment(doctors.get(i % DOCTORS), patients.get(i % PATIENTS), first.plusMinutes(i),
+                    Duration.ofHours(1), "Checkup " + i, null, 0));
+        }
+        appointmentRepository.saveAll(appointments);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Appointment> readWrite() {
+        return readWrite.execute(status -> appointmentRepository.findWithDoctorAndPatientByAppointmentTimeRange(start, end));
+    }
+
+    @Benchmark
+    public List<Appointment> readOnly() {
+        return readOnly.execute(status -> appointmentRepository.findWithDoctorAndPatientByAppointmentTimeRange(start, end));
+    }
+
+}
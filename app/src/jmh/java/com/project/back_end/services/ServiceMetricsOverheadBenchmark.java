@@ -0,0 +1,82 @@
+package com.project.back_end.services;
+
+import com.project.back_end.monitoring.ServiceMetricsAspect;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// cost of the service timers (ServiceMetricsAspect): the same service method called directly and through the aspect,
+// with the histogram settings of application.properties
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceMetricsOverheadBenchmark {
+
+    private TokenService direct;
+    private TokenService timed;
+    private String token;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        direct = new TokenService(null, null, null);
+        setField(direct, "jwtSecret", "benchmark-secret-0123456789-abcdefghij");
+        setField(direct, "jwtExpirationMs", String.valueOf(TokenService.JWT_EXPIRATION_MS_VALUE_DEFAULT));
+        token = direct.generateToken("patient4711@mail.example");
+
+        PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        meterRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .minimumExpectedValue((double) Duration.ofNanos(100_000).toNanos())
+                        .maximumExpectedValue((double) Duration.ofSeconds(10).toNanos())
+                        .build()
+                        .merge(config);
+            }
+        });
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(direct);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        timed = proxyFactory.getProxy();
+    }
+
+    private static void setField(TokenService tokenService, String name, String value) throws ReflectiveOperationException {
+        Field field = TokenService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(tokenService, value);
+    }
+
+    @Benchmark
+    public String direct() {
+        return direct.extractIdentifier(token);
+    }
+
+    @Benchmark
+    public String timed() {
+        return timed.extractIdentifier(token);
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.project.back_end.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+// JWT generation and verification (TokenService), done on every login and on every authorized request
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenServiceBenchmark {
+
+    // HS256 needs at least 256 bit
+    private static final String JWT_SECRET = "benchmark-secret-0123456789-abcdefghij";
+
+    private TokenService tokenService;
+    private String token;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        // generateToken and extractIdentifier do not touch the repositories
+        tokenService = new TokenService(null, null, null);
+        setField("jwtSecret", JWT_SECRET);
+        setField("jwtExpirationMs", String.valueOf(TokenService.JWT_EXPIRATION_MS_VALUE_DEFAULT));
+        token = tokenService.generateToken("patient4711@mail.example");
+    }
+
+    private void setField(String name, String value) throws ReflectiveOperationException {
+        Field field = TokenService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(tokenService, value);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenService.generateToken("patient4711@mail.example");
+    }
+
+    @Benchmark
+    public String extractIdentifier() {
+        return tokenService.extractIdentifier(token);
+    }
+
+}
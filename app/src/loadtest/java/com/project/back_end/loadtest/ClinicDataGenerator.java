@@ -0,0 +1,232 @@
+package com.project.back_end.loadtest;
+
+import com.project.back_end.models.Prescription;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// seeds the database with synthetic clinic data in the shape of sql/cms.sql and sql/prescriptions.json:
+// doctors with hourly slots, patients, appointments in the doctors' slots (80 % in the past and completed,
+// 20 % in the future and scheduled) and prescriptions of completed appointments.
+// Rows are written with plain JDBC batches (and mongo bulk inserts), going through JPA would take hours for millions of rows.
+class ClinicDataGenerator {
+
+    static final String[] FIRST_NAMES = {"Emily", "Mark", "Sarah", "Tom", "Alice", "Taylor", "Sam", "Emma", "Olivia", "Henry",
+            "Ella", "Leo", "Ivy", "Owen", "Ava", "Mia", "Jane", "John", "Liam", "Sophia", "Noah", "Grace", "Lucas", "Chloe"};
+    static final String[] LAST_NAMES = {"Adams", "Johnson", "Lee", "Wilson", "Brown", "Grant", "White", "Clark", "Davis", "Miller",
+            "Moore", "Martin", "Jackson", "Thomas", "Hall", "Green", "Baker", "Doe", "Smith", "Rose", "King", "Lane", "Moon", "Young"};
+    static final String[] SPECIALTIES = {"Cardiologist", "Neurologist", "Orthopedist", "Pediatrician", "Dermatologist"};
+    static final String[][] MEDICATIONS = {{"Paracetamol", "500mg", "Take 1 tablet every 6 hours."},
+            {"Aspirin", "300mg", "Take 1 tablet after meals."}, {"Ibuprofen", "400mg", "Take 1 tablet every 8 hours."},
+            {"Antihistamine", "10mg", "Take 1 tablet daily before bed."}, {"Vitamin C", "1000mg", "Take 1 tablet daily."},
+            {"Antibiotics", "500mg", "Take 1 capsule every 12 hours for 7 days."}, {"Vitamin D", "1000 IU", "Take 1 capsule daily."}};
+
+    private static final int BATCH_SIZE = 5_000;
+    // share of a doctor's slots that are booked on a day
+    private static final double OCCUPANCY = 0.7;
+    // share of the appointments that lie in the past
+    private static final double PAST_SHARE = 0.8;
+    // appointment ids the scenario can ask prescriptions for
+    private static final int PRESCRIBED_SAMPLE_MAX = 10_000;
+
+    private final Logger log = LoggerFactory.getLogger( getClass() );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MongoTemplate mongoTemplate;
+    private final LoadTestSettings settings;
+
+    ClinicDataGenerator(JdbcTemplate jdbcTemplate, MongoTemplate mongoTemplate, LoadTestSettings settings) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mongoTemplate = mongoTemplate;
+        this.settings = settings;
+    }
+
+    // names, emails and slots are functions of the id (and the seed), so the scenario can address any row without a lookup
+
+    static String patientName(long patientId) {
+        return FIRST_NAMES[(int) (patientId % FIRST_NAMES.length)] + " " + LAST_NAMES[(int) (patientId / FIRST_NAMES.length % LAST_NAMES.length)];
+    }
+
+    static String patientEmail(long patientId) {
+        return patientName(patientId).toLowerCase().replace(' ', '.') + "." + patientId + "@example.com";
+    }
+
+    static String doctorName(long doctorId) {
+        return "Dr. " + FIRST_NAMES[(int) (doctorId * 7 % FIRST_NAMES.length)] + " " + LAST_NAMES[(int) (doctorId % LAST_NAMES.length)];
+    }
+
+    static String doctorEmail(long doctorId) {
+        return "dr." + LAST_NAMES[(int) (doctorId % LAST_NAMES.length)].toLowerCase() + "." + doctorId + "@example.com";
+    }
+
+    static String specialty(long doctorId) {
+        return SPECIALTIES[(int) (doctorId % SPECIALTIES.length)];
+    }
+
+    // 4 - 8 hourly slots, e.g. "09:00-10:00", like doctor_available_times in cms.sql
+    static List<LocalTime> slotsOf(long seed, long doctorId) {
+        Random random = new Random(seed * 31 + doctorId);
+        int firstHour = 8 + random.nextInt(3);
+        int count = 4 + random.nextInt(5);
+        List<LocalTime> slots = new ArrayList<>(count);
+        for (int hour = firstHour; hour < firstHour + count + 1; hour++) {
+            if (hour != 12) { // lunch break
+                slots.add(LocalTime.of(hour, 0));
+            }
+        }
+        return slots;
+    }
+
+    ClinicDataSet generate() {
+        long started = System.nanoTime();
+        insertAdmin();
+        insertDoctors();
+        insertPatients();
+        ClinicDataSet dataSet = insertAppointmentsAndPrescriptions();
+        restartIdentities(dataSet);
+        log.info("generated {} doctors, {} patients, {} appointments, {} prescriptions in {} s",
+                dataSet.doctors(), dataSet.patients(), dataSet.appointments(), dataSet.prescriptions(),
+                Duration.ofNanos(System.nanoTime() - started).toSeconds());
+        return dataSet;
+    }
+
+    private void insertAdmin() {
+        jdbcTemplate.update("INSERT INTO admin (username, password, email) VALUES ('admin', 'admin@1234', 'admin@example.com')");
+    }
+
+    private void insertDoctors() {
+        List<Object[]> doctors = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> slots = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= settings.doctors(); id++) {
+            doctors.add(new Object[]{id, doctorEmail(id), doctorName(id), "pass" + id, phone(555, id), specialty(id)});
+            for (LocalTime slot : slotsOf(settings.seed(), id)) {
+                slots.add(new Object[]{id, slot + "-" + slot.plusHours(1)});
+            }
+            if (doctors.size() == BATCH_SIZE) {
+                flushDoctors(doctors, slots);
+            }
+        }
+        flushDoctors(doctors, slots);
+    }
+
+    private void flushDoctors(List<Object[]> doctors, List<Object[]> slots) {
+        jdbcTemplate.batchUpdate("INSERT INTO doctor (id, email, name, password, phone, specialty) VALUES (?, ?, ?, ?, ?, ?)", doctors);
+        jdbcTemplate.batchUpdate("INSERT INTO doctor_available_times (doctor_id, available_times) VALUES (?, ?)", slots);
+        doctors.clear();
+        slots.clear();
+    }
+
+    private void insertPatients() {
+        Random random = new Random(settings.seed());
+        List<Object[]> patients = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= settings.patients(); id++) {
+            patients.add(new Object[]{id, (100 + id % 900) + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " St, Cityville",
+                    patientEmail(id), patientName(id), LocalDate.of(1940, 1, 1).plusDays(random.nextInt(365 * 80)),
+                    "pass" + id, phone(888, id)});
+            if (patients.size() == BATCH_SIZE) {
+                flushPatients(patients);
+            }
+        }
+        flushPatients(patients);
+        log.info("inserted {} patients", settings.patients());
+    }
+
+    private void flushPatients(List<Object[]> patients) {
+        jdbcTemplate.batchUpdate("INSERT INTO patient (id, address, email, name, date_of_birth, password, phone) VALUES (?, ?, ?, ?, ?, ?, ?)", patients);
+        patients.clear();
+    }
+
+    private ClinicDataSet insertAppointmentsAndPrescriptions() {
+        Random random = new Random(settings.seed() + 1);
+        LocalDateTime now = LocalDateTime.now();
+        int perDoctor = Math.max(1, settings.appointments() / settings.doctors());
+        double prescriptionRatio = Math.min(1.0, settings.prescriptions() / (settings.appointments() * PAST_SHARE));
+
+        List<Object[]> appointments = new ArrayList<>(BATCH_SIZE);
+        List<Prescription> prescriptions = new ArrayList<>(BATCH_SIZE);
+        List<Long> prescribedSample = new ArrayList<>();
+        LocalDate firstDay = now.toLocalDate();
+        LocalDate lastDay = now.toLocalDate();
+        long appointmentId = 0;
+        long prescriptionCount = 0;
+
+        for (long doctorId = 1; doctorId <= settings.doctors(); doctorId++) {
+            List<LocalTime> slots = slotsOf(settings.seed(), doctorId);
+            long days = (long) Math.ceil(perDoctor / (slots.size() * OCCUPANCY));
+            LocalDate day = now.toLocalDate().minusDays((long) (days * PAST_SHARE));
+            firstDay = day.isBefore(firstDay) ? day : firstDay;
+            int booked = 0;
+            while (booked < perDoctor) {
+                for (LocalTime slot : slots) {
+                    if (booked == perDoctor || random.nextDouble() >= OCCUPANCY) {
+                        continue;
+                    }
+                    LocalDateTime time = day.atTime(slot);
+                    long patientId = 1 + random.nextInt(settings.patients());
+                    boolean completed = time.isBefore(now);
+                    appointments.add(new Object[]{++appointmentId, time, completed ? 1 : 0, doctorId, patientId, Duration.ofHours(1)});
+                    booked++;
+
+                    if (completed && random.nextDouble() < prescriptionRatio) {
+                        String[] medication = MEDICATIONS[random.nextInt(MEDICATIONS.length)];
+                        Prescription prescription = new Prescription(patientName(patientId), appointmentId, medication[0], medication[1], medication[2]);
+                        prescription.setPrescriptionDate(day);
+                        prescriptions.add(prescription);
+                        prescriptionCount++;
+                        if (prescribedSample.size() < PRESCRIBED_SAMPLE_MAX) {
+                            prescribedSample.add(appointmentId);
+                        }
+                    }
+                }
+                lastDay = day.isAfter(lastDay) ? day : lastDay;
+                day = day.plusDays(1);
+            }
+            if (appointments.size() >= BATCH_SIZE) {
+                flushAppointments(appointments, prescriptions);
+            }
+            if (doctorId % 100 == 0) {
+                log.info("inserted appointments of {} / {} doctors", doctorId, settings.doctors());
+            }
+        }
+        flushAppointments(appointments, prescriptions);
+
+        return new ClinicDataSet(settings.doctors(), settings.patients(), appointmentId, prescriptionCount,
+                firstDay, lastDay, prescribedSample.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    private void flushAppointments(List<Object[]> appointments, List<Prescription> prescriptions) {
+        jdbcTemplate.batchUpdate("INSERT INTO appointment (id, appointment_time, status, doctor_id, patient_id, appointment_duration) VALUES (?, ?, ?, ?, ?, ?)", appointments);
+        appointments.clear();
+        if (!prescriptions.isEmpty()) {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Prescription.class)
+                    .insert(prescriptions)
+                    .execute();
+            prescriptions.clear();
+        }
+    }
+
+    // the rows were inserted with explicit ids: let the identity columns continue after them (H2 syntax)
+    private void restartIdentities(ClinicDataSet dataSet) {
+        jdbcTemplate.execute("ALTER TABLE doctor ALTER COLUMN id RESTART WITH " + (dataSet.doctors() + 1));
+        jdbcTemplate.execute("ALTER TABLE patient ALTER COLUMN id RESTART WITH " + (dataSet.patients() + 1));
+        jdbcTemplate.execute("ALTER TABLE appointment ALTER COLUMN id RESTART WITH " + (dataSet.appointments() + 1));
+    }
+
+    // like "555-101-2020" in cms.sql
+    private static String phone(int prefix, long id) {
+        return String.format("%03d-%03d-%04d", prefix, id / 10_000 % 1_000, id % 10_000);
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.project.back_end.loadtest;
+
+import java.time.LocalDate;
+
+// what the generator wrote: ids are 1..count, appointments lie between firstDay and lastDay
+record ClinicDataSet(long doctors,
+                     long patients,
+                     long appointments,
+                     long prescriptions,
+                     LocalDate firstDay,
+                     LocalDate lastDay,
+                     long[] prescribedAppointmentIds) {
+}
@@ -0,0 +1,151 @@
+package com.project.back_end.loadtest;
+
+import com.project.back_end.services.TokenService;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+// the requests of patients and doctors against the REST endpoints, weighted by "loadtest.mix.<endpoint>"
+class ClinicScenario {
+
+    // tokens of this many patients and doctors are generated up front, each request picks one of them
+    private static final int TOKEN_POOL_SIZE = 2_000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    record Endpoint(String name, int weight, Function<Random, HttpRequest> request) {
+    }
+
+    private final String baseUrl;
+    private final ClinicDataSet dataSet;
+    private final long seed;
+
+    private final long[] patientIds;
+    private final String[] patientTokens;
+    private final long[] doctorIds;
+    private final String[] doctorTokens;
+
+    ClinicScenario(String baseUrl, ClinicDataSet dataSet, LoadTestSettings settings, TokenService tokenService) {
+        this.baseUrl = baseUrl;
+        this.dataSet = dataSet;
+        this.seed = settings.seed();
+
+        Random random = new Random(settings.seed() + 2);
+        int patientPool = (int) Math.min(TOKEN_POOL_SIZE, dataSet.patients());
+        patientIds = new long[patientPool];
+        patientTokens = new String[patientPool];
+        for (int i = 0; i < patientPool; i++) {
+            patientIds[i] = 1 + (long) (random.nextDouble() * dataSet.patients());
+            patientTokens[i] = tokenService.generateToken(ClinicDataGenerator.patientEmail(patientIds[i]));
+        }
+        int doctorPool = (int) Math.min(TOKEN_POOL_SIZE, dataSet.doctors());
+        doctorIds = new long[doctorPool];
+        doctorTokens = new String[doctorPool];
+        for (int i = 0; i < doctorPool; i++) {
+            doctorIds[i] = 1 + (long) (random.nextDouble() * dataSet.doctors());
+            doctorTokens[i] = tokenService.generateToken(ClinicDataGenerator.doctorEmail(doctorIds[i]));
+        }
+    }
+
+    // endpoints with a weight > 0 in the mix
+    List<Endpoint> endpoints(Map<String, Integer> mix) {
+        Map<String, Function<Random, HttpRequest>> requests = new LinkedHashMap<>();
+        requests.put("doctor-list", random -> get("/doctor"));
+        requests.put("doctor-filter", random -> get("/doctor/filter/"
+                + path(random.nextBoolean() ? ClinicDataGenerator.LAST_NAMES[random.nextInt(ClinicDataGenerator.LAST_NAMES.length)] : "-") + "/"
+                + path(new String[]{"AM", "PM", "-"}[random.nextInt(3)]) + "/"
+                + path(random.nextBoolean() ? ClinicDataGenerator.SPECIALTIES[random.nextInt(ClinicDataGenerator.SPECIALTIES.length)] : "-")));
+        requests.put("doctor-availability", random -> get("/doctor/availability/patient/"
+                + randomDoctorId(random) + "/" + randomDay(random, LocalDate.now()) + "/" + randomPatientToken(random)));
+        requests.put("appointments-of-day", random -> get("/appointments/"
+                + randomDay(random, dataSet.firstDay()) + "/"
+                + path(ClinicDataGenerator.FIRST_NAMES[random.nextInt(ClinicDataGenerator.FIRST_NAMES.length)]) + "/"
+                + randomDoctorToken(random)));
+        requests.put("appointment-book", random -> {
+            int patient = random.nextInt(patientIds.length);
+            return post("/appointments/" + patientTokens[patient], bookingJson(random, patientIds[patient]));
+        });
+        requests.put("patient-details", random -> get("/patient/" + randomPatientToken(random)));
+        requests.put("patient-appointments", random -> get("/patient/" + randomPatientToken(random) + "/appointments"));
+        requests.put("patient-filter", random -> get("/patient/filter/"
+                + (random.nextBoolean() ? "past" : "future") + "/"
+                + path(ClinicDataGenerator.LAST_NAMES[random.nextInt(ClinicDataGenerator.LAST_NAMES.length)]) + "/"
+                + randomPatientToken(random)));
+        requests.put("prescription", random -> get("/prescription/"
+                + randomPrescribedAppointmentId(random) + "/" + randomDoctorToken(random)));
+        requests.put("prescription-history", random -> get("/prescription/history/"
+                + patientIds[random.nextInt(patientIds.length)] + "/" + randomDoctorToken(random) + "?page=0&size=20"));
+
+        List<Endpoint> endpoints = new ArrayList<>();
+        requests.forEach((name, request) -> {
+            int weight = mix.getOrDefault(name, 0);
+            if (weight > 0) {
+                endpoints.add(new Endpoint(name, weight, request));
+            }
+        });
+        return endpoints;
+    }
+
+    private long randomDoctorId(Random random) {
+        return doctorIds[random.nextInt(doctorIds.length)];
+    }
+
+    private String randomDoctorToken(Random random) {
+        return doctorTokens[random.nextInt(doctorTokens.length)];
+    }
+
+    private String randomPatientToken(Random random) {
+        return patientTokens[random.nextInt(patientTokens.length)];
+    }
+
+    private long randomPrescribedAppointmentId(Random random) {
+        long[] ids = dataSet.prescribedAppointmentIds();
+        return ids.length == 0 ? 1 : ids[random.nextInt(ids.length)];
+    }
+
+    // a day between from and the last generated day
+    private LocalDate randomDay(Random random, LocalDate from) {
+        long days = Math.max(1, dataSet.lastDay().toEpochDay() - from.toEpochDay() + 1);
+        return from.plusDays((long) (random.nextDouble() * days));
+    }
+
+    // one of the doctor's slots on a future day, often already taken (answered with 400)
+    private String bookingJson(Random random, long patientId) {
+        long doctorId = randomDoctorId(random);
+        List<LocalTime> slots = ClinicDataGenerator.slotsOf(seed, doctorId);
+        LocalDate day = randomDay(random, LocalDate.now().plusDays(1));
+        return "{\"doctor\":{\"id\":" + doctorId + "},\"patient\":{\"id\":" + patientId + "},"
+                + "\"appointmentTime\":\"" + day.atTime(slots.get(random.nextInt(slots.size()))) + "\","
+                + "\"appointmentDuration\":\"PT1H\",\"status\":0}";
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static String path(String segment) {
+        return URLEncoder.encode(segment, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.project.back_end.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// latencies (µs, 1 µs - 1 min, 3 significant digits) and outcomes of the requests to one endpoint
+class EndpointStats {
+
+    private final Histogram latencyMicros = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    void recordResponse(long latencyNanos, int statusCode) {
+        latencyMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), latencyMicros.getHighestTrackableValue()));
+        if (statusCode >= 500) {
+            serverErrors.increment();
+        } else if (statusCode >= 400) {
+            clientErrors.increment();
+        }
+    }
+
+    // no response at all (connection error, timeout)
+    void recordFailure() {
+        failures.increment();
+    }
+
+    Histogram latencyMicros() {
+        return latencyMicros;
+    }
+
+    long clientErrors() {
+        return clientErrors.sum();
+    }
+
+    long serverErrors() {
+        return serverErrors.sum();
+    }
+
+    long failures() {
+        return failures.sum();
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.project.back_end.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// closed-loop driver: "concurrency" workers each send one request after the other, picking the endpoint by weight.
+// Requests of the warmup are not recorded. Being closed-loop, a stalled server also slows down the request rate,
+// so compare the throughput next to the percentiles.
+class LoadDriver {
+
+    private final Logger log = LoggerFactory.getLogger( getClass() );
+
+    private final LoadTestSettings settings;
+    private final List<ClinicScenario.Endpoint> endpoints;
+    private final int[] cumulativeWeights;
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final ExecutorService httpClientExecutor;
+    private final HttpClient httpClient;
+
+    LoadDriver(LoadTestSettings settings, List<ClinicScenario.Endpoint> endpoints) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("no endpoint with a weight > 0 in loadtest.mix");
+        }
+        this.settings = settings;
+        this.endpoints = endpoints;
+        this.cumulativeWeights = new int[endpoints.size()];
+        int sum = 0;
+        for (int i = 0; i < endpoints.size(); i++) {
+            sum += endpoints.get(i).weight();
+            cumulativeWeights[i] = sum;
+            stats.put(endpoints.get(i).name(), new EndpointStats());
+        }
+        this.httpClientExecutor = Executors.newFixedThreadPool(Math.max(2, settings.concurrency() / 4));
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(httpClientExecutor)
+                .build();
+    }
+
+    Map<String, EndpointStats> run() throws InterruptedException {
+        long warmupEnd = System.nanoTime() + settings.warmup().toNanos();
+        long end = warmupEnd + settings.duration().toNanos();
+        log.info("{} workers: warmup {} s, measuring {} s", settings.concurrency(), settings.warmup().toSeconds(), settings.duration().toSeconds());
+
+        ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency());
+        for (int worker = 0; worker < settings.concurrency(); worker++) {
+            Random random = new Random(settings.seed() + 100 + worker);
+            workers.execute(() -> work(random, warmupEnd, end));
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(settings.warmup().plus(settings.duration()).toSeconds() + 60, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+        httpClientExecutor.shutdownNow();
+        return stats;
+    }
+
+    private void work(Random random, long warmupEnd, long end) {
+        long started;
+        while ((started = System.nanoTime()) < end) {
+            ClinicScenario.Endpoint endpoint = pick(random);
+            HttpRequest request = endpoint.request().apply(random);
+            EndpointStats endpointStats = stats.get(endpoint.name());
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (started >= warmupEnd) {
+                    endpointStats.recordResponse(System.nanoTime() - started, response.statusCode());
+                }
+            } catch (IOException e) {
+                if (started >= warmupEnd) {
+                    endpointStats.recordFailure();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private ClinicScenario.Endpoint pick(Random random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return endpoints.get(i);
+            }
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+
+}
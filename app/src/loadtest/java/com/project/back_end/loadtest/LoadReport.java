@@ -0,0 +1,92 @@
+package com.project.back_end.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// result of a run: per endpoint throughput and latency percentiles (ms), printed as a table and written as JSON
+record LoadReport(LocalDateTime finishedAt,
+                  int concurrency,
+                  String threads,
+                  long dbLatencyMs,
+                  long durationSeconds,
+                  long doctors,
+                  long patients,
+                  long appointments,
+                  long prescriptions,
+                  List<EndpointResult> endpoints) {
+
+    record EndpointResult(String endpoint,
+                          long requests,
+                          double throughputPerSecond,
+                          double p50Ms,
+                          double p99Ms,
+                          double p999Ms,
+                          double maxMs,
+                          long clientErrors,
+                          long serverErrors,
+                          long failures) {
+    }
+
+    static LoadReport of(LoadTestSettings settings, ClinicDataSet dataSet, Map<String, EndpointStats> stats) {
+        double seconds = settings.duration().toMillis() / 1000.0;
+        List<EndpointResult> results = new ArrayList<>();
+        stats.forEach((endpoint, endpointStats) -> {
+            Histogram latency = endpointStats.latencyMicros();
+            results.add(new EndpointResult(endpoint,
+                    latency.getTotalCount(),
+                    latency.getTotalCount() / seconds,
+                    millis(latency.getValueAtPercentile(50)),
+                    millis(latency.getValueAtPercentile(99)),
+                    millis(latency.getValueAtPercentile(99.9)),
+                    millis(latency.getMaxValue()),
+                    endpointStats.clientErrors(),
+                    endpointStats.serverErrors(),
+                    endpointStats.failures()));
+        });
+        return new LoadReport(LocalDateTime.now(), settings.concurrency(), settings.threads(), settings.dbLatency().toMillis(),
+                settings.duration().toSeconds(),
+                dataSet.doctors(), dataSet.patients(), dataSet.appointments(), dataSet.prescriptions(), results);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    void print(PrintStream out) {
+        out.printf("%n%d workers, %d s, data: %d doctors, %d patients, %d appointments, %d prescriptions%n",
+                concurrency, durationSeconds, doctors, patients, appointments, prescriptions);
+        out.printf("server threads: %s, simulated db latency: %d ms per statement%n", threads, dbLatencyMs);
+        out.printf("%-22s %10s %10s %10s %10s %10s %10s %8s %8s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "4xx", "5xx", "failed");
+        for (EndpointResult result : endpoints) {
+            out.printf("%-22s %10d %10.1f %10.2f %10.2f %10.2f %10.2f %8d %8d %8d%n",
+                    result.endpoint(), result.requests(), result.throughputPerSecond(),
+                    result.p50Ms(), result.p99Ms(), result.p999Ms(), result.maxMs(),
+                    result.clientErrors(), result.serverErrors(), result.failures());
+        }
+    }
+
+    void writeJson(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(path.toFile(), this);
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.project.back_end.loadtest;
+
+import com.project.back_end.BackEndApplication;
+import com.project.back_end.services.TokenService;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.ServerVersion;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// end-to-end load test: starts the application (profile "loadtest") against an in-memory H2 in MySQL mode and an
+// in-memory Mongo server, seeds synthetic clinic data, drives the REST endpoints and reports latency and throughput.
+// Arguments are Spring Boot style properties, e.g. --loadtest.patients=1000000 --loadtest.concurrency=64
+// (run with: mvn -Ploadtest verify -Dloadtest.args="...")
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        // devtools would restart the application in its own class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        MongoServer mongoServer = new MongoServer(new MemoryBackend().version(ServerVersion.MONGO_5_0));
+        InetSocketAddress mongoAddress = mongoServer.bind();
+        String mongoUri = "--spring.data.mongodb.uri=mongodb://" + mongoAddress.getHostString() + ":" + mongoAddress.getPort() + "/prescriptions";
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackEndApplication.class)
+                .profiles("loadtest")
+                .initializers(applicationContext -> applicationContext.getBeanFactory().addBeanPostProcessor(new SimulatedDbLatency()))
+                .run(Stream.concat(Arrays.stream(args), Stream.of(mongoUri)).toArray(String[]::new))) {
+            Environment env = context.getEnvironment();
+            LoadTestSettings settings = LoadTestSettings.from(env);
+
+            ClinicDataSet dataSet = new ClinicDataGenerator(context.getBean(JdbcTemplate.class),
+                    context.getBean(MongoTemplate.class), settings).generate();
+            SimulatedDbLatency.enable(settings.dbLatency());
+
+            String baseUrl = "http://localhost:" + env.getRequiredProperty("local.server.port");
+            ClinicScenario scenario = new ClinicScenario(baseUrl, dataSet, settings, context.getBean(TokenService.class));
+            Map<String, EndpointStats> stats = new LoadDriver(settings, scenario.endpoints(settings.mix())).run();
+
+            LoadReport report = LoadReport.of(settings, dataSet, stats);
+            report.print(System.out);
+            report.writeJson(settings.report());
+            System.out.println("report written to " + settings.report().toAbsolutePath());
+        } finally {
+            mongoServer.shutdownNow();
+        }
+    }
+
+}
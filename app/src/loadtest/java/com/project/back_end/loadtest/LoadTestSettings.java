@@ -0,0 +1,51 @@
+package com.project.back_end.loadtest;
+
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+// settings of a load test run (properties "loadtest.*", see application-loadtest.properties)
+record LoadTestSettings(int doctors,
+                        int patients,
+                        int appointments,
+                        int prescriptions,
+                        long seed,
+                        int concurrency,
+                        String threads,
+                        Duration dbLatency,
+                        Duration warmup,
+                        Duration duration,
+                        Map<String, Integer> mix,
+                        Path report) {
+
+    static LoadTestSettings from(Environment env) {
+        Map<String, Integer> mix = Binder.get(env)
+                .bind("loadtest.mix", Bindable.mapOf(String.class, Integer.class))
+                .orElse(Map.of());
+        return new LoadTestSettings(
+                env.getRequiredProperty("loadtest.doctors", Integer.class),
+                env.getRequiredProperty("loadtest.patients", Integer.class),
+                env.getRequiredProperty("loadtest.appointments", Integer.class),
+                env.getRequiredProperty("loadtest.prescriptions", Integer.class),
+                env.getProperty("loadtest.seed", Long.class, 42L),
+                env.getRequiredProperty("loadtest.concurrency", Integer.class),
+                threads(env),
+                Duration.ofMillis(env.getProperty("loadtest.db-latency-ms", Long.class, 0L)),
+                Duration.ofSeconds(env.getRequiredProperty("loadtest.warmup-seconds", Integer.class)),
+                Duration.ofSeconds(env.getRequiredProperty("loadtest.duration-seconds", Integer.class)),
+                mix,
+                Path.of(env.getRequiredProperty("loadtest.report")));
+    }
+
+    // how the application serves the requests: Spring Boot uses virtual threads only on Java 21+
+    private static String threads(Environment env) {
+        boolean virtual = env.getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                && Runtime.version().feature() >= 21;
+        return virtual ? "virtual" : "platform (max " + env.getProperty("server.tomcat.threads.max", "200") + ")";
+    }
+
+}
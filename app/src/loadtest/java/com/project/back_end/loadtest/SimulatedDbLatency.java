@@ -0,0 +1,71 @@
+package com.project.back_end.loadtest;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+
+// adds a fixed delay to every statement execution (loadtest.db-latency-ms), emulating the network round trip to
+// MySQL which the in-memory H2 does not have. Without it the request threads hardly ever block on the database and
+// platform vs virtual threads (spring.threads.virtual.enabled) cannot make a difference.
+// Switched on after the data set is generated (LoadTest), the seeding runs at full speed.
+class SimulatedDbLatency implements BeanPostProcessor {
+
+    private static volatile long latencyNanos;
+
+    static void enable(Duration latency) {
+        latencyNanos = latency.toNanos();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return proxy(Connection.class, super.getConnection());
+                }
+            };
+        }
+        return bean;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                long nanos = latencyNanos;
+                if (nanos > 0) {
+                    LockSupport.parkNanos(nanos); // parks a virtual thread without blocking its carrier
+                }
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof CallableStatement statement && method.getReturnType() == CallableStatement.class) {
+                return proxy(CallableStatement.class, statement);
+            }
+            if (result instanceof PreparedStatement statement && method.getReturnType() == PreparedStatement.class) {
+                return proxy(PreparedStatement.class, statement);
+            }
+            if (result instanceof Statement statement && method.getReturnType() == Statement.class) {
+                return proxy(Statement.class, statement);
+            }
+            return result;
+        });
+    }
+
+}
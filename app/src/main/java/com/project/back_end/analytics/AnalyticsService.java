@@ -0,0 +1,238 @@
+package com.project.back_end.analytics;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+// analytics for the admins (utilisation per doctor, no-show rates, demand per specialty) over arbitrary date ranges.
+// the queries don't run against the OLTP appointment table : the appointments are copied into a compact in-memory
+// column store (AppointmentSnapshot) which is refreshed at most every `clinic.analytics.snapshot-max-age-minutes`,
+// and the aggregations run as fork/join tasks on all cores.
+@Service
+public class AnalyticsService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorRepository doctorRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration snapshotMaxAge;
+
+    private volatile AppointmentSnapshot snapshot;
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    private final Logger log = LoggerFactory.getLogger( getClass() );
+
+    @Autowired
+    public AnalyticsService(AppointmentRepository appointmentRepository,
+                            DoctorRepository doctorRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${clinic.analytics.snapshot-max-age-minutes:10}") long snapshotMaxAgeMinutes) {
+        this.appointmentRepository = appointmentRepository;
+        this.doctorRepository = doctorRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.snapshotMaxAge = Duration.ofMinutes(snapshotMaxAgeMinutes);
+    }
+
+    // statistics of the appointments in [from, to) : per doctor and per specialty
+    public Map<String, Object> getStatistics(LocalDate from, LocalDate to) {
+        AppointmentSnapshot current = currentSnapshot();
+        int start = current.indexOfFirstAtOrAfter(toEpochMinute(from.atStartOfDay()));
+        int end = current.indexOfFirstAtOrAfter(toEpochMinute(to.atStartOfDay()));
+        int nowMinute = toEpochMinute(LocalDateTime.now());
+
+        long startNanos = System.nanoTime();
+        AppointmentStatsTask.Stats stats = ForkJoinPool.commonPool()
+                .invoke(new AppointmentStatsTask(current, start, end, nowMinute));
+        long elapsedMicros = (System.nanoTime() - startNanos) / 1000;
+
+        long days = Math.max(1, ChronoUnit.DAYS.between(from, to));
+        List<Map<String, Object>> doctors = new ArrayList<>();
+        long[] specialtyAppointments = new long[current.specialties.length];
+        long totalAppointments = 0;
+        long totalPast = 0;
+        long totalNoShows = 0;
+        for (int d = 0; d < current.doctorCount(); d++) {
+            specialtyAppointments[current.doctorSpecialty[d]] += stats.appointments[d];
+            totalAppointments += stats.appointments[d];
+            totalPast += stats.past[d];
+            totalNoShows += stats.noShows[d];
+
+            long availableMinutes = days * current.doctorAvailableMinutesPerDay[d];
+            Map<String, Object> doctor = new LinkedHashMap<>();
+            doctor.put("doctorId", current.doctorIds[d]);
+            doctor.put("doctorName", current.doctorNames[d]);
+            doctor.put("specialty", current.specialties[current.doctorSpecialty[d]]);
+            doctor.put("appointments", stats.appointments[d]);
+            doctor.put("cancelled", stats.cancelled[d]);
+            doctor.put("bookedMinutes", stats.bookedMinutes[d]);
+            doctor.put("utilisation", ratio(stats.bookedMinutes[d], availableMinutes));
+            doctor.put("noShows", stats.noShows[d]);
+            doctor.put("noShowRate", ratio(stats.noShows[d], stats.past[d]));
+            doctors.add(doctor);
+        }
+
+        Map<String, Object> specialtyDemand = new LinkedHashMap<>();
+        for (int s = 0; s < current.specialties.length; s++) {
+            specialtyDemand.put(current.specialties[s], specialtyAppointments[s]);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("from", from);
+        result.put("to", to);
+        result.put("appointments", totalAppointments);
+        result.put("noShowRate", ratio(totalNoShows, totalPast));
+        result.put("doctors", doctors);
+        result.put("specialtyDemand", specialtyDemand);
+        result.put("snapshotCreatedAt", current.getCreatedAt());
+        result.put("computeMicros", elapsedMicros);
+        return result;
+    }
+
+    // forces a reload of the snapshot (e.g. after a bulk import)
+    public AppointmentSnapshot refreshSnapshot() {
+        snapshotLock.lock();
+        try {
+            snapshot = loadSnapshot();
+            return snapshot;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private AppointmentSnapshot currentSnapshot() {
+        AppointmentSnapshot current = snapshot;
+        if (current != null && !isExpired(current)) {
+            return current;
+        }
+        if (current != null && !snapshotLock.tryLock()) {
+            return current; // another thread is reloading : answer with the previous snapshot meanwhile
+        }
+        if (current == null) {
+            snapshotLock.lock();
+        }
+        try {
+            if (snapshot == null || isExpired(snapshot)) {
+                snapshot = loadSnapshot();
+            }
+            return snapshot;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private boolean isExpired(AppointmentSnapshot current) {
+        return current.getCreatedAt().plus(snapshotMaxAge).isBefore(Instant.now());
+    }
+
+    private AppointmentSnapshot loadSnapshot() {
+        long startNanos = System.nanoTime();
+
+        // doctors : dense index, specialty index and available minutes per day
+        List<Doctor> doctorList = doctorRepository.findAll();
+        List<Long> doctorIds = new ArrayList<>(doctorList.size());
+        List<String> doctorNames = new ArrayList<>(doctorList.size());
+        List<Integer> doctorSpecialty = new ArrayList<>(doctorList.size());
+        List<Integer> availableMinutesPerDay = new ArrayList<>(doctorList.size());
+        Map<Long, Integer> doctorIndexById = new HashMap<>(doctorList.size() * 2);
+        Map<String, Integer> specialtyIndex = new LinkedHashMap<>();
+        for (Doctor doctor : doctorList) {
+            String specialty = doctor.getSpecialty() != null ? doctor.getSpecialty() : "";
+            doctorIndexById.put(doctor.getId(), doctorIds.size());
+            doctorIds.add(doctor.getId());
+            doctorNames.add(doctor.getName());
+            doctorSpecialty.add(specialtyIndex.computeIfAbsent(specialty, s -> specialtyIndex.size()));
+            availableMinutesPerDay.add(availableMinutesPerDay(doctor.getAvailableTimes()));
+        }
+        int knownDoctors = doctorIds.size();
+
+        // appointments : streamed in the order of the appointment time inside one read-only transaction
+        AppointmentSnapshot.Builder builder = new AppointmentSnapshot.Builder();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = appointmentRepository.streamAnalyticsColumns()) {
+                rows.forEach(row -> {
+                    LocalDateTime time = (LocalDateTime) row[1];
+                    if (time == null) {
+                        return;
+                    }
+                    // a doctor deleted (the archived appointments remain) or added after the doctors were read :
+                    // counted under its id, without name, specialty and available time
+                    Integer doctor = doctorIndexById.computeIfAbsent((Long) row[0], id -> {
+                        doctorIds.add(id);
+                        doctorNames.add(null);
+                        doctorSpecialty.add(specialtyIndex.computeIfAbsent("", s -> specialtyIndex.size()));
+                        availableMinutesPerDay.add(0);
+                        return doctorIds.size() - 1;
+                    });
+                    Duration duration = (Duration) row[3];
+                    builder.add(doctor, toEpochMinute(time), (Integer) row[2],
+                            duration != null ? (int) duration.toMinutes() : 60);
+                });
+            }
+        });
+
+        AppointmentSnapshot loaded = builder.build(
+                doctorIds.stream().mapToLong(Long::longValue).toArray(),
+                doctorNames.toArray(new String[0]),
+                doctorSpecialty.stream().mapToInt(Integer::intValue).toArray(),
+                availableMinutesPerDay.stream().mapToInt(Integer::intValue).toArray(),
+                specialtyIndex.keySet().toArray(new String[0]));
+        log.info("analytics snapshot loaded : {} appointments, {} doctors ({} unknown) in {} ms",
+                loaded.size(), knownDoctors, loaded.doctorCount() - knownDoctors, (System.nanoTime() - startNanos) / 1_000_000);
+        return loaded;
+    }
+
+    // time slots like "09:00-10:00" ; a slot without end time counts as one hour
+    private static int availableMinutesPerDay(List<String> availableTimes) {
+        if (availableTimes == null) {
+            return 0;
+        }
+        int minutes = 0;
+        for (String slot : availableTimes) {
+            try {
+                String[] startAndEnd = slot.split("-");
+                if (startAndEnd.length == 2) {
+                    minutes += (int) ChronoUnit.MINUTES.between(LocalTime.parse(startAndEnd[0].trim()), LocalTime.parse(startAndEnd[1].trim()));
+                } else {
+                    minutes += 60;
+                }
+            } catch (Exception e) {
+                // ignore malformed slot
+            }
+        }
+        return minutes;
+    }
+
+    private static int toEpochMinute(LocalDateTime time) {
+        return (int) (time.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+
+    private static double ratio(long part, long total) {
+        return total == 0 ? 0.0 : (double) part / total;
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.project.back_end.analytics;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+// compact, immutable column store of all appointments (one array per column, ordered by appointment time).
+// doctors are referenced by a dense index (0..doctorCount-1) so that aggregations can use plain arrays instead of maps.
+// about 11 bytes per appointment: a year of data of a large clinic fits into a few MB.
+public final class AppointmentSnapshot {
+
+    // appointment columns
+    final int[] doctorIndex;
+    final int[] epochMinute;
+    final byte[] status;
+    final short[] durationMinutes;
+    final int size;
+
+    // doctor columns (indexed by doctorIndex)
+    final long[] doctorIds;
+    final String[] doctorNames;
+    final int[] doctorSpecialty;
+    final int[] doctorAvailableMinutesPerDay;
+
+    // specialties (indexed by doctorSpecialty)
+    final String[] specialties;
+
+    final Instant createdAt;
+
+    AppointmentSnapshot(int[] doctorIndex, int[] epochMinute, byte[] status, short[] durationMinutes, int size,
+                        long[] doctorIds, String[] doctorNames, int[] doctorSpecialty, int[] doctorAvailableMinutesPerDay,
+                        String[] specialties, Instant createdAt) {
+        this.doctorIndex = doctorIndex;
+        this.epochMinute = epochMinute;
+        this.status = status;
+        this.durationMinutes = durationMinutes;
+        this.size = size;
+        this.doctorIds = doctorIds;
+        this.doctorNames = doctorNames;
+        this.doctorSpecialty = doctorSpecialty;
+        this.doctorAvailableMinutesPerDay = doctorAvailableMinutesPerDay;
+        this.specialties = specialties;
+        this.createdAt = createdAt;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int doctorCount() {
+        return doctorIds.length;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    // index of the first appointment at or after the given minute (appointments are ordered by time)
+    int indexOfFirstAtOrAfter(int minute) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochMinute[mid] < minute) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // collects the rows of the snapshot; rows must be added in the order of the appointment time
+    static final class Builder {
+
+        private int[] doctorIndex = new int[1024];
+        private int[] epochMinute = new int[1024];
+        private byte[] status = new byte[1024];
+        private short[] durationMinutes = new short[1024];
+        private int size;
+
+        void add(int doctor, int minute, int appointmentStatus, int duration) {
+            if (size == epochMinute.length) {
+                int capacity = size * 2;
+                doctorIndex = Arrays.copyOf(doctorIndex, capacity);
+                epochMinute = Arrays.copyOf(epochMinute, capacity);
+                status = Arrays.copyOf(status, capacity);
+                durationMinutes = Arrays.copyOf(durationMinutes, capacity);
+            }
+            doctorIndex[size] = doctor;
+            epochMinute[size] = minute;
+            status[size] = (byte) appointmentStatus;
+            durationMinutes[size] = (short) Math.min(duration, Short.MAX_VALUE);
+            size++;
+        }
+
+        AppointmentSnapshot build(long[] doctorIds, String[] doctorNames, int[] doctorSpecialty, int[] doctorAvailableMinutesPerDay,
+                                  String[] specialties) {
+            return new AppointmentSnapshot(
+                    Arrays.copyOf(doctorIndex, size), Arrays.copyOf(epochMinute, size),
+                    Arrays.copyOf(status, size), Arrays.copyOf(durationMinutes, size), size,
+                    doctorIds, doctorNames, doctorSpecialty, doctorAvailableMinutesPerDay, specialties, Instant.now());
+        }
+    }
+}
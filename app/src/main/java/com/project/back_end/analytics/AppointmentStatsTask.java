@@ -0,0 +1,91 @@
+package com.project.back_end.analytics;
+
+import com.project.back_end.models.Appointment;
+
+import java.util.concurrent.RecursiveTask;
+
+// fork/join aggregation over a range of the snapshot: the range is split until it is small enough,
+// every leaf aggregates into its own per doctor arrays which are then summed up (no shared mutable state).
+class AppointmentStatsTask extends RecursiveTask<AppointmentStatsTask.Stats> {
+
+    static final int LEAF_SIZE = 1 << 15;
+
+    private final AppointmentSnapshot snapshot;
+    private final int from;
+    private final int to;
+    private final int nowMinute;
+
+    AppointmentStatsTask(AppointmentSnapshot snapshot, int from, int to, int nowMinute) {
+        this.snapshot = snapshot;
+        this.from = from;
+        this.to = to;
+        this.nowMinute = nowMinute;
+    }
+
+    @Override
+    protected Stats compute() {
+        if (to - from <= LEAF_SIZE) {
+            return aggregate();
+        }
+        int mid = (from + to) >>> 1;
+        AppointmentStatsTask left = new AppointmentStatsTask(snapshot, from, mid, nowMinute);
+        left.fork();
+        Stats right = new AppointmentStatsTask(snapshot, mid, to, nowMinute).compute();
+        return right.add(left.join());
+    }
+
+    private Stats aggregate() {
+        Stats stats = new Stats(snapshot.doctorCount());
+        final int[] doctorIndex = snapshot.doctorIndex;
+        final int[] epochMinute = snapshot.epochMinute;
+        final byte[] status = snapshot.status;
+        final short[] durationMinutes = snapshot.durationMinutes;
+        for (int i = from; i < to; i++) {
+            int doctor = doctorIndex[i];
+            int appointmentStatus = status[i];
+            if (appointmentStatus == Appointment.STATUS_CANCELLED) {
+                stats.cancelled[doctor]++;
+                continue;
+            }
+            stats.appointments[doctor]++;
+            stats.bookedMinutes[doctor] += durationMinutes[i];
+            if (epochMinute[i] < nowMinute) {
+                stats.past[doctor]++;
+                // a past appointment that is still scheduled has not taken place
+                if (appointmentStatus == Appointment.STATUS_SCHEDULED || appointmentStatus == Appointment.STATUS_NO_SHOW) {
+                    stats.noShows[doctor]++;
+                }
+            }
+        }
+        return stats;
+    }
+
+    // per doctor counters (indexed by the doctor index of the snapshot)
+    static final class Stats {
+
+        final long[] appointments;
+        final long[] cancelled;
+        final long[] bookedMinutes;
+        final long[] past;
+        final long[] noShows;
+
+        Stats(int doctorCount) {
+            appointments = new long[doctorCount];
+            cancelled = new long[doctorCount];
+            bookedMinutes = new long[doctorCount];
+            past = new long[doctorCount];
+            noShows = new long[doctorCount];
+        }
+
+        Stats add(Stats other) {
+            for (int d = 0; d < appointments.length; d++) {
+                appointments[d] += other.appointments[d];
+                cancelled[d] += other.cancelled[d];
+                bookedMinutes[d] += other.bookedMinutes[d];
+                past[d] += other.past[d];
+                noShows[d] += other.noShows[d];
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.project.back_end.cache;
+
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.events.CacheInvalidationEvent;
+import com.project.back_end.models.CacheInvalidation;
+import com.project.back_end.repo.CacheInvalidationRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+// invalidation channel between the instances of the application (`clinic.cache.invalidation.enabled`): a change of a
+// doctor, admin, patient or appointment is broadcast as a row of the table cache_invalidation, written in the
+// transaction of the change (a rollback broadcasts nothing). Every node polls the rows above the last version it has
+// seen in batches of `batch-size` every `poll-interval` and publishes a CacheInvalidationEvent for each row of another
+// node; the listeners (HibernateCacheEvictor, DailyReportService) drop their local copies.
+// Versions come from AUTO_INCREMENT, which is assigned at insert and not at commit: a version skipped by a poll is
+// re-read for `gap-timeout` (a longer transaction commits it later, a rollback never).
+// Rows older than `retention` are deleted.
+@Component
+public class CacheInvalidationBus {
+
+    private static final int MAX_TRACKED_GAP = 1000;
+
+    private final CacheInvalidationRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration gapTimeout;
+    private final Duration retention;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // last version seen
+    private long lastVersion;
+    // skipped versions -> when they were skipped (System.nanoTime)
+    private final Map<Long, Long> gaps = new HashMap<>();
+    private final ReentrantLock pollLock = new ReentrantLock();
+
+    private final Logger log = LoggerFactory.getLogger( getClass() );
+
+    @Autowired
+    public CacheInvalidationBus(CacheInvalidationRepository repository,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${clinic.cache.invalidation.enabled:false}") boolean enabled,
+                                @Value("${clinic.cache.invalidation.batch-size:500}") int batchSize,
+                                @Value("${clinic.cache.invalidation.gap-timeout:10s}") Duration gapTimeout,
+                                @Value("${clinic.cache.invalidation.retention:1h}") Duration retention) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.gapTimeout = gapTimeout;
+        this.retention = retention;
+        // nothing is cached yet: only the changes from now on matter
+        this.lastVersion = enabled ? repository.findMaxVersion() : 0;
+    }
+
+    // joins the transaction of the caller if there is one
+    public void broadcast(CacheInvalidation.Region region, Long entityId) {
+        if (!enabled) {
+            return;
+        }
+        repository.save(new CacheInvalidation(region, entityId, nodeId, LocalDateTime.now()));
+    }
+
+    // booked, moved and cancelled appointments: in the transaction of the change
+    @EventListener
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        broadcast(CacheInvalidation.Region.APPOINTMENT, event.getDoctorId());
+    }
+
+    @Scheduled(fixedDelayString = "${clinic.cache.invalidation.poll-interval:1s}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        pollLock.lock();
+        try {
+            List<CacheInvalidation> received = new ArrayList<>();
+            if (!gaps.isEmpty()) {
+                for (CacheInvalidation late : repository.findByVersionIn(gaps.keySet())) {
+                    gaps.remove(late.getVersion());
+                    received.add(late);
+                }
+            }
+            long now = System.nanoTime();
+            for (CacheInvalidation next : repository.findByVersionGreaterThanOrderByVersionAsc(lastVersion, Limit.of(batchSize))) {
+                if (next.getVersion() - lastVersion <= MAX_TRACKED_GAP) {
+                    for (long skipped = lastVersion + 1; skipped < next.getVersion(); skipped++) {
+                        gaps.put(skipped, now);
+                    }
+                }
+                lastVersion = next.getVersion();
+                received.add(next);
+            }
+            gaps.values().removeIf(skippedAt -> now - skippedAt > gapTimeout.toNanos());
+
+            for (CacheInvalidation invalidation : received) {
+                if (nodeId.equals(invalidation.getOriginNode())) {
+                    continue; // the own changes are already in the local caches
+                }
+                log.debug("remote invalidation {}", invalidation);
+                eventPublisher.publishEvent(new CacheInvalidationEvent(invalidation.getRegion(), invalidation.getEntityId()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("polling the cache invalidations failed: {}", e.getMessage());
+        } finally {
+            pollLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${clinic.cache.invalidation.cleanup-interval:10m}")
+    public void deleteExpired() {
+        if (!enabled) {
+            return;
+        }
+        Integer deleted = transactionTemplate.execute(status ->
+                repository.deleteByCreatedAtBefore(LocalDateTime.now().minus(retention)));
+        log.debug("{} expired cache invalidations deleted", deleted);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.project.back_end.cache;
+
+import com.project.back_end.events.CacheInvalidationEvent;
+import com.project.back_end.models.Admin;
+import com.project.back_end.models.Doctor;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// drops what another node changed from the local second-level cache (Doctor with its available times, Admin).
+// The query cache (findByEmail, findByUsername) is cleared as a whole: the local update timestamps of the tables
+// don't know about the change.
+@Component
+public class HibernateCacheEvictor {
+
+    private static final String AVAILABLE_TIMES_ROLE = Doctor.class.getName() + ".availableTimes";
+
+    private final Cache cache;
+
+    public HibernateCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        switch (event.getRegion()) {
+            case DOCTOR -> {
+                if (event.getEntityId() == null) {
+                    cache.evictEntityData(Doctor.class);
+                    cache.evictCollectionData(AVAILABLE_TIMES_ROLE);
+                } else {
+                    cache.evictEntityData(Doctor.class, event.getEntityId());
+                    cache.evictCollectionData(AVAILABLE_TIMES_ROLE, event.getEntityId());
+                }
+                cache.evictDefaultQueryRegion();
+            }
+            case ADMIN -> {
+                if (event.getEntityId() == null) {
+                    cache.evictEntityData(Admin.class);
+                } else {
+                    cache.evictEntityData(Admin.class, event.getEntityId());
+                }
+                cache.evictDefaultQueryRegion();
+            }
+            default -> {
+                // patients and appointments are not in the second-level cache
+            }
+        }
+    }
+
+}
@@ -0,0 +1,158 @@
+package com.project.back_end.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+// adjusts the maximum size of the Hikari pool within [min-size, max-size] from what the pool metrics saw in the last
+// interval (see AdaptivePoolSizingConfig):
+// - mean wait for a connection (hikaricp.connections.acquire) above `target-wait` while requests queue (pending, or
+//   waiting at the GatedDataSource): grow by `step` - unless the connections are held longer than `max-usage` on
+//   average, then the database itself is slow and more connections would only add load to it
+// - almost no waiting and the connections busy less than half of the interval: shrink by one
+// The concurrency gate is resized by the same amount, its distance to the pool size is kept. The minimum of idle
+// connections follows the pool size down and back up to its configured value.
+public class AdaptivePoolSizer {
+
+    static final String ACQUIRE_METRIC_NAME = "hikaricp.connections.acquire";
+    static final String USAGE_METRIC_NAME = "hikaricp.connections.usage";
+
+    // what the pool saw in one interval: mean wait and hold time (ms), busy fraction of the connections, queued requests
+    record Window(double meanWaitMillis, double meanUsageMillis, double utilisation, int queued) {
+    }
+
+    private final Logger log = LoggerFactory.getLogger( getClass() );
+
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final int minSize;
+    private final int maxSize;
+    private final int step;
+    private final double targetWaitMillis;
+    private final double maxUsageMillis;
+
+    // totals of the timers at the end of the previous interval
+    private long lastAcquireCount;
+    private double lastAcquireMillis;
+    private long lastUsageCount;
+    private double lastUsageMillis;
+    private long lastSampleNanos = System.nanoTime();
+    // minimumIdle of the pool before the first resize, -1: not read yet
+    private int configuredMinimumIdle = -1;
+
+    public AdaptivePoolSizer(DataSource dataSource, MeterRegistry meterRegistry,
+                             int minSize, int maxSize, int step, double targetWaitMillis, double maxUsageMillis) {
+        if (minSize <= 0 || maxSize < minSize || step <= 0) {
+            throw new IllegalArgumentException("invalid pool bounds: min " + minSize + ", max " + maxSize + ", step " + step);
+        }
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.step = step;
+        this.targetWaitMillis = targetWaitMillis;
+        this.maxUsageMillis = maxUsageMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${clinic.db.pool.adaptive.interval:10s}",
+               initialDelayString = "${clinic.db.pool.adaptive.interval:10s}")
+    public void adjust() {
+        HikariDataSource pool;
+        try {
+            pool = dataSource.unwrap(HikariDataSource.class);
+        } catch (SQLException e) {
+            log.debug("adaptive pool sizing: no Hikari pool behind {}", dataSource);
+            return;
+        }
+        if (pool.getHikariPoolMXBean() == null) { // pool not started yet
+            return;
+        }
+        int current = pool.getMaximumPoolSize();
+        int next = nextSize(current, sample(pool, current));
+        if (next == current) {
+            return;
+        }
+        resize(pool, next);
+        if (dataSource instanceof GatedDataSource gated) {
+            gated.setMaxPermits(Math.max(1, gated.getMaxPermits() + next - current));
+        }
+        log.info("connection pool {} resized: {} -> {}", pool.getPoolName(), current, next);
+    }
+
+    // the minimum of idle connections is the configured one, at most the pool size
+    void resize(HikariDataSource pool, int size) {
+        if (configuredMinimumIdle < 0) {
+            configuredMinimumIdle = pool.getMinimumIdle();
+        }
+        pool.setMaximumPoolSize(size);
+        pool.setMinimumIdle(Math.min(configuredMinimumIdle, size));
+    }
+
+    int nextSize(int current, Window window) {
+        if (window.meanWaitMillis() > targetWaitMillis && window.queued() > 0) {
+            if (window.meanUsageMillis() > maxUsageMillis) {
+                log.warn("connection pool: requests wait {} ms for a connection, but the connections are held {} ms on "
+                        + "average (> {} ms): not growing the pool of a slow database",
+                        Math.round(window.meanWaitMillis()), Math.round(window.meanUsageMillis()), Math.round(maxUsageMillis));
+                return clamp(current);
+            }
+            return clamp(current + step);
+        }
+        if (window.meanWaitMillis() < targetWaitMillis / 4 && window.utilisation() < 0.5) {
+            return clamp(current - 1);
+        }
+        return clamp(current);
+    }
+
+    private int clamp(int size) {
+        return Math.max(minSize, Math.min(maxSize, size));
+    }
+
+    private Window sample(HikariDataSource pool, int poolSize) {
+        String poolName = pool.getPoolName();
+        Timer acquire = meterRegistry.find(ACQUIRE_METRIC_NAME).tag("pool", poolName).timer();
+        Timer usage = meterRegistry.find(USAGE_METRIC_NAME).tag("pool", poolName).timer();
+
+        long nowNanos = System.nanoTime();
+        double intervalMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(nowNanos - lastSampleNanos));
+        lastSampleNanos = nowNanos;
+
+        double meanWait = 0;
+        if (acquire != null) {
+            long count = acquire.count();
+            double millis = acquire.totalTime(TimeUnit.MILLISECONDS);
+            meanWait = mean(millis - lastAcquireMillis, count - lastAcquireCount);
+            lastAcquireCount = count;
+            lastAcquireMillis = millis;
+        }
+        double meanUsage = 0;
+        double utilisation = 0;
+        if (usage != null) {
+            long count = usage.count();
+            double millis = usage.totalTime(TimeUnit.MILLISECONDS);
+            meanUsage = mean(millis - lastUsageMillis, count - lastUsageCount);
+            utilisation = (millis - lastUsageMillis) / (intervalMillis * poolSize);
+            lastUsageCount = count;
+            lastUsageMillis = millis;
+        }
+        int queued = pool.getHikariPoolMXBean().getThreadsAwaitingConnection();
+        if (dataSource instanceof GatedDataSource gated) {
+            queued += gated.getWaitingThreads();
+        }
+        return new Window(meanWait, meanUsage, utilisation, queued);
+    }
+
+    private static double mean(double totalMillis, long count) {
+        return count > 0 ? totalMillis / count : 0;
+    }
+
+}
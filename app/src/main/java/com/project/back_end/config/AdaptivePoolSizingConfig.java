@@ -0,0 +1,31 @@
+package com.project.back_end.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// adaptive sizing of the connection pool (AdaptivePoolSizer), off by default: `clinic.db.pool.adaptive.enabled`.
+// Bounds default to [minimum-idle, 2 x maximum-pool-size] of spring.datasource.hikari.*
+@Configuration
+@ConditionalOnProperty(name = "clinic.db.pool.adaptive.enabled", havingValue = "true")
+public class AdaptivePoolSizingConfig {
+
+    @Bean
+    AdaptivePoolSizer adaptivePoolSizer(DataSource dataSource, MeterRegistry meterRegistry, Environment environment) {
+        int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        int minimumIdle = environment.getProperty("spring.datasource.hikari.minimum-idle", Integer.class, poolSize);
+        return new AdaptivePoolSizer(dataSource, meterRegistry,
+                environment.getProperty("clinic.db.pool.adaptive.min-size", Integer.class, Math.max(1, minimumIdle)),
+                environment.getProperty("clinic.db.pool.adaptive.max-size", Integer.class, 2 * poolSize),
+                environment.getProperty("clinic.db.pool.adaptive.step", Integer.class, 2),
+                environment.getProperty("clinic.db.pool.adaptive.target-wait", Duration.class, Duration.ofMillis(5)).toMillis(),
+                environment.getProperty("clinic.db.pool.adaptive.max-usage", Duration.class, Duration.ofMillis(500)).toMillis());
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.project.back_end.config;
+
+import com.project.back_end.monitoring.SqlStatementStats;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+// executor of the doctor dashboard (DoctorDashboardService), separate from the request threads and from @Async:
+// a slow source of the dashboard ties up these threads only. Platform threads: a pool of
+// `clinic.dashboard.executor.pool-size` with a queue of `queue-capacity` (full: RejectedExecutionException);
+// virtual threads (spring.threads.virtual.enabled): at most pool-size tasks at a time, the others wait.
+// The tasks read with the read-your-writes state of the calling request (ReadYourWrites.propagate), their SQL
+// statements count into the statements of the request (SqlStatementStats.propagate)
+@Configuration
+public class DashboardExecutorConfig {
+
+    public static final String DASHBOARD_EXECUTOR = "dashboardExecutor";
+
+    @Bean(DASHBOARD_EXECUTOR)
+    AsyncTaskExecutor dashboardExecutor(Environment environment) {
+        int poolSize = environment.getProperty("clinic.dashboard.executor.pool-size", Integer.class, 8);
+        if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("dashboard-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(poolSize);
+            executor.setTaskDecorator(DashboardExecutorConfig::propagate);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(environment.getProperty("clinic.dashboard.executor.queue-capacity", Integer.class, 100));
+        executor.setTaskDecorator(DashboardExecutorConfig::propagate);
+        return executor;
+    }
+
+    private static Runnable propagate(Runnable task) {
+        return ReadYourWrites.propagate(SqlStatementStats.propagate(task));
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.project.back_end.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// wraps the DataSource into a GatedDataSource when `clinic.db.gate.enabled` (by default on together with virtual threads,
+// see application.properties): at most `clinic.db.gate.permits` threads (default: the pool size) hold or wait for a
+// connection, the others wait up to `clinic.db.gate.timeout` for a permit.
+// Gauges: clinic.db.gate.available (free permits), clinic.db.gate.waiting (threads waiting for a permit)
+@Configuration
+@ConditionalOnProperty(name = "clinic.db.gate.enabled", havingValue = "true")
+public class DbConcurrencyGateConfig {
+
+    @Bean
+    static BeanPostProcessor dbConcurrencyGate(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof GatedDataSource) {
+                    return bean;
+                }
+                int permits = environment.getProperty("clinic.db.gate.permits", Integer.class,
+                        environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                Duration timeout = environment.getProperty("clinic.db.gate.timeout", Duration.class, Duration.ofSeconds(30));
+                return new GatedDataSource(dataSource, permits, timeout);
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder dbConcurrencyGateMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof GatedDataSource gated) {
+                Gauge.builder("clinic.db.gate.available", gated, GatedDataSource::getAvailablePermits)
+                        .description("Free permits of the database concurrency gate")
+                        .register(registry);
+                Gauge.builder("clinic.db.gate.waiting", gated, GatedDataSource::getWaitingThreads)
+                        .description("Threads waiting for a permit of the database concurrency gate")
+                        .register(registry);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.project.back_end.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+// executor removing the appointments of deleted doctors (DoctorDeletionService): `clinic.doctors.deletion.threads`
+// threads (default one: several deletions run one after the other instead of competing with the bookings for locks),
+// the waiting deletions are queued
+@Configuration
+public class DoctorDeletionConfig {
+
+    public static final String DOCTOR_DELETION_EXECUTOR = "doctorDeletionExecutor";
+
+    @Bean(DOCTOR_DELETION_EXECUTOR)
+    AsyncTaskExecutor doctorDeletionExecutor(Environment environment) {
+        int threads = environment.getProperty("clinic.doctors.deletion.threads", Integer.class, 1);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("doctor-deletion-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        // shutdown interrupts a running deletion between two chunks, after the restart DoctorDeletionService.resume continues it
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.project.back_end.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+// bounds the number of threads holding or waiting for a connection of the pool: a connection is handed out only with
+// a permit of a fair semaphore, which is returned when the connection is closed (end of the transaction).
+// With virtual threads there is no Tomcat thread pool limiting the requests any more; without the gate thousands of
+// them would queue inside Hikari and run into its connection timeout in bursts. Waiting on the semaphore parks the
+// virtual thread (no pinning), and a request which gets no permit within the timeout fails like a pool timeout
+// (SQLTransientConnectionException).
+public class GatedDataSource extends DelegatingDataSource {
+
+    // Semaphore.reducePermits is protected
+    private static final class ResizableSemaphore extends Semaphore {
+
+        ResizableSemaphore(int permits) {
+            super(permits, true);
+        }
+
+        void reduce(int reduction) {
+            reducePermits(reduction);
+        }
+    }
+
+    private final ResizableSemaphore permits;
+    private volatile int maxPermits;
+    private final ReentrantLock resizeLock = new ReentrantLock();
+    private final long timeoutNanos;
+
+    public GatedDataSource(DataSource target, int permits, Duration timeout) {
+        super(target);
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be > 0: " + permits);
+        }
+        this.permits = new ResizableSemaphore(permits);
+        this.maxPermits = permits;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return gated(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return gated(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("database gate: no connection permit within "
+                        + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms (" + maxPermits + " permits, "
+                        + permits.getQueueLength() + " waiting)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("interrupted while waiting for a connection permit", e);
+        }
+    }
+
+    // the permit is released on the first close() only
+    private Connection gated(Connection connection) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int getWaitingThreads() {
+        return permits.getQueueLength();
+    }
+
+    public int getMaxPermits() {
+        return maxPermits;
+    }
+
+    // used when the pool is resized (AdaptivePoolSizer). Fewer permits take effect as the held connections are closed,
+    // the available permits can be negative meanwhile.
+    public void setMaxPermits(int newMaxPermits) {
+        if (newMaxPermits <= 0) {
+            throw new IllegalArgumentException("permits must be > 0: " + newMaxPermits);
+        }
+        resizeLock.lock();
+        try {
+            int delta = newMaxPermits - maxPermits;
+            if (delta > 0) {
+                permits.release(delta);
+            } else if (delta < 0) {
+                permits.reduce(-delta);
+            }
+            maxPermits = newMaxPermits;
+        } finally {
+            resizeLock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.project.back_end.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// threads delivering the live updates (live.SseBroadcaster) to the open SSE connections: `clinic.live.executor.threads`
+// threads ("live-N") for all streams. A delivery blocks only while writing to one connection, a slow connection
+// fills its own buffer and is closed (see SseBroadcaster)
+@Configuration
+public class LiveUpdatesConfig {
+
+    public static final String LIVE_UPDATES_EXECUTOR = "liveUpdatesExecutor";
+
+    @Bean(name = LIVE_UPDATES_EXECUTOR, destroyMethod = "shutdownNow")
+    ExecutorService liveUpdatesExecutor(Environment environment) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("live-");
+        threadFactory.setDaemon(true);
+        return Executors.newFixedThreadPool(environment.getProperty("clinic.live.executor.threads", Integer.class, 4), threadFactory);
+    }
+
+}
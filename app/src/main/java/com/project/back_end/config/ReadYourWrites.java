@@ -0,0 +1,68 @@
+package com.project.back_end.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+
+// read-your-writes with replicas: the time of the last write of a client (epoch millis) travels in the cookie
+// `clinic-last-write` (ReadYourWritesFilter), and is updated after every committed write transaction
+// (ReadYourWritesListener). ReplicaRoutingDataSource reads from a replica only if it has replicated past that time.
+// Per thread: the request being served, or a service call after a write on the same thread; tasks handed to an
+// executor take the last write along with propagate().
+public final class ReadYourWrites {
+
+    public static final String COOKIE_NAME = "clinic-last-write";
+
+    private static final class State {
+        Long lastWrite;
+        HttpServletResponse response;
+        int cookieMaxAgeSeconds;
+    }
+
+    private static final ThreadLocal<State> CURRENT = ThreadLocal.withInitial(State::new);
+
+    private ReadYourWrites() {
+    }
+
+    static void begin(Long lastWrite, HttpServletResponse response, int cookieMaxAgeSeconds) {
+        State state = CURRENT.get();
+        state.lastWrite = lastWrite;
+        state.response = response;
+        state.cookieMaxAgeSeconds = cookieMaxAgeSeconds;
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    // epoch millis of the last write of the current client, null: none known
+    public static Long lastWrite() {
+        return CURRENT.get().lastWrite;
+    }
+
+    // task for another thread (executor) reading with the last write of the current client
+    public static Runnable propagate(Runnable task) {
+        Long lastWrite = lastWrite();
+        return () -> {
+            CURRENT.get().lastWrite = lastWrite;
+            try {
+                task.run();
+            } finally {
+                clear();
+            }
+        };
+    }
+
+    public static void recordWrite(long epochMillis) {
+        State state = CURRENT.get();
+        state.lastWrite = epochMillis;
+        if (state.response != null && !state.response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(epochMillis));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge(state.cookieMaxAgeSeconds);
+            cookie.setAttribute("SameSite", "Lax");
+            state.response.addCookie(cookie);
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.project.back_end.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// takes the time of the client's last write from its cookie for the routing of the reads of the request (ReadYourWrites)
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final int cookieMaxAgeSeconds;
+
+    public ReadYourWritesFilter(int cookieMaxAgeSeconds) {
+        this.cookieMaxAgeSeconds = cookieMaxAgeSeconds;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ReadYourWrites.begin(lastWrite(request), response, cookieMaxAgeSeconds);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+
+    private static Long lastWrite(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (ReadYourWrites.COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+}
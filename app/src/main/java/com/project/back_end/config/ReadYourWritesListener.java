@@ -0,0 +1,20 @@
+package com.project.back_end.config;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+// records the commit of every (outermost) read-write transaction for read-your-writes (ReadYourWrites), e.g. a booking:
+// the following reads of the client go to the primary until a replica has caught up.
+// Registered with the transaction manager by Spring Boot (TransactionExecutionListener bean).
+public class ReadYourWritesListener implements TransactionExecutionListener {
+
+    @Override
+    public void afterCommit(@NonNull TransactionExecution transaction, @Nullable Throwable commitFailure) {
+        if (commitFailure == null && transaction.isNewTransaction() && !transaction.isReadOnly()) {
+            ReadYourWrites.recordWrite(System.currentTimeMillis());
+        }
+    }
+
+}
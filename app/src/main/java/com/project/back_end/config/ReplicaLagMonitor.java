@@ -0,0 +1,112 @@
+package com.project.back_end.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+// replication lag of the replicas, measured with a heartbeat: every `heartbeat-interval` the current time is written
+// to replication_heartbeat on the primary and read back from each replica. Lag = now - the heartbeat a replica has.
+// A replica is used for reads while its lag is at most `max-lag` and it has replicated past the client's last write
+// (ReadYourWrites); a replica which fails (connection, missing table) is skipped until the next successful read.
+public class ReplicaLagMonitor {
+
+    static final String UPDATE_HEARTBEAT = "UPDATE replication_heartbeat SET beat = ? WHERE id = 1";
+    static final String INSERT_HEARTBEAT = "INSERT INTO replication_heartbeat (id, beat) VALUES (1, ?)";
+    static final String SELECT_HEARTBEAT = "SELECT beat FROM replication_heartbeat WHERE id = 1";
+
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        // epoch millis of the heartbeat seen on the replica, -1 : unknown / failed
+        private volatile long beat = -1;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        DataSource getDataSource() {
+            return dataSource;
+        }
+
+        public long getBeat() {
+            return beat;
+        }
+    }
+
+    private final Logger log = LoggerFactory.getLogger( getClass() );
+
+    private final JdbcTemplate primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+
+    public ReplicaLagMonitor(DataSource primary, List<Replica> replicas, long maxLagMillis) {
+        this.primary = new JdbcTemplate(primary);
+        this.replicas = List.copyOf(replicas);
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${clinic.datasource.replicas.heartbeat-interval:1s}")
+    public void refresh() {
+        beat();
+        replicas.forEach(this::read);
+    }
+
+    // writes the heartbeat on the primary
+    public void beat() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update(UPDATE_HEARTBEAT, now) == 0) {
+                primary.update(INSERT_HEARTBEAT, now);
+            }
+        } catch (RuntimeException e) {
+            log.warn("writing the replication heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    // reads the heartbeat a replica has replicated
+    public void read(Replica replica) {
+        try {
+            List<Long> beats = new JdbcTemplate(replica.getDataSource()).queryForList(SELECT_HEARTBEAT, Long.class);
+            replica.beat = beats.isEmpty() ? -1 : beats.get(0);
+        } catch (RuntimeException e) {
+            if (replica.beat >= 0) {
+                log.warn("replica {} unavailable: {}", replica.getName(), e.getMessage());
+            }
+            replica.beat = -1;
+        }
+    }
+
+    void markFailed(Replica replica) {
+        replica.beat = -1;
+    }
+
+    // lastWrite: epoch millis of the client's last write, null if none
+    boolean isUsable(Replica replica, Long lastWrite) {
+        long beat = replica.beat;
+        if (beat < 0 || System.currentTimeMillis() - beat > maxLagMillis) {
+            return false;
+        }
+        return lastWrite == null || beat >= lastWrite;
+    }
+
+    // ms, -1 : unknown
+    public long lagMillis(Replica replica) {
+        long beat = replica.beat;
+        return beat < 0 ? -1 : Math.max(0, System.currentTimeMillis() - beat);
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.project.back_end.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// read/write split (`clinic.datasource.replicas.enabled`): the DataSource of the application is a
+// LazyConnectionDataSourceProxy which takes the connection of a transaction only at its first statement - when it
+// is known whether the transaction is read-only. Read-write transactions use the primary (spring.datasource.*),
+// read-only ones (@Transactional(readOnly = true), the read methods of the Spring Data repositories) a replica of
+// `clinic.datasource.replicas.urls`, see ReplicaRoutingDataSource. Pools: "clinic" (primary, spring.datasource.hikari.*)
+// and "replica-1", "replica-2", ... (read-only, `clinic.datasource.replicas.maximum-pool-size`).
+// Gauge clinic.db.replica.lag (ms, -1: unknown) per replica.
+@Configuration
+@ConditionalOnProperty(name = "clinic.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    // the connection pools, closed with the context
+    record Pools(HikariDataSource primary, List<HikariDataSource> replicas) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            replicas.forEach(HikariDataSource::close);
+            primary.close();
+        }
+    }
+
+    @Bean
+    Pools replicaRoutingPools(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        String[] urls = environment.getRequiredProperty("clinic.datasource.replicas.urls", String[].class);
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : Arrays.stream(urls).map(String::trim).filter(url -> !url.isEmpty()).toList()) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url);
+            replica.setUsername(environment.getProperty("clinic.datasource.replicas.username", properties.determineUsername()));
+            replica.setPassword(environment.getProperty("clinic.datasource.replicas.password", properties.determinePassword()));
+            replica.setMaximumPoolSize(environment.getProperty("clinic.datasource.replicas.maximum-pool-size", Integer.class, 10));
+            replica.setReadOnly(true);
+            replica.setMetricRegistry(meterRegistry);
+            replicas.add(replica);
+        }
+        return new Pools(primary, replicas);
+    }
+
+    @Bean
+    ReplicaLagMonitor replicaLagMonitor(Pools pools, Environment environment, MeterRegistry meterRegistry) {
+        List<ReplicaLagMonitor.Replica> replicas = pools.replicas().stream()
+                .map(replica -> new ReplicaLagMonitor.Replica(replica.getPoolName(), replica))
+                .toList();
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(pools.primary(), replicas,
+                environment.getProperty("clinic.datasource.replicas.max-lag", Duration.class, Duration.ofSeconds(5)).toMillis());
+        for (ReplicaLagMonitor.Replica replica : replicas) {
+            Gauge.builder("clinic.db.replica.lag", monitor, m -> m.lagMillis(replica))
+                    .description("Replication lag of a replica (heartbeat), -1 if unknown")
+                    .baseUnit("milliseconds")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+        return monitor;
+    }
+
+    @Bean
+    DataSource dataSource(Pools pools, ReplicaLagMonitor replicaLagMonitor, MeterRegistry meterRegistry) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(pools.primary());
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(pools.primary(), replicaLagMonitor, meterRegistry));
+        return dataSource;
+    }
+
+    @Bean
+    ReadYourWritesFilter readYourWritesFilter(Environment environment) {
+        return new ReadYourWritesFilter((int) environment.getProperty("clinic.datasource.replicas.read-your-writes-cookie-max-age",
+                Duration.class, Duration.ofMinutes(1)).toSeconds());
+    }
+
+    @Bean
+    ReadYourWritesListener readYourWritesListener() {
+        return new ReadYourWritesListener();
+    }
+
+}
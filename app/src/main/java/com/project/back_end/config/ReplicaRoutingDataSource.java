@@ -0,0 +1,76 @@
+package com.project.back_end.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// the data source of the read-only transactions (see ReplicaRoutingConfig): the replicas in turn, skipping the ones
+// which lag too far behind or haven't replicated the client's last write yet (ReplicaLagMonitor, ReadYourWrites);
+// the primary if no replica qualifies. Counter clinic.db.replica.reads, tagged by target (replica name or "primary").
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final Logger log = LoggerFactory.getLogger( getClass() );
+
+    private final DataSource primary;
+    private final ReplicaLagMonitor lagMonitor;
+    private final List<ReplicaLagMonitor.Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final List<Counter> replicaReads;
+    private final Counter primaryReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.lagMonitor = lagMonitor;
+        this.replicas = lagMonitor.getReplicas();
+        this.replicaReads = replicas.stream().map(replica -> readCounter(meterRegistry, replica.getName())).toList();
+        this.primaryReads = readCounter(meterRegistry, "primary");
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("clinic.db.replica.reads")
+                .description("Connections of read-only transactions by target")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Long lastWrite = ReadYourWrites.lastWrite();
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            int index = Math.floorMod(start + i, replicas.size());
+            ReplicaLagMonitor.Replica replica = replicas.get(index);
+            if (!lagMonitor.isUsable(replica, lastWrite)) {
+                continue;
+            }
+            try {
+                Connection connection = replica.getDataSource().getConnection();
+                replicaReads.get(index).increment();
+                return connection;
+            } catch (SQLException e) {
+                log.warn("replica {} failed, reading from the next one: {}", replica.getName(), e.getMessage());
+                lagMonitor.markFailed(replica);
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    // explicit credentials are the primary's: the replicas are configured with their own
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        primaryReads.increment();
+        return primary.getConnection(username, password);
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.project.back_end.config;
 
+import com.project.back_end.monitoring.SqlStatementStats;
 
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull; 
@@ -16,6 +17,7 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addMapping("/**")
                 .allowedOrigins("*")  // Add your frontend URL here
                 .allowedMethods("GET", "POST", "PUT", "DELETE")  // Specify allowed methods
-                .allowedHeaders("*");  // You can restrict headers if needed
+                .allowedHeaders("*")  // You can restrict headers if needed
+                .exposedHeaders(SqlStatementStats.HEADER_COUNT, SqlStatementStats.HEADER_TIME);  // readable by the frontend (dev tools)
     }
 }
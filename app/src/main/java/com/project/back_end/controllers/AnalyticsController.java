@@ -0,0 +1,75 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.analytics.AnalyticsService;
+import com.project.back_end.analytics.AppointmentSnapshot;
+import com.project.back_end.services.ServiceClass;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+// analytics over the appointment history for the admin dashboard
+@RestController
+@RequestMapping("${api.path}analytics")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+    private final ServiceClass service;
+
+    @Autowired
+    public AnalyticsController(AnalyticsService analyticsService, ServiceClass service) {
+        this.analyticsService = analyticsService;
+        this.service = service;
+    }
+
+    // utilisation, no-show rates and specialty demand for [from, to), e.g. /analytics/2023-01-01/2025-01-01/{token}
+    @GetMapping("/{from}/{to}/{token}")
+    public ResponseEntity<Map<String, Object>> getStatistics(@PathVariable String from,
+                                                             @PathVariable String to,
+                                                             @PathVariable String token) {
+        Map<String, Object> response = new HashMap<>();
+        ResponseEntity<Map<String, String>> tokenCheck = service.validateToken(token, "admin");
+        if (!tokenCheck.getStatusCode().is2xxSuccessful()) {
+            assert tokenCheck.getBody() != null;
+            response.put("error", tokenCheck.getBody().get("error"));
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).body(response); // UNAUTHORIZED.value() : 401
+        }
+
+        try {
+            LocalDate fromDate = LocalDate.parse(from);
+            LocalDate toDate = LocalDate.parse(to);
+            if (!fromDate.isBefore(toDate)) {
+                response.put("error", "Invalid range: from must be before to");
+                return ResponseEntity.badRequest().body(response);
+            }
+            return ResponseEntity.ok(analyticsService.getStatistics(fromDate, toDate));
+        } catch (DateTimeParseException e) {
+            response.put("error", "Invalid date, expected format yyyy-MM-dd");
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // reloads the in-memory snapshot of the appointments
+    @PostMapping("/refresh/{token}")
+    public ResponseEntity<Map<String, Object>> refreshSnapshot(@PathVariable String token) {
+        Map<String, Object> response = new HashMap<>();
+        ResponseEntity<Map<String, String>> tokenCheck = service.validateToken(token, "admin");
+        if (!tokenCheck.getStatusCode().is2xxSuccessful()) {
+            assert tokenCheck.getBody() != null;
+            response.put("error", tokenCheck.getBody().get("error"));
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).body(response); // UNAUTHORIZED.value() : 401
+        }
+
+        AppointmentSnapshot snapshot = analyticsService.refreshSnapshot();
+        response.put("appointments", snapshot.size());
+        response.put("doctors", snapshot.doctorCount());
+        response.put("createdAt", snapshot.getCreatedAt());
+        return ResponseEntity.ok(response);
+    }
+
+}
@@ -2,12 +2,17 @@ package com.project.back_end.controllers;
 
 
 import com.project.back_end.models.Appointment;
+import com.project.back_end.live.ScheduleStream;
 import com.project.back_end.services.AppointmentService;
+import com.project.back_end.services.DoctorDashboardService;
 import com.project.back_end.services.ServiceClass;
+import com.project.back_end.services.TokenService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.Map;
@@ -23,14 +28,21 @@ public class AppointmentController {
 
     private final AppointmentService appointmentService;
     private final ServiceClass service;
+    private final DoctorDashboardService doctorDashboardService;
+    private final ScheduleStream scheduleStream;
+    private final TokenService tokenService;
 
 // 2. Autowire Dependencies:
 //    - Inject `AppointmentService` for handling the business logic specific to appointments.
 //    - Inject the general `Service` class, which provides shared functionality like token validation and appointment checks.
     @Autowired
-    public AppointmentController(AppointmentService appointmentService, ServiceClass service) {
+    public AppointmentController(AppointmentService appointmentService, ServiceClass service, DoctorDashboardService doctorDashboardService,
+                                 ScheduleStream scheduleStream, TokenService tokenService) {
         this.appointmentService = appointmentService;
         this.service = service;
+        this.doctorDashboardService = doctorDashboardService;
+        this.scheduleStream = scheduleStream;
+        this.tokenService = tokenService;
     }
 
 // 3. Define the `getAppointments` Method:
@@ -58,6 +70,38 @@ public class AppointmentController {
     }
 
 
+    // doctor dashboard of a day in one call: the appointments as above plus their prescriptions (DoctorDashboardService)
+    @GetMapping("/dashboard/{date}/{patientName}/{token}")
+    public ResponseEntity<Map<String, Object>> getDashboard(@PathVariable String date,
+                                                            @PathVariable String patientName,
+                                                            @PathVariable String token) {
+        // Validation token (doctor)
+        if (!service.validateToken(token, "doctor").getStatusCode().is2xxSuccessful()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).body(Map.of("error", "Invalid or expired token")); // UNAUTHORIZED.value() : 401
+        }
+
+        return doctorDashboardService.getDashboard(patientName, LocalDate.parse(date), token);
+    }
+
+    // live changes of the doctor's schedule as server-sent events (ScheduleStream) instead of polling getAppointments
+    @GetMapping(path = "/stream/{token}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSchedule(@PathVariable String token) {
+        // Validation token (doctor)
+        if (!service.validateToken(token, "doctor").getStatusCode().is2xxSuccessful()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).build(); // UNAUTHORIZED.value() : 401
+        }
+        Long doctorId = tokenService.getDoctorIdFromToken(token);
+        if (doctorId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).build(); // UNAUTHORIZED.value() : 401
+        }
+
+        SseEmitter emitter = scheduleStream.subscribe(doctorId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE.value()).build(); // SERVICE_UNAVAILABLE.value() : 503
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
 // 4. Define the `bookAppointment` Method:
 //    - Handles HTTP POST requests to create a new appointment.
 //    - Accepts a validated `Appointment` object in the request body and a token as a path variable.
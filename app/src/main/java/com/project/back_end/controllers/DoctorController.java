@@ -2,14 +2,21 @@ package com.project.back_end.controllers;
 
 
 import com.project.back_end.DTO.Login;
+import com.project.back_end.live.SlotAvailabilityStream;
 import com.project.back_end.models.Doctor;
+import com.project.back_end.services.DoctorDeletionService;
+import com.project.back_end.services.DoctorImportService;
 import com.project.back_end.services.DoctorService;
 import com.project.back_end.services.ServiceClass;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
@@ -26,14 +33,21 @@ public class DoctorController {
 
     private final DoctorService doctorService;
     private final ServiceClass service;
+    private final SlotAvailabilityStream slotAvailabilityStream;
+    private final DoctorDeletionService doctorDeletionService;
+    private final DoctorImportService doctorImportService;
 
 // 2. Autowire Dependencies:
 //    - Inject `DoctorService` for handling the core logic related to doctors (e.g., CRUD operations, authentication).
 //    - Inject the shared `Service` class for general-purpose features like token validation and filtering
     @Autowired
-    public DoctorController(DoctorService doctorService, ServiceClass service) {
+    public DoctorController(DoctorService doctorService, ServiceClass service, SlotAvailabilityStream slotAvailabilityStream,
+                            DoctorDeletionService doctorDeletionService, DoctorImportService doctorImportService) {
         this.doctorService = doctorService;
         this.service = service;
+        this.slotAvailabilityStream = slotAvailabilityStream;
+        this.doctorDeletionService = doctorDeletionService;
+        this.doctorImportService = doctorImportService;
     }
 
 // 3. Define the `getDoctorAvailability` Method:
@@ -61,6 +75,25 @@ public class DoctorController {
         return ResponseEntity.ok(response);
     }
 
+    // the same availability kept up to date: server-sent events "snapshot", then "taken" / "freed" (SlotAvailabilityStream)
+    @GetMapping(path = "/availability/stream/{user}/{doctorId}/{date}/{token}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamDoctorAvailability(
+            @PathVariable String user,
+            @PathVariable Long doctorId,
+            @PathVariable String date,
+            @PathVariable String token) {
+
+        if (!service.validateToken(token, user).getStatusCode().is2xxSuccessful()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).build(); // UNAUTHORIZED.value() : 401
+        }
+
+        SseEmitter emitter = slotAvailabilityStream.subscribe(doctorId, LocalDate.parse(date));
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE.value()).build(); // SERVICE_UNAVAILABLE.value() : 503
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
 // 4. Define the `getDoctor` Method:
 //    - Handles HTTP GET requests to retrieve a list of all doctors.
 //    - Returns the list within a response map under the key `"doctors"` with HTTP 200 OK status.
@@ -96,6 +129,28 @@ public class DoctorController {
         return ResponseEntity.ok(response);
     }
 
+    // bulk import of doctors from a CSV body (DoctorImportService), admins only: the valid rows are imported, the
+    // others are listed in "errors" with their row number
+    @PostMapping(path = "/import/{token}", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<Map<String, Object>> importDoctors(@PathVariable String token, InputStream csv) {
+        Map<String, Object> response = new HashMap<>();
+        ResponseEntity<Map<String, String>> tokenCheck = service.validateToken(token, "admin");
+        if (!tokenCheck.getStatusCode().is2xxSuccessful()) {
+            assert tokenCheck.getBody() != null;
+            response.put("error", tokenCheck.getBody().get("error"));
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).body(response); // UNAUTHORIZED.value() : 401
+        }
+        try {
+            return ResponseEntity.ok(doctorImportService.importCsv(csv));
+        } catch (IllegalArgumentException e) {
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response); // BAD_REQUEST : 400
+        } catch (IOException e) {
+            response.put("error", "Failed to read the file");
+            return ResponseEntity.badRequest().body(response); // BAD_REQUEST : 400
+        }
+    }
+
 // 6. Define the `doctorLogin` Method:
 //    - Handles HTTP POST requests for doctor login.
 //    - Accepts a validated `Login` DTO containing credentials.
@@ -134,6 +189,7 @@ public class DoctorController {
 //    - Handles HTTP DELETE requests to remove a doctor by ID.
 //    - Requires both doctor ID and an admin token as path variables.
 //    - If the doctor exists, deletes the record and returns a success message; otherwise, responds with a not found or error message.
+//    - The doctor is soft-deleted right away, the appointments are removed in the background: progress see getDeletionProgress
 @DeleteMapping("/{id}/{token}")
 public ResponseEntity<Map<String, String>> deleteDoctor(@PathVariable Long id, @PathVariable String token) {
     Map<String, String> response = new HashMap<>();
@@ -153,6 +209,24 @@ public ResponseEntity<Map<String, String>> deleteDoctor(@PathVariable Long id, @
     return ResponseEntity.ok(response);
 }
 
+    // progress of the removal of a deleted doctor (DoctorDeletionService.getProgress), admins only
+    @GetMapping("/deletion/{id}/{token}")
+    public ResponseEntity<Map<String, Object>> getDeletionProgress(@PathVariable Long id, @PathVariable String token) {
+        Map<String, Object> response = new HashMap<>();
+        ResponseEntity<Map<String, String>> tokenCheck = service.validateToken(token, "admin");
+        if (!tokenCheck.getStatusCode().is2xxSuccessful()) {
+            assert tokenCheck.getBody() != null;
+            response.put("error", tokenCheck.getBody().get("error"));
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).body(response); // UNAUTHORIZED.value() : 401
+        }
+        return doctorDeletionService.getProgress(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    response.put("error", "No deletion of this doctor in progress");
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND.value()).body(response); // NOT_FOUND.value() : 404
+                });
+    }
+
 // 9. Define the `filter` Method:
 //    - Handles HTTP GET requests to filter doctors based on name, time, and specialty.
 //    - Accepts `name`, `time`, and `speciality` as path variables.
@@ -2,6 +2,7 @@ package com.project.back_end.controllers;
 
 import com.project.back_end.DTO.Login;
 import com.project.back_end.models.Patient;
+import com.project.back_end.services.PatientRegistrationService;
 import com.project.back_end.services.PatientService;
 import com.project.back_end.services.ServiceClass;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +11,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 
@@ -22,14 +25,16 @@ import java.util.Map;
 public class PatientController {
 
     private final PatientService patientService;
+    private final PatientRegistrationService patientRegistrationService;
     private final ServiceClass service;
 
 // 2. Autowire Dependencies:
 //    - Inject `PatientService` to handle patient-specific logic such as creation, retrieval, and appointments.
 //    - Inject the shared `Service` class for tasks like token validation and login authentication.
     @Autowired
-    public PatientController(PatientService patientService, ServiceClass service) {
+    public PatientController(PatientService patientService, PatientRegistrationService patientRegistrationService, ServiceClass service) {
         this.patientService = patientService;
+        this.patientRegistrationService = patientRegistrationService;
         this.service = service;
     }
 
@@ -74,6 +79,20 @@ public class PatientController {
         }
     }
 
+    // bulk registration (PatientRegistrationService), admins only: the valid patients are registered, the others are
+    // listed in "errors" with their index in the request
+    @PostMapping("/bulk/{token}")
+    public ResponseEntity<Map<String, Object>> registerPatients(@PathVariable String token, @RequestBody List<Patient> patients) {
+        Map<String, Object> response = new HashMap<>();
+        ResponseEntity<Map<String, String>> tokenCheck = service.validateToken(token, "admin");
+        if (!tokenCheck.getStatusCode().is2xxSuccessful()) {
+            assert tokenCheck.getBody() != null;
+            response.put("error", tokenCheck.getBody().get("error"));
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).body(response); // UNAUTHORIZED.value() : 401
+        }
+        return ResponseEntity.ok(patientRegistrationService.register(patients));
+    }
+
 // 5. Define the `login` Method:
 //    - Handles HTTP POST requests for patient login.
 //    - Accepts a `Login` DTO containing email/username and password.
@@ -77,5 +77,23 @@ public class PrescriptionController {
         return prescriptionService.getPrescription(appointmentId);
     }
 
+// 5. Define the `getMedicationHistory` Method:
+//    - Handles HTTP GET requests to retrieve all prescriptions of a patient, newest first.
+//    - Accepts the patient ID and a doctor’s token as path variables, `page` and `size` as optional request parameters.
+//    - Validates the token for the `"doctor"` role and returns one page of the patient's medication history.
+    @GetMapping("/history/{patientId}/{token}")
+    public ResponseEntity<Map<String, Object>> getMedicationHistory(@PathVariable Long patientId,
+                                                                    @PathVariable String token,
+                                                                    @RequestParam(defaultValue = "0") int page,
+                                                                    @RequestParam(defaultValue = "" + PrescriptionService.HISTORY_PAGE_SIZE_DEFAULT) int size) {
+        // check token to be from doctor
+        ResponseEntity<Map<String, String>> tokenValidation = service.validateToken(token, "doctor");
+        if (!tokenValidation.getStatusCode().is2xxSuccessful()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).body(Map.of("error", "Invalid or expired token")); // UNAUTHORIZED.value() : 401
+        }
+
+        return prescriptionService.getMedicationHistory(patientId, page, size);
+    }
+
 
 }
@@ -0,0 +1,144 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.services.DailyReportService;
+import com.project.back_end.services.ReportingService;
+import com.project.back_end.services.ServiceClass;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+// reports for the admin dashboard (replacement of the GetDoctorWithMostPatients* stored procedures)
+@RestController
+@RequestMapping("${api.path}reports")
+public class ReportController {
+
+    private final ReportingService reportingService;
+    private final DailyReportService dailyReportService;
+    private final ServiceClass service;
+
+    @Autowired
+    public ReportController(ReportingService reportingService, DailyReportService dailyReportService, ServiceClass service) {
+        this.reportingService = reportingService;
+        this.dailyReportService = dailyReportService;
+        this.service = service;
+    }
+
+    // daily appointment report (all doctors), e.g. /reports/daily/2025-04-23/{token}
+    @GetMapping("/daily/{date}/{token}")
+    public ResponseEntity<Map<String, Object>> getDailyReport(@PathVariable String date, @PathVariable String token) {
+        Map<String, Object> response = new HashMap<>();
+        ResponseEntity<Map<String, String>> tokenCheck = service.validateToken(token, "admin");
+        if (!tokenCheck.getStatusCode().is2xxSuccessful()) {
+            assert tokenCheck.getBody() != null;
+            response.put("error", tokenCheck.getBody().get("error"));
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).body(response); // UNAUTHORIZED.value() : 401
+        }
+
+        try {
+            response.put("report", dailyReportService.getReport(LocalDate.parse(date)));
+            return ResponseEntity.ok(response);
+        } catch (DateTimeParseException e) {
+            response.put("error", "Invalid date, expected format yyyy-MM-dd");
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // rebuilds the materialized daily report of a day from the appointment table
+    @PostMapping("/daily/rebuild/{date}/{token}")
+    public ResponseEntity<Map<String, Object>> rebuildDailyReport(@PathVariable String date, @PathVariable String token) {
+        Map<String, Object> response = new HashMap<>();
+        ResponseEntity<Map<String, String>> tokenCheck = service.validateToken(token, "admin");
+        if (!tokenCheck.getStatusCode().is2xxSuccessful()) {
+            assert tokenCheck.getBody() != null;
+            response.put("error", tokenCheck.getBody().get("error"));
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).body(response); // UNAUTHORIZED.value() : 401
+        }
+
+        try {
+            response.put("entries", dailyReportService.rebuild(LocalDate.parse(date)));
+            return ResponseEntity.ok(response);
+        } catch (DateTimeParseException e) {
+            response.put("error", "Invalid date, expected format yyyy-MM-dd");
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // doctors with the most patients in the given month, e.g. /reports/doctors/top/month/2025/4/{token}
+    @GetMapping("/doctors/top/month/{year}/{month}/{token}")
+    public ResponseEntity<Map<String, Object>> getTopDoctorsOfMonth(@PathVariable int year,
+                                                                    @PathVariable int month,
+                                                                    @PathVariable String token,
+                                                                    @RequestParam(defaultValue = "" + ReportingService.LEADERBOARD_SIZE_DEFAULT) int limit) {
+        Map<String, Object> response = new HashMap<>();
+        ResponseEntity<Map<String, String>> tokenCheck = service.validateToken(token, "admin");
+        if (!tokenCheck.getStatusCode().is2xxSuccessful()) {
+            assert tokenCheck.getBody() != null;
+            response.put("error", tokenCheck.getBody().get("error"));
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).body(response); // UNAUTHORIZED.value() : 401
+        }
+        if (month < 1 || month > 12 || limit < 1) {
+            response.put("error", "Invalid month or limit");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        response.put("doctors", reportingService.getTopDoctorsOfMonth(year, month, limit));
+        return ResponseEntity.ok(response);
+    }
+
+    // doctors with the most patients in the given year
+    @GetMapping("/doctors/top/year/{year}/{token}")
+    public ResponseEntity<Map<String, Object>> getTopDoctorsOfYear(@PathVariable int year,
+                                                                   @PathVariable String token,
+                                                                   @RequestParam(defaultValue = "" + ReportingService.LEADERBOARD_SIZE_DEFAULT) int limit) {
+        Map<String, Object> response = new HashMap<>();
+        ResponseEntity<Map<String, String>> tokenCheck = service.validateToken(token, "admin");
+        if (!tokenCheck.getStatusCode().is2xxSuccessful()) {
+            assert tokenCheck.getBody() != null;
+            response.put("error", tokenCheck.getBody().get("error"));
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).body(response); // UNAUTHORIZED.value() : 401
+        }
+        if (limit < 1) {
+            response.put("error", "Invalid limit");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        response.put("doctors", reportingService.getTopDoctorsOfYear(year, limit));
+        return ResponseEntity.ok(response);
+    }
+
+    // rebuilds the per doctor / day counters from the appointment table, e.g. after the first deployment.
+    // optional request parameters `from` and `to` (format yyyy-MM) restrict the months to rebuild.
+    @PostMapping("/backfill/{token}")
+    public ResponseEntity<Map<String, Object>> backfill(@PathVariable String token,
+                                                        @RequestParam(required = false) String from,
+                                                        @RequestParam(required = false) String to) {
+        Map<String, Object> response = new HashMap<>();
+        ResponseEntity<Map<String, String>> tokenCheck = service.validateToken(token, "admin");
+        if (!tokenCheck.getStatusCode().is2xxSuccessful()) {
+            assert tokenCheck.getBody() != null;
+            response.put("error", tokenCheck.getBody().get("error"));
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).body(response); // UNAUTHORIZED.value() : 401
+        }
+
+        try {
+            Map<String, Object> result = reportingService.backfill(
+                    from != null ? YearMonth.parse(from) : null,
+                    to != null ? YearMonth.parse(to) : null);
+            if (result.containsKey("error")) {
+                return ResponseEntity.badRequest().body(result);
+            }
+            return ResponseEntity.ok(result);
+        } catch (DateTimeParseException e) {
+            response.put("error", "Invalid month, expected format yyyy-MM");
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.project.back_end.events;
+
+import java.time.LocalDateTime;
+
+// published by the AppointmentService whenever an appointment is booked, updated or cancelled.
+// listeners run synchronously inside the transaction of the change (use @TransactionalEventListener
+// to react only after the commit).
+public class AppointmentChangedEvent {
+
+    public enum Type { BOOKED, UPDATED, CANCELLED }
+
+    private final Type type;
+    private final Long appointmentId;
+    private final Long doctorId;
+    private final Long patientId;
+    private final LocalDateTime previousTime; // null for BOOKED
+    private final LocalDateTime appointmentTime; // null for CANCELLED
+    private final int status;
+
+    public AppointmentChangedEvent(Type type, Long appointmentId, Long doctorId, Long patientId,
+                                   LocalDateTime previousTime, LocalDateTime appointmentTime, int status) {
+        this.type = type;
+        this.appointmentId = appointmentId;
+        this.doctorId = doctorId;
+        this.patientId = patientId;
+        this.previousTime = previousTime;
+        this.appointmentTime = appointmentTime;
+        this.status = status;
+    }
+
+    public static AppointmentChangedEvent booked(Long appointmentId, Long doctorId, Long patientId, LocalDateTime appointmentTime, int status) {
+        return new AppointmentChangedEvent(Type.BOOKED, appointmentId, doctorId, patientId, null, appointmentTime, status);
+    }
+
+    public static AppointmentChangedEvent updated(Long appointmentId, Long doctorId, Long patientId,
+                                                  LocalDateTime previousTime, LocalDateTime appointmentTime, int status) {
+        return new AppointmentChangedEvent(Type.UPDATED, appointmentId, doctorId, patientId, previousTime, appointmentTime, status);
+    }
+
+    public static AppointmentChangedEvent cancelled(Long appointmentId, Long doctorId, Long patientId, LocalDateTime previousTime, int status) {
+        return new AppointmentChangedEvent(Type.CANCELLED, appointmentId, doctorId, patientId, previousTime, null, status);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getAppointmentId() {
+        return appointmentId;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public LocalDateTime getPreviousTime() {
+        return previousTime;
+    }
+
+    public LocalDateTime getAppointmentTime() {
+        return appointmentTime;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    // true if the appointment was moved to another time slot (or added / removed)
+    public boolean isTimeChanged() {
+        return previousTime == null ? appointmentTime != null : !previousTime.equals(appointmentTime);
+    }
+
+    @Override
+    public String toString() {
+        return "AppointmentChangedEvent{" +
+                "type=" + type +
+                ", appointmentId=" + appointmentId +
+                ", doctorId=" + doctorId +
+                ", patientId=" + patientId +
+                ", previousTime=" + previousTime +
+                ", appointmentTime=" + appointmentTime +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -0,0 +1,32 @@
+package com.project.back_end.events;
+
+import com.project.back_end.models.CacheInvalidation;
+
+// published by the CacheInvalidationBus for every eviction broadcast by another node: listeners drop their local
+// copies of the changed data (entityId null: all of the region). Runs on the polling thread, outside a transaction.
+public class CacheInvalidationEvent {
+
+    private final CacheInvalidation.Region region;
+    private final Long entityId;
+
+    public CacheInvalidationEvent(CacheInvalidation.Region region, Long entityId) {
+        this.region = region;
+        this.entityId = entityId;
+    }
+
+    public CacheInvalidation.Region getRegion() {
+        return region;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheInvalidationEvent{" +
+                "region=" + region +
+                ", entityId=" + entityId +
+                '}';
+    }
+}
@@ -0,0 +1,23 @@
+package com.project.back_end.events;
+
+// published by DoctorService.deleteDoctor after the doctor was soft-deleted: DoctorDeletionService removes the
+// appointments and the doctor after the commit
+public class DoctorDeletedEvent {
+
+    private final Long doctorId;
+
+    public DoctorDeletedEvent(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    @Override
+    public String toString() {
+        return "DoctorDeletedEvent{" +
+                "doctorId=" + doctorId +
+                '}';
+    }
+}
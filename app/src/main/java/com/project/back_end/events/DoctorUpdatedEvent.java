@@ -0,0 +1,23 @@
+package com.project.back_end.events;
+
+// published by DoctorService.updateDoctor after the doctor was saved: DailyReportService refreshes the doctor's name
+// in the daily report
+public class DoctorUpdatedEvent {
+
+    private final Long doctorId;
+
+    public DoctorUpdatedEvent(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    @Override
+    public String toString() {
+        return "DoctorUpdatedEvent{" +
+                "doctorId=" + doctorId +
+                '}';
+    }
+}
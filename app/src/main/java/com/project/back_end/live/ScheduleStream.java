@@ -0,0 +1,85 @@
+package com.project.back_end.live;
+
+import com.project.back_end.config.LiveUpdatesConfig;
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.events.CacheInvalidationEvent;
+import com.project.back_end.models.CacheInvalidation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+// live schedule of a doctor for the dashboard (GET /appointments/stream/{token}): the changes of the doctor's
+// appointments as server-sent events "booked", "updated" and "cancelled" (data: ScheduleChange), sent after the
+// commit. "resync": an appointment of the doctor was changed on another node (CacheInvalidationBus), the dashboard
+// reloads. Every `clinic.live.heartbeat-interval` a comment keeps the connections open.
+@Component
+public class ScheduleStream {
+
+    // what changed, without patient data: the dashboard reloads the day if it is concerned
+    public record ScheduleChange(Long appointmentId, Long patientId, LocalDateTime previousTime, LocalDateTime appointmentTime,
+                                 int status) {
+
+        static ScheduleChange of(AppointmentChangedEvent event) {
+            return new ScheduleChange(event.getAppointmentId(), event.getPatientId(), event.getPreviousTime(),
+                    event.getAppointmentTime(), event.getStatus());
+        }
+    }
+
+    private final SseBroadcaster<Long> broadcaster;
+
+    @Autowired
+    public ScheduleStream(@Qualifier(LiveUpdatesConfig.LIVE_UPDATES_EXECUTOR) Executor executor,
+                          MeterRegistry meterRegistry,
+                          @Value("${clinic.live.buffer-capacity:32}") int bufferCapacity,
+                          @Value("${clinic.live.connection-timeout:30m}") Duration connectionTimeout,
+                          @Value("${clinic.live.schedule.max-connections:2000}") int maxConnections) {
+        this.broadcaster = new SseBroadcaster<>("schedule", executor, bufferCapacity, connectionTimeout, maxConnections, meterRegistry);
+    }
+
+    // null: too many connections
+    public SseEmitter subscribe(Long doctorId) {
+        return broadcaster.subscribe(doctorId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        broadcaster.publish(event.getDoctorId(), event.getType().name().toLowerCase(), ScheduleChange.of(event));
+    }
+
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (event.getRegion() == CacheInvalidation.Region.APPOINTMENT && event.getEntityId() != null) {
+            broadcaster.publish(event.getEntityId(), "resync", Map.of("doctorId", event.getEntityId()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${clinic.live.heartbeat-interval:25s}")
+    public void heartbeat() {
+        broadcaster.heartbeat();
+    }
+
+    SseBroadcaster<Long> getBroadcaster() {
+        return broadcaster;
+    }
+
+    @PreDestroy
+    public void close() {
+        broadcaster.close();
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.project.back_end.live;
+
+import com.project.back_end.config.LiveUpdatesConfig;
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.events.CacheInvalidationEvent;
+import com.project.back_end.models.CacheInvalidation;
+import com.project.back_end.services.DoctorService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+// live availability of a doctor on one day for the booking page (GET /doctor/availability/stream/...): first the
+// event "snapshot" (data {"availableSlots": [...]} as getDoctorAvailability), then "taken" and "freed" (data: SlotChange)
+// after the commit of every booking, move and cancellation. "resync": an appointment of the doctor was changed on
+// another node, the page subscribes again. Every viewer holds a buffer of `clinic.live.slots.buffer-capacity` events,
+// at most `clinic.live.slots.max-connections` viewers per node
+@Component
+public class SlotAvailabilityStream {
+
+    record SlotKey(Long doctorId, LocalDate date) {
+    }
+
+    // time: start of the slot ("HH:mm")
+    public record SlotChange(Long doctorId, LocalDate date, String time) {
+
+        static SlotChange of(Long doctorId, LocalDateTime appointmentTime) {
+            return new SlotChange(doctorId, appointmentTime.toLocalDate(), appointmentTime.toLocalTime().toString());
+        }
+    }
+
+    private final DoctorService doctorService;
+    private final SseBroadcaster<SlotKey> broadcaster;
+
+    @Autowired
+    public SlotAvailabilityStream(DoctorService doctorService,
+                                  @Qualifier(LiveUpdatesConfig.LIVE_UPDATES_EXECUTOR) Executor executor,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${clinic.live.slots.buffer-capacity:8}") int bufferCapacity,
+                                  @Value("${clinic.live.connection-timeout:30m}") Duration connectionTimeout,
+                                  @Value("${clinic.live.slots.max-connections:10000}") int maxConnections) {
+        this.doctorService = doctorService;
+        this.broadcaster = new SseBroadcaster<>("slots", executor, bufferCapacity, connectionTimeout, maxConnections, meterRegistry);
+    }
+
+    // null: too many connections
+    public SseEmitter subscribe(Long doctorId, LocalDate date) {
+        return broadcaster.subscribe(new SlotKey(doctorId, date),
+                () -> Map.of("availableSlots", doctorService.getDoctorAvailability(doctorId, date)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (!event.isTimeChanged()) {
+            return; // e.g. completed: the slot stays taken
+        }
+        if (event.getPreviousTime() != null) {
+            publish("freed", SlotChange.of(event.getDoctorId(), event.getPreviousTime()));
+        }
+        if (event.getAppointmentTime() != null) {
+            publish("taken", SlotChange.of(event.getDoctorId(), event.getAppointmentTime()));
+        }
+    }
+
+    private void publish(String name, SlotChange change) {
+        broadcaster.publish(new SlotKey(change.doctorId(), change.date()), name, change);
+    }
+
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (event.getRegion() == CacheInvalidation.Region.APPOINTMENT && event.getEntityId() != null) {
+            broadcaster.publishAll(key -> key.doctorId().equals(event.getEntityId()), "resync", Map.of("doctorId", event.getEntityId()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${clinic.live.heartbeat-interval:25s}")
+    public void heartbeat() {
+        broadcaster.heartbeat();
+    }
+
+    SseBroadcaster<SlotKey> getBroadcaster() {
+        return broadcaster;
+    }
+
+    @PreDestroy
+    public void close() {
+        broadcaster.close();
+    }
+
+}
@@ -0,0 +1,279 @@
+package com.project.back_end.live;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// fan-out of events to SSE connections, grouped by a key (e.g. the doctor): one SubmissionPublisher per key with
+// subscribers, every connection a Flow.Subscriber which requests the next event only after the previous one is
+// written. publish() never blocks: each connection has a buffer of `bufferCapacity` events, a connection whose buffer
+// is full (the client doesn't read) is closed - EventSource reconnects and the page reloads its data.
+// An open connection costs a buffer and no thread; there are at most `maxSubscribers` of them, a publisher without
+// subscribers is removed. Meters: clinic.live.subscribers (gauge), clinic.live.dropped (closed for overflow), tag stream.
+// A connection starts with a "snapshot" event, or without one with the comment "connected" (flushes the response headers,
+// so EventSource and proxies see an open stream at once, not with the first event or heartbeat). The snapshot is read
+// on the subscribing (request) thread right after the subscription, never on the shared delivery threads: the events
+// published meanwhile wait in the buffer until the snapshot is sent and follow it - none is lost or overtaken by it
+public class SseBroadcaster<K> implements AutoCloseable {
+
+    private static final Event HEARTBEAT = new Event(null, "heartbeat");
+    private static final Event CONNECTED = new Event(null, "connected");
+
+    // name null: a comment (data: its text), e.g. the heartbeat which keeps idle connections open through proxies and
+    // detects closed ones
+    record Event(String name, Object data) {
+    }
+
+    private final String stream;
+    private final Executor executor;
+    private final int bufferCapacity;
+    private final Duration connectionTimeout;
+    private final int maxSubscribers;
+
+    private final Map<K, SubmissionPublisher<Event>> publishers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final ReentrantLock publishersLock = new ReentrantLock();
+    private final Counter dropped;
+
+    private final Logger log = LoggerFactory.getLogger( getClass() );
+
+    public SseBroadcaster(String stream, Executor executor, int bufferCapacity, Duration connectionTimeout, int maxSubscribers,
+                          MeterRegistry meterRegistry) {
+        this.stream = stream;
+        this.executor = executor;
+        this.bufferCapacity = bufferCapacity;
+        this.connectionTimeout = connectionTimeout;
+        this.maxSubscribers = maxSubscribers;
+        Gauge.builder("clinic.live.subscribers", subscribers, AtomicInteger::get)
+                .description("Open SSE connections")
+                .tag("stream", stream)
+                .register(meterRegistry);
+        this.dropped = Counter.builder("clinic.live.dropped")
+                .description("SSE connections closed because they did not keep up with the events")
+                .tag("stream", stream)
+                .register(meterRegistry);
+    }
+
+    // null: too many connections
+    public SseEmitter subscribe(K key) {
+        return subscribe(key, null);
+    }
+
+    // snapshot: data of the first event "snapshot" (read here, after subscribing), null: none
+    public SseEmitter subscribe(K key, Supplier<?> snapshot) {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(connectionTimeout.toMillis());
+        EmitterSubscriber subscriber = new EmitterSubscriber(key, emitter);
+        emitter.onCompletion(subscriber::cancel);
+        emitter.onTimeout(subscriber::cancel);
+        emitter.onError(error -> subscriber.cancel());
+        publishersLock.lock();
+        try {
+            publishers.computeIfAbsent(key, k -> new SubmissionPublisher<>(executor, bufferCapacity)).subscribe(subscriber);
+        } finally {
+            publishersLock.unlock();
+        }
+        Event first;
+        try {
+            first = snapshot == null ? CONNECTED : new Event("snapshot", snapshot.get());
+        } catch (RuntimeException e) {
+            log.debug("{} snapshot for {} not read: {}", stream, key, e.getMessage());
+            emitter.complete();
+            subscriber.cancel();
+            return emitter;
+        }
+        subscriber.start(first);
+        return emitter;
+    }
+
+    public void publish(K key, String name, Object data) {
+        SubmissionPublisher<Event> publisher = publishers.get(key);
+        if (publisher != null) {
+            offer(publisher, new Event(name, data));
+        }
+    }
+
+    // to the connections of all keys matching (e.g. all dates of a doctor)
+    public void publishAll(Predicate<K> keys, String name, Object data) {
+        Event event = new Event(name, data);
+        publishers.forEach((key, publisher) -> {
+            if (keys.test(key)) {
+                offer(publisher, event);
+            }
+        });
+    }
+
+    public void heartbeat() {
+        publishers.values().forEach(publisher -> offer(publisher, HEARTBEAT));
+    }
+
+    private void offer(SubmissionPublisher<Event> publisher, Event event) {
+        try {
+            publisher.offer(event, (subscriber, item) -> {
+                if (subscriber instanceof SseBroadcaster<?>.EmitterSubscriber emitterSubscriber) {
+                    emitterSubscriber.overflow();
+                }
+                return false;
+            });
+        } catch (IllegalStateException e) {
+            // closed meanwhile: its last subscriber is gone
+        }
+    }
+
+    private void unsubscribed(K key) {
+        subscribers.decrementAndGet();
+        publishersLock.lock();
+        try {
+            SubmissionPublisher<Event> publisher = publishers.get(key);
+            if (publisher != null && publisher.getNumberOfSubscribers() == 0) {
+                publishers.remove(key);
+                publisher.close();
+            }
+        } finally {
+            publishersLock.unlock();
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    public int getKeyCount() {
+        return publishers.size();
+    }
+
+    // completes all connections
+    @Override
+    public void close() {
+        publishersLock.lock();
+        try {
+            publishers.values().forEach(SubmissionPublisher::close);
+            publishers.clear();
+        } finally {
+            publishersLock.unlock();
+        }
+    }
+
+    private final class EmitterSubscriber implements Flow.Subscriber<Event> {
+
+        private final K key;
+        private final SseEmitter emitter;
+        private final AtomicInteger startSignals = new AtomicInteger(2); // onSubscribe and start
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile Flow.Subscription subscription;
+        private volatile Event first;
+
+        EmitterSubscriber(K key, SseEmitter emitter) {
+            this.key = key;
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (cancelled.get()) {
+                release(); // the connection was closed before
+                return;
+            }
+            if (startSignals.decrementAndGet() == 0) {
+                sendFirst();
+            }
+        }
+
+        // the first event is ready (on the subscribing thread)
+        void start(Event first) {
+            this.first = first;
+            if (startSignals.decrementAndGet() == 0) {
+                sendFirst();
+            }
+        }
+
+        // once onSubscribe and start have both happened, by the later one: the first event, then the buffered ones
+        private void sendFirst() {
+            if (cancelled.get()) {
+                return;
+            }
+            try {
+                send(first);
+                subscription.request(1);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("{} first event for {} not sent: {}", stream, key, e.getMessage());
+                cancel();
+            }
+        }
+
+        @Override
+        public void onNext(Event event) {
+            try {
+                send(event);
+                subscription.request(1);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("{} connection of {} closed: {}", stream, key, e.getMessage());
+                cancel();
+            }
+        }
+
+        private void send(Event event) throws IOException {
+            if (event.name() == null) {
+                emitter.send(SseEmitter.event().comment((String) event.data()));
+            } else {
+                emitter.send(SseEmitter.event().name(event.name()).data(event.data(), MediaType.APPLICATION_JSON));
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            emitter.complete();
+        }
+
+        @Override
+        public void onComplete() {
+            emitter.complete();
+        }
+
+        void overflow() {
+            dropped.increment();
+            emitter.complete();
+            cancel();
+        }
+
+        // the connection is closed; the subscription is released here or in onSubscribe, whichever sees the other
+        void cancel() {
+            cancelled.set(true);
+            if (subscription != null) {
+                release();
+            }
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                subscription.cancel();
+                unsubscribed(key);
+            }
+        }
+    }
+
+}
@@ -15,13 +15,26 @@ import java.time.LocalTime;
 // @Entity annotation:
 //    - Marks the class as a JPA entity, meaning it represents a table in the database.
 //    - Required for persistence frameworks (e.g., Hibernate) to map the class to a database table.
+//
+// @Table indexes (created by ddl-auto=update, which otherwise only creates the foreign key indexes):
+//    - unique (doctor_id, appointment_time): one appointment per doctor and slot; serves the doctor/day queries and the slot checks
+//    - (patient_id, status, appointment_time): appointments of a patient, filtered by status and ordered by time
+//    - (appointment_time): time range scans (reports, analytics)
 @Entity
+@Table(name = "appointment",
+        uniqueConstraints = @UniqueConstraint(name = "uk_appointment_doctor_time", columnNames = {"doctor_id", "appointment_time"}),
+        indexes = {
+                @Index(name = "idx_appointment_patient_status_time", columnList = "patient_id, status, appointment_time"),
+                @Index(name = "idx_appointment_time", columnList = "appointment_time")
+        })
 public class Appointment {
 
     public static final int APPOINTMENT_DEFAULT_ONE_HOUR_IN_MINUTES = 60;
     public static final int STATUS_SCHEDULED = 0;
     public static final int STATUS_COMPLETED = 1;
     public static final int STATUS_CANCELLED = 2;
+    // past and still scheduled without a result (set by AppointmentHousekeepingService)
+    public static final int STATUS_NO_SHOW = 3;
 
     // 1. 'id' field:
 //    - Type: private Long
@@ -207,6 +220,9 @@ public class Appointment {
             case "Cancelled":
                 this.status = STATUS_CANCELLED;
                 break;
+            case "NoShow":
+                this.status = STATUS_NO_SHOW;
+                break;
             default:
                 throw new IllegalArgumentException("unknown status value: " + status);
         }
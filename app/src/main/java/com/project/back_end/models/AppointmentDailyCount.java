@@ -0,0 +1,64 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+
+// rollup of the number of appointments per doctor and day.
+// kept up to date by the ReportingService on every booking / rescheduling / cancellation, so that the monthly and
+// yearly reports only have to sum up a few rows per doctor instead of scanning the whole appointment table.
+@Entity
+@Table(name = "appointment_daily_count",
+        uniqueConstraints = @UniqueConstraint(name = "uk_daily_count_doctor_date", columnNames = {"doctor_id", "appointment_date"}),
+        indexes = @Index(name = "idx_daily_count_date", columnList = "appointment_date, doctor_id, appointment_count"))
+public class AppointmentDailyCount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(nullable = false)
+    private Long id;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "appointment_date", nullable = false)
+    private LocalDate appointmentDate;
+
+    @Column(name = "appointment_count", nullable = false)
+    private long appointmentCount;
+
+    protected AppointmentDailyCount() {
+    }
+
+    public AppointmentDailyCount(Long doctorId, LocalDate appointmentDate, long appointmentCount) {
+        this.doctorId = doctorId;
+        this.appointmentDate = appointmentDate;
+        this.appointmentCount = appointmentCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public LocalDate getAppointmentDate() {
+        return appointmentDate;
+    }
+
+    public long getAppointmentCount() {
+        return appointmentCount;
+    }
+
+    @Override
+    public String toString() {
+        return "AppointmentDailyCount{" +
+                "doctorId=" + doctorId +
+                ", appointmentDate=" + appointmentDate +
+                ", appointmentCount=" + appointmentCount +
+                '}';
+    }
+}
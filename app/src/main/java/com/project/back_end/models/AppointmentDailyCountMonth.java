@@ -0,0 +1,26 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+
+// one row per month of the rollup appointment_daily_count: the lock which serializes the rebuild of a month
+// (ReportingService.backfill, exclusive) with the increments of that month on booking / rescheduling / cancellation
+// (shared, so bookings don't wait for each other). Created on first use.
+@Entity
+@Table(name = "appointment_daily_count_month")
+public class AppointmentDailyCountMonth {
+
+    // first day of the month
+    @Id
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    protected AppointmentDailyCountMonth() {
+    }
+
+    public LocalDate getMonthStart() {
+        return monthStart;
+    }
+}
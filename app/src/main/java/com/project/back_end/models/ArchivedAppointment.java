@@ -0,0 +1,98 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+
+// an appointment moved out of the table appointment after its retention (AppointmentHousekeepingService): same id and
+// columns, doctor and patient only as ids (no foreign keys, a deleted doctor or patient doesn't touch the archive).
+// The prescriptions in Mongo keep pointing to the id. Rows are written by INSERT ... SELECT, not through this entity
+// (@Immutable: Hibernate never updates them). Partitioned by month on MySQL, see AppointmentArchivePartitions.
+@Entity
+@Immutable
+@Table(name = "appointment_archive",
+        indexes = {
+                @Index(name = "idx_appointment_archive_patient_time", columnList = "patient_id, appointment_time"),
+                @Index(name = "idx_appointment_archive_time", columnList = "appointment_time")
+        })
+public class ArchivedAppointment {
+
+    @Id
+    @Column(nullable = false)
+    private Long id;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "patient_id", nullable = false)
+    private Long patientId;
+
+    @Column(name = "appointment_time", nullable = false)
+    private LocalDateTime appointmentTime;
+
+    @Column(name = "appointment_duration")
+    private Duration appointmentDuration;
+
+    private String reason;
+
+    private String result;
+
+    private int status;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    protected ArchivedAppointment() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public LocalDateTime getAppointmentTime() {
+        return appointmentTime;
+    }
+
+    public Duration getAppointmentDuration() {
+        return appointmentDuration;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ArchivedAppointment{" +
+                "id=" + id +
+                ", doctorId=" + doctorId +
+                ", patientId=" + patientId +
+                ", appointmentTime=" + appointmentTime +
+                ", status=" + status +
+                ", archivedAt=" + archivedAt +
+                '}';
+    }
+}
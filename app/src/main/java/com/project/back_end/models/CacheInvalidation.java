@@ -0,0 +1,78 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+
+// one eviction broadcast by a node after a change (see cache.CacheInvalidationBus): the other nodes poll the rows
+// with a version above the last one they have seen. The version is the auto increment key, i.e. monotonic in the order
+// of the inserts (not necessarily of the commits, the bus re-reads gaps for a while).
+@Entity
+@Table(name = "cache_invalidation",
+        indexes = @Index(name = "idx_cache_invalidation_created", columnList = "created_at"))
+public class CacheInvalidation {
+
+    // what was changed; entityId null: all entries of the region
+    public enum Region { DOCTOR, ADMIN, PATIENT, APPOINTMENT }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(nullable = false)
+    private Long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Region region;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    // node which made the change, it doesn't evict its own broadcasts
+    @Column(name = "origin_node", nullable = false, length = 36)
+    private String originNode;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    protected CacheInvalidation() {
+    }
+
+    public CacheInvalidation(Region region, Long entityId, String originNode, LocalDateTime createdAt) {
+        this.region = region;
+        this.entityId = entityId;
+        this.originNode = originNode;
+        this.createdAt = createdAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Region getRegion() {
+        return region;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public String getOriginNode() {
+        return originNode;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheInvalidation{" +
+                "version=" + version +
+                ", region=" + region +
+                ", entityId=" + entityId +
+                ", originNode='" + originNode + '\'' +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
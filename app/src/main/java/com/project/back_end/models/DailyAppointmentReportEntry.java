@@ -0,0 +1,98 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+
+// one row of the materialized daily appointment report (replacement of the stored procedure GetDailyAppointmentReportByDoctor).
+// the row is keyed by the appointment id and holds copies of the doctor and patient columns the report shows, so reading
+// the report of a day needs neither DATE(appointment_time) nor joins with doctor and patient.
+@Entity
+@Table(name = "daily_appointment_report",
+        indexes = @Index(name = "idx_daily_report_date", columnList = "report_date, doctor_name, appointment_time"))
+public class DailyAppointmentReportEntry {
+
+    @Id
+    @Column(name = "appointment_id", nullable = false)
+    private Long appointmentId;
+
+    @Column(name = "report_date", nullable = false)
+    private LocalDate reportDate;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "doctor_name")
+    private String doctorName;
+
+    @Column(name = "appointment_time", nullable = false)
+    private LocalDateTime appointmentTime;
+
+    private int status;
+
+    @Column(name = "patient_name")
+    private String patientName;
+
+    @Column(name = "patient_phone")
+    private String patientPhone;
+
+    protected DailyAppointmentReportEntry() {
+    }
+
+    public DailyAppointmentReportEntry(Appointment appointment) {
+        this.appointmentId = appointment.getId();
+        this.reportDate = appointment.getAppointmentTime().toLocalDate();
+        this.doctorId = appointment.getDoctor().getId();
+        this.doctorName = appointment.getDoctor().getName();
+        this.appointmentTime = appointment.getAppointmentTime();
+        this.status = appointment.getStatus();
+        this.patientName = appointment.getPatient().getName();
+        this.patientPhone = appointment.getPatient().getPhone();
+    }
+
+    public Long getAppointmentId() {
+        return appointmentId;
+    }
+
+    public LocalDate getReportDate() {
+        return reportDate;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public String getDoctorName() {
+        return doctorName;
+    }
+
+    public LocalDateTime getAppointmentTime() {
+        return appointmentTime;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getPatientName() {
+        return patientName;
+    }
+
+    public String getPatientPhone() {
+        return patientPhone;
+    }
+
+    @Override
+    public String toString() {
+        return "DailyAppointmentReportEntry{" +
+                "appointmentId=" + appointmentId +
+                ", reportDate=" + reportDate +
+                ", doctorName='" + doctorName + '\'' +
+                ", appointmentTime=" + appointmentTime +
+                ", status=" + status +
+                ", patientName='" + patientName + '\'' +
+                '}';
+    }
+}
@@ -4,7 +4,10 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 
@@ -12,7 +15,11 @@ import java.util.List;
 //    - Marks the class as a JPA entity, meaning it represents a table in the database.
 //    - Required for persistence frameworks (e.g., Hibernate) to map the class to a database table.
 
+// second-level cache (region "doctor", see application.conf): doctors are read on nearly every request (token
+// checks, availability, filters) and changed rarely, by the admins
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctor")
 public class Doctor {
 
     // 1. 'id' field:
@@ -94,8 +101,15 @@ public class Doctor {
 //      - Each time slot is represented as a string (e.g., "09:00-10:00", "10:00-11:00").
 //      - The @ElementCollection annotation ensures that the list of time slots is stored as a separate collection in the database.
     @ElementCollection(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctorAvailableTimes")
     private List<String> availableTimes;
 
+    // soft delete: set when an admin removes the doctor, the doctor disappears from the lists and can't log in or be
+    // booked; DoctorDeletionService removes the appointments in the background and then the row
+    @JsonIgnore
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     public Doctor(String email, String password, String phone, String name,
                   String academicDegree, String medicalLicense, String specialty, List<String> availableTimes) {
         setEmail(email);
@@ -183,6 +197,19 @@ public class Doctor {
         this.medicalLicense = medicalLicense;
     }
 
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    @JsonIgnore
+    public boolean isDeleted() {
+        return deletedAt != null;
+    }
+
     @Override
     public String toString() {
         return "Doctor{" +
@@ -195,6 +222,7 @@ public class Doctor {
                 ", medicalLicense='" + medicalLicense + '\'' +
                 ", specialty='" + specialty + '\'' +
                 ", availableTimes=" + availableTimes +
+                ", deletedAt=" + deletedAt +
                 '}';
     }
 }
@@ -13,7 +13,9 @@ import java.time.LocalDate;
 //    - Marks the class as a JPA entity, meaning it represents a table in the database.
 //    - Required for persistence frameworks (e.g., Hibernate) to map the class to a database table.
 
+// index on phone: the registration looks patients up by email or phone (the email is unique, i.e. indexed, already)
 @Entity
+@Table(indexes = @Index(name = "idx_patient_phone", columnList = "phone"))
 public class Patient {
 
     protected Patient() {
@@ -24,6 +26,7 @@ public class Patient {
         setPassword(password);
         setPhone(phone);
         setName(name);
+        setDateOfBirth(dateOfBirth);
         setAddress(address);
     }
 
@@ -130,6 +133,14 @@ public class Patient {
         this.phone = phone;
     }
 
+    public LocalDate getDateOfBirth() {
+        return dateOfBirth;
+    }
+
+    public void setDateOfBirth(LocalDate dateOfBirth) {
+        this.dateOfBirth = dateOfBirth;
+    }
+
     public String getAddress() {
         return address;
     }
@@ -2,6 +2,7 @@ package com.project.back_end.models;
 
 import jakarta.persistence.Id;
 import jakarta.validation.constraints.*;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -13,6 +14,8 @@ import java.util.Objects;
 //    - The collection name is specified as "prescriptions" to map this class to the "prescriptions" collection in MongoDB.
 
 @Document(collection = "prescriptions")
+// supports the lookup by appointment as well as the medication history (appointmentId IN (...) sorted by prescriptionDate)
+@CompoundIndex(name = "appointmentId_prescriptionDate", def = "{'appointmentId': 1, 'prescriptionDate': -1}")
 public class Prescription {
 
     // 1. 'id' field:
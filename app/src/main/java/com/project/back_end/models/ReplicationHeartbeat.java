@@ -0,0 +1,31 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+
+
+// single row, written on the primary every `clinic.datasource.replicas.heartbeat-interval` (config.ReplicaLagMonitor):
+// the value a replica has shows how far its replication is behind.
+@Entity
+@Table(name = "replication_heartbeat")
+public class ReplicationHeartbeat {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    // epoch millis of the node which wrote the heartbeat
+    @Column(nullable = false)
+    private long beat;
+
+    protected ReplicationHeartbeat() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public long getBeat() {
+        return beat;
+    }
+}
@@ -0,0 +1,87 @@
+package com.project.back_end.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+// times every public method of the services (package services and all *Service classes) as "clinic.service",
+// tagged by class, method, outcome and exception. The repository queries are timed by Spring Boot
+// ("spring.data.repository.invocations"), histogram settings of both: see application.properties.
+// note: the timers are looked up once per (method, outcome, exception) and cached, a call only costs two nanoTime()
+//       and the histogram update. Highest precedence, so the time includes the transaction (commit) of the service method.
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+    public static final String METRIC_NAME = "clinic.service";
+
+    private static final String NO_EXCEPTION = "None"; // as in spring.data.repository.invocations
+
+    private record TimerKey(Method method, String outcome, String exception) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // note: the pointcut is purely static (package / class name). Something like @within(Service) leaves a runtime
+    //       check on every call that costs more than the timer itself (see ServiceMetricsOverheadBenchmark)
+    @Around("execution(public * com.project.back_end.services..*(..)) || execution(public * com.project.back_end..*Service.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable t) {
+            record(joinPoint, start, Outcome.SERVER_ERROR.name(), t.getClass().getSimpleName());
+            throw t;
+        }
+        record(joinPoint, start, outcomeOf(result), NO_EXCEPTION);
+        return result;
+    }
+
+    // services answering with a ResponseEntity report the outcome by the status, everything else returned is a success
+    private static String outcomeOf(Object result) {
+        if (result instanceof ResponseEntity<?> responseEntity) {
+            return Outcome.forStatus(responseEntity.getStatusCode().value()).name();
+        }
+        return Outcome.SUCCESS.name();
+    }
+
+    private void record(ProceedingJoinPoint joinPoint, long start, String outcome, String exception) {
+        long duration = System.nanoTime() - start;
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        timers.computeIfAbsent(new TimerKey(method, outcome, exception), this::register)
+                .record(duration, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer register(TimerKey key) {
+        return Timer.builder(METRIC_NAME)
+                .description("Latency of the service methods")
+                .tag("class", key.method().getDeclaringClass().getSimpleName())
+                .tag("method", key.method().getName())
+                .tag("outcome", key.outcome())
+                .tag("exception", key.exception())
+                .register(meterRegistry);
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.project.back_end.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+// counts the SQL statements of every HTTP request (see SqlStatementStats / SqlStatementCountingListener) to make
+// N+1 selects visible: "clinic.http.sql.statements" (count) and "clinic.http.sql.time" (time in the statements) per
+// method and URI pattern, and a WARN when a request issues more than `clinic.sql.statement-budget` statements.
+// The response headers X-SQL-Statement-Count / -Time-Ms are written by SqlStatementHeaderAdvice, the SQL of the
+// requests sampled by SqlTraceRecorder is kept for /actuator/sqltraces.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_METRIC_NAME = "clinic.http.sql.statements";
+    public static final String TIME_METRIC_NAME = "clinic.http.sql.time";
+
+    private static final String UNKNOWN_URI = "UNKNOWN"; // as in http.server.requests
+
+    private record MeterKey(String method, String uri) {
+    }
+
+    private record Meters(DistributionSummary statements, Timer time) {
+    }
+
+    private final Logger log = LoggerFactory.getLogger( getClass() );
+
+    private final MeterRegistry meterRegistry;
+    private final SqlTraceRecorder traceRecorder;
+    private final int statementBudget;
+    private final ConcurrentMap<MeterKey, Meters> meters = new ConcurrentHashMap<>();
+
+    public SqlStatementCountFilter(MeterRegistry meterRegistry,
+                                   SqlTraceRecorder traceRecorder,
+                                   @Value("${clinic.sql.statement-budget:20}") int statementBudget) {
+        this.meterRegistry = meterRegistry;
+        this.traceRecorder = traceRecorder;
+        this.statementBudget = statementBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementStats.begin(traceRecorder.sample());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementStats.end();
+            record(request, response, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, SqlStatementStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+        if (stats.isTraced() && stats.getCount() > 0) {
+            traceRecorder.record(request.getMethod(), uri, response.getStatus(), stats); // the pattern: paths carry tokens
+        }
+        Meters requestMeters = meters.computeIfAbsent(new MeterKey(request.getMethod(), uri), this::register);
+        requestMeters.statements().record(stats.getCount());
+        requestMeters.time().record(stats.getNanos(), TimeUnit.NANOSECONDS);
+        if (stats.getCount() > statementBudget) {
+            log.warn("{} {} ({}) issued {} SQL statements ({} ms), budget is {} - N+1 select?",
+                    request.getMethod(), request.getRequestURI(), uri, stats.getCount(),
+                    String.format("%.1f", stats.getMillis()), statementBudget);
+        }
+    }
+
+    private Meters register(MeterKey key) {
+        DistributionSummary statements = DistributionSummary.builder(STATEMENTS_METRIC_NAME)
+                .description("SQL statements per HTTP request")
+                .baseUnit("statements")
+                .tag("method", key.method())
+                .tag("uri", key.uri())
+                .register(meterRegistry);
+        Timer time = Timer.builder(TIME_METRIC_NAME)
+                .description("Time spent in SQL statements per HTTP request")
+                .tag("method", key.method())
+                .tag("uri", key.uri())
+                .register(meterRegistry);
+        return new Meters(statements, time);
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.project.back_end.monitoring;
+
+import org.hibernate.SessionEventListener;
+
+// feeds SqlStatementStats with every JDBC statement (and batch) executed by a Hibernate session.
+// Registered for all sessions via hibernate.session.events.auto (application.properties), Hibernate creates one
+// instance per session - a session is used by one thread only, so the start time needs no synchronization.
+// note: a JDBC batch counts as one statement (one round trip)
+public class SqlStatementCountingListener implements SessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStatementStats.record(System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlStatementStats.record(System.nanoTime() - batchStart);
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.project.back_end.monitoring;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Locale;
+
+// adds the SQL statements issued so far by the request (SqlStatementStats) as response headers, just before the body
+// is written - the controller and its transactions are done by then (spring.jpa.open-in-view=false).
+// note: only for @ResponseBody / ResponseEntity responses; rendered views (Thymeleaf) only show up in the metrics
+@ControllerAdvice
+public class SqlStatementHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(@NonNull MethodParameter returnType, @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, @NonNull MethodParameter returnType, @NonNull MediaType selectedContentType,
+                                  @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  @NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            response.getHeaders().set(SqlStatementStats.HEADER_COUNT, Integer.toString(stats.getCount()));
+            response.getHeaders().set(SqlStatementStats.HEADER_TIME, String.format(Locale.ROOT, "%.3f", stats.getMillis()));
+        }
+        return body;
+    }
+
+}
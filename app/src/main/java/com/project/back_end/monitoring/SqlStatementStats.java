@@ -0,0 +1,106 @@
+package com.project.back_end.monitoring;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// number of and time spent in the SQL statements of the current HTTP request (per thread).
+// Counting starts with begin() (SqlStatementCountFilter) and is fed by SqlStatementCountingListener;
+// statements issued outside of a request (scheduled jobs, other threads) are not counted - except by the tasks the
+// request hands to an executor with propagate() (e.g. the doctor dashboard), which count into the request's stats.
+// A sampled request (SqlTraceRecorder) additionally keeps the SQL of its statements, handed over by
+// SqlTraceStatementInspector when Hibernate prepares the statement.
+public final class SqlStatementStats {
+
+    public static final String HEADER_COUNT = "X-SQL-Statement-Count";
+    public static final String HEADER_TIME = "X-SQL-Statement-Time-Ms";
+
+    // the SQL of more statements per request is not kept (they are still counted)
+    static final int MAX_TRACED_STATEMENTS = 200;
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+    // the SQL of the statement being prepared on this thread (several threads may feed the same stats)
+    private static final ThreadLocal<String> PREPARED_SQL = new ThreadLocal<>();
+
+    private int count;
+    private long nanos;
+    private final List<SqlTrace.Statement> statements; // null if the request is not traced
+
+    private SqlStatementStats(boolean traced) {
+        this.statements = traced ? new ArrayList<>() : null;
+    }
+
+    static SqlStatementStats begin(boolean traced) {
+        SqlStatementStats stats = new SqlStatementStats(traced);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+        PREPARED_SQL.remove();
+    }
+
+    // task for another thread (executor) counting its statements into the stats of the current request
+    public static Runnable propagate(Runnable task) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            CURRENT.set(stats);
+            try {
+                task.run();
+            } finally {
+                end();
+            }
+        };
+    }
+
+    // null outside of a request
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    static void prepared(String sql) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats != null && stats.statements != null) {
+            PREPARED_SQL.set(sql);
+        }
+    }
+
+    static void record(long statementNanos) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.add(statementNanos, stats.statements != null ? PREPARED_SQL.get() : null);
+        }
+    }
+
+    private synchronized void add(long statementNanos, String sql) {
+        count++;
+        nanos += statementNanos;
+        if (statements != null && statements.size() < MAX_TRACED_STATEMENTS) {
+            statements.add(new SqlTrace.Statement(sql, statementNanos / 1000));
+        }
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    public synchronized long getNanos() {
+        return nanos;
+    }
+
+    public synchronized double getMillis() {
+        return nanos / 1_000_000.0;
+    }
+
+    public boolean isTraced() {
+        return statements != null;
+    }
+
+    synchronized List<SqlTrace.Statement> getStatements() {
+        return statements;
+    }
+
+}
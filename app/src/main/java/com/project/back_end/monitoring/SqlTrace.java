@@ -0,0 +1,13 @@
+package com.project.back_end.monitoring;
+
+import java.time.Instant;
+import java.util.List;
+
+// the SQL statements of one sampled HTTP request, as shown by the "sqltraces" actuator endpoint
+public record SqlTrace(Instant timestamp, String method, String uri, int status,
+                       int statementCount, long statementMicros, List<Statement> statements) {
+
+    public record Statement(String sql, long micros) {
+    }
+
+}
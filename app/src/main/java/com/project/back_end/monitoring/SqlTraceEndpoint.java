@@ -0,0 +1,45 @@
+package com.project.back_end.monitoring;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// /actuator/sqltraces : GET the sampled SQL traces (newest first), POST {"sampleRate": 0.5} to change the sampling
+// at runtime (e.g. 1 while looking into a problem, 0 to switch it off), DELETE to clear the buffer.
+// POST and DELETE only with management.endpoint.sqltraces.access=unrestricted (read-only in application.properties)
+@Component
+@Endpoint(id = "sqltraces")
+public class SqlTraceEndpoint {
+
+    private final SqlTraceRecorder recorder;
+
+    public SqlTraceEndpoint(SqlTraceRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public Map<String, Object> traces() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("sampleRate", recorder.getSampleRate());
+        response.put("capacity", recorder.getCapacity());
+        response.put("traces", recorder.getTraces());
+        return response;
+    }
+
+    @WriteOperation
+    public Map<String, Object> sampleRate(double sampleRate) {
+        recorder.setSampleRate(sampleRate);
+        return Map.of("sampleRate", recorder.getSampleRate());
+    }
+
+    @DeleteOperation
+    public void clear() {
+        recorder.clear();
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.project.back_end.monitoring;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+// samples `clinic.sql.trace.sample-rate` of the HTTP requests (0 = off, 1 = all) and keeps the SQL statements of the
+// last `clinic.sql.trace.capacity` sampled requests in a ring buffer, see SqlTraceEndpoint (/actuator/sqltraces).
+// A request which is not sampled costs one random number; the SQL text is only kept for the sampled ones.
+// note: replaces the global Hibernate DEBUG/TRACE logging, which formatted and logged every statement and
+//       bind parameter on the request thread
+@Component
+public class SqlTraceRecorder {
+
+    private final int capacity;
+    private volatile double sampleRate;
+
+    private final ArrayDeque<SqlTrace> traces;
+    private final ReentrantLock tracesLock = new ReentrantLock();
+
+    public SqlTraceRecorder(@Value("${clinic.sql.trace.sample-rate:0.01}") double sampleRate,
+                            @Value("${clinic.sql.trace.capacity:100}") int capacity) {
+        this.capacity = capacity;
+        this.traces = new ArrayDeque<>(capacity);
+        setSampleRate(sampleRate);
+    }
+
+    boolean sample() {
+        double rate = sampleRate;
+        return rate > 0 && (rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    void record(String method, String uri, int status, SqlStatementStats stats) {
+        if (capacity <= 0) {
+            return;
+        }
+        SqlTrace trace = new SqlTrace(Instant.now(), method, uri, status, stats.getCount(), stats.getNanos() / 1000,
+                List.copyOf(stats.getStatements()));
+        tracesLock.lock();
+        try {
+            if (traces.size() == capacity) {
+                traces.removeFirst();
+            }
+            traces.addLast(trace);
+        } finally {
+            tracesLock.unlock();
+        }
+    }
+
+    // newest first
+    public List<SqlTrace> getTraces() {
+        tracesLock.lock();
+        try {
+            List<SqlTrace> result = new ArrayList<>(traces.size());
+            traces.descendingIterator().forEachRemaining(result::add);
+            return result;
+        } finally {
+            tracesLock.unlock();
+        }
+    }
+
+    public void clear() {
+        tracesLock.lock();
+        try {
+            traces.clear();
+        } finally {
+            tracesLock.unlock();
+        }
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sample rate must be in [0, 1]: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.project.back_end.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// hands the SQL of every statement Hibernate prepares to the current request (SqlStatementStats), which keeps it
+// only if the request is traced. Registered via hibernate.session_factory.statement_inspector (application.properties).
+// note: the SQL is not changed, and it is the SQL with placeholders - bind parameters are not recorded
+public class SqlTraceStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementStats.prepared(sql);
+        return sql;
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.project.back_end.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// AppointmentService.bookAppointment
+@Name("clinic.AppointmentBooking")
+@Label("Appointment Booking")
+@Description("Booking of an appointment (validation of patient, doctor and slot, insert)")
+@Category("Clinic")
+@StackTrace(false)
+public class AppointmentBookingEvent extends Event {
+
+    public static final String BOOKED = "booked";
+    public static final String PATIENT_NOT_FOUND = "patient not found";
+    public static final String DOCTOR_NOT_FOUND = "doctor not found";
+    public static final String SLOT_TAKEN = "slot taken";
+    public static final String ERROR = "error";
+
+    @Label("Doctor Id")
+    public long doctorId;
+
+    @Label("Patient Id")
+    public long patientId;
+
+    @Label("Outcome")
+    public String outcome;
+
+}
@@ -0,0 +1,33 @@
+package com.project.back_end.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// DoctorService.getDoctorAvailability
+@Name("clinic.DoctorAvailability")
+@Label("Doctor Availability")
+@Description("Free time slots of a doctor on one day")
+@Category("Clinic")
+@StackTrace(false)
+public class DoctorAvailabilityEvent extends Event {
+
+    public static final String FOUND = "found";
+    public static final String DOCTOR_NOT_FOUND = "doctor not found";
+
+    @Label("Doctor Id")
+    public long doctorId;
+
+    @Label("Date")
+    public String date;
+
+    @Label("Available Slots")
+    public int availableSlots;
+
+    @Label("Outcome")
+    public String outcome;
+
+}
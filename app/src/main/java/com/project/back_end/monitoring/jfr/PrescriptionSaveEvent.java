@@ -0,0 +1,28 @@
+package com.project.back_end.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// PrescriptionService.savePrescription (MongoDB)
+@Name("clinic.PrescriptionSave")
+@Label("Prescription Save")
+@Description("Check for an existing prescription of the appointment and insert")
+@Category("Clinic")
+@StackTrace(false)
+public class PrescriptionSaveEvent extends Event {
+
+    public static final String SAVED = "saved";
+    public static final String ALREADY_EXISTS = "already exists";
+    public static final String ERROR = "error";
+
+    @Label("Appointment Id")
+    public long appointmentId;
+
+    @Label("Outcome")
+    public String outcome;
+
+}
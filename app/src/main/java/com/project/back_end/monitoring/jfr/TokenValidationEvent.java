@@ -0,0 +1,32 @@
+package com.project.back_end.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// TokenService.validateToken (signature check and user lookup)
+@Name("clinic.TokenValidation")
+@Label("Token Validation")
+@Description("Validation of a JWT for a role: signature, expiry and existence of the user")
+@Category("Clinic")
+@StackTrace(false)
+public class TokenValidationEvent extends Event {
+
+    public static final String VALID = "valid";
+    public static final String UNKNOWN_USER = "unknown user";
+    public static final String INVALID_TOKEN = "invalid token";
+
+    @Label("Role")
+    public String role;
+
+    @Label("Doctor Id")
+    @Description("Id of the doctor for tokens of the role doctor, 0 otherwise")
+    public long doctorId;
+
+    @Label("Outcome")
+    public String outcome;
+
+}
@@ -0,0 +1,6 @@
+// JDK Flight Recorder events of the domain operations (category "Clinic"), to line up GC pauses, lock contention and
+// socket reads of a recording with the bookings, availability checks, token validations and prescriptions they slowed down.
+// Each event carries its duration (begin() ... commit()) and the outcome; they are only written while a recording
+// with the event enabled is running (e.g. -XX:StartFlightRecording or jcmd <pid> JFR.start), otherwise begin() and
+// commit() are close to free. Stack traces are off, the thread of the event is recorded anyway.
+package com.project.back_end.monitoring.jfr;
@@ -1,7 +1,10 @@
 package com.project.back_end.repo;
 
 import com.project.back_end.models.Admin;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 // 1. Extend JpaRepository:
@@ -29,6 +32,8 @@ public interface AdminRepository extends JpaRepository<Admin, Long> {
 //      - It will return an Admin entity that matches the provided username.
 //      - If no Admin is found with the given username, it returns null.
 // Example: public Admin findByUsername(String username);
+//    - cacheable query (query cache), the admin itself comes from the second-level cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Admin findByUsername(String username);
 
 }
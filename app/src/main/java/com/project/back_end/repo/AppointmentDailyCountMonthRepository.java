@@ -0,0 +1,31 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.AppointmentDailyCountMonth;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface AppointmentDailyCountMonthRepository extends JpaRepository<AppointmentDailyCountMonth, LocalDate> {
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO appointment_daily_count_month (month_start) VALUES (:monthStart)", nativeQuery = true)
+    void createIfMissing(LocalDate monthStart);
+
+    // SELECT ... FOR SHARE: held by the increments until their commit, empty if the row doesn't exist yet
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT m FROM AppointmentDailyCountMonth m WHERE m.monthStart = :monthStart")
+    Optional<AppointmentDailyCountMonth> lockShared(LocalDate monthStart);
+
+    // SELECT ... FOR UPDATE: held by the backfill of the month until its commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM AppointmentDailyCountMonth m WHERE m.monthStart = :monthStart")
+    Optional<AppointmentDailyCountMonth> lockExclusive(LocalDate monthStart);
+
+}
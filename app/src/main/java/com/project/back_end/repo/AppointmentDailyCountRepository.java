@@ -0,0 +1,50 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.AppointmentDailyCount;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AppointmentDailyCountRepository extends JpaRepository<AppointmentDailyCount, Long> {
+
+    // atomically adds delta (+1 booked / -1 cancelled) to the counter of a doctor on a day, creating the row if necessary
+    @Modifying
+    @Query(value = "INSERT INTO appointment_daily_count (doctor_id, appointment_date, appointment_count) " +
+            "VALUES (:doctorId, :date, :delta) " +
+            "ON DUPLICATE KEY UPDATE appointment_count = appointment_count + :delta",
+            nativeQuery = true)
+    void increment(Long doctorId, LocalDate date, long delta);
+
+    // doctors ordered by their number of appointments in [from, to) : Object[] {doctorId, doctorName, appointmentCount}
+    @Query("SELECT c.doctorId, d.name, SUM(c.appointmentCount) FROM AppointmentDailyCount c " +
+            "JOIN Doctor d ON d.id = c.doctorId " +
+            "WHERE c.appointmentDate >= :from AND c.appointmentDate < :to " +
+            "GROUP BY c.doctorId, d.name " +
+            "HAVING SUM(c.appointmentCount) > 0 " +
+            "ORDER BY SUM(c.appointmentCount) DESC, c.doctorId")
+    List<Object[]> findTopDoctors(LocalDate from, LocalDate to, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM AppointmentDailyCount c WHERE c.appointmentDate >= :from AND c.appointmentDate < :to")
+    int deleteByAppointmentDateRange(LocalDate from, LocalDate to);
+
+    // the counters of [start, end) computed from the appointment table and its archive (range predicate on
+    // appointment_time, no MONTH()/YEAR()) : Object[] {doctorId, date, count}. A plain (non-locking) read: the backfill
+    // holds the lock of the month instead, see ReportingService
+    @Query(value = "SELECT a.doctor_id, CAST(a.appointment_time AS DATE), COUNT(*) FROM (" +
+            "  SELECT doctor_id, appointment_time FROM appointment WHERE appointment_time >= :start AND appointment_time < :end" +
+            "  UNION ALL" +
+            "  SELECT doctor_id, appointment_time FROM appointment_archive WHERE appointment_time >= :start AND appointment_time < :end" +
+            ") a " +
+            "GROUP BY a.doctor_id, CAST(a.appointment_time AS DATE)",
+            nativeQuery = true)
+    List<Object[]> countAppointments(LocalDateTime start, LocalDateTime end);
+
+}
@@ -1,14 +1,20 @@
 package com.project.back_end.repo;
 
 import com.project.back_end.models.Appointment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 
 // 1. Extend JpaRepository:
@@ -66,21 +72,27 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 //      - This method retrieves all appointments for a specific patient.
 //      - Return type: List<Appointment>
 //      - Parameters: Long patientId
+    // note: condition on the foreign key column (a.patient.id), a derived query would join patient and filter on p.id,
+    //       which keeps the database from using the index on appointment.patient_id
+    @Query("SELECT a FROM Appointment a WHERE a.patient.id = :patientId")
     List<Appointment> findByPatientId(Long patientId);
 
 //    - **findByPatientIdAndStatusOrderByAppointmentTimeAsc**:
 //      - This method retrieves all appointments for a specific patient with a given status, ordered by the appointment time.
 //      - Return type: List<Appointment>
 //      - Parameters: Long patientId, int status
+    @Query("SELECT a FROM Appointment a WHERE a.patient.id = :patientId AND a.status = :status ORDER BY a.appointmentTime ASC")
     List<Appointment> findByPatientIdAndStatusOrderByAppointmentTimeAsc(Long patientId, int status);
 
 //    - **filterByDoctorNameAndPatientId**:
 //      - This method retrieves appointments based on a doctor’s name (using a LIKE query) and the patient’s ID.
 //      - Return type: List<Appointment>
 //      - Parameters: String doctorName, Long patientId
+    // note: inner fetch joins (doctor and patient are mandatory), so the planner may start at the patient row and reach
+    //       the appointments through the patient index instead of scanning the table behind a left join
     @Query("SELECT a FROM Appointment a " +
-            "LEFT JOIN FETCH a.doctor d " +
-            "LEFT JOIN FETCH a.patient p " +
+            "JOIN FETCH a.doctor d " +
+            "JOIN FETCH a.patient p " +
             "WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%')) " +
             "      AND p.id = :patientId")
     List<Appointment> filterByDoctorNameAndPatientId(String doctorName, Long patientId);
@@ -90,8 +102,8 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 //      - Return type: List<Appointment>
 //      - Parameters: String doctorName, Long patientId, int status
     @Query("SELECT a FROM Appointment a " +
-            "LEFT JOIN FETCH a.doctor d " +
-            "LEFT JOIN FETCH a.patient p " +
+            "JOIN FETCH a.doctor d " +
+            "JOIN FETCH a.patient p " +
             "WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%')) " +
             "      AND p.id = :patientId " +
             "      AND a.status = :status")
@@ -118,4 +130,71 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     // check whether the slot is already taken for a doctor, excluding a specific appointment (for update)
     boolean existsByDoctorIdAndAppointmentTimeAndIdNot(Long doctorId, LocalDateTime appointmentTime, Long id);
 
+    // ids of all appointments of a patient, including the archived ones (e.g. to look up their prescriptions in mongo,
+    // which keep pointing to the id after archiving)
+    @Query(value = "SELECT a.id FROM appointment a WHERE a.patient_id = :patientId " +
+            "UNION ALL " +
+            "SELECT r.id FROM appointment_archive r WHERE r.patient_id = :patientId",
+            nativeQuery = true)
+    List<Long> findIdsByPatientId(Long patientId);
+
+    // ids of the appointments of a doctor in [start, end] (index only: uk_appointment_doctor_time)
+    @Query("SELECT a.id FROM Appointment a WHERE a.doctor.id = :doctorId AND a.appointmentTime BETWEEN :start AND :end")
+    List<Long> findIdsByDoctorIdAndAppointmentTimeBetween(Long doctorId, LocalDateTime start, LocalDateTime end);
+
+    // all appointments in [start, end) together with their doctor and patient
+    @Query("SELECT a FROM Appointment a " +
+            "JOIN FETCH a.doctor " +
+            "JOIN FETCH a.patient " +
+            "WHERE a.appointmentTime >= :start AND a.appointmentTime < :end")
+    List<Appointment> findWithDoctorAndPatientByAppointmentTimeRange(LocalDateTime start, LocalDateTime end);
+
+    // columns needed by the analytics snapshot, of the appointments and of the archived ones (older than the retention of
+    // the housekeeping, or of a deleted doctor), ordered by time : Object[] {doctorId, appointmentTime, status,
+    // appointmentDuration, id} (must be consumed inside a transaction, the rows are fetched in chunks instead of
+    // materializing a list)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.doctor.id, a.appointmentTime, a.status, a.appointmentDuration, a.id FROM Appointment a " +
+            "UNION ALL " +
+            "SELECT r.doctorId, r.appointmentTime, r.status, r.appointmentDuration, r.id FROM ArchivedAppointment r " +
+            "ORDER BY 2, 5")
+    Stream<Object[]> streamAnalyticsColumns();
+
+    // housekeeping (AppointmentHousekeepingService): ids of the scheduled appointments which started before `before`,
+    // with / without a result entered by the doctor, in chunks
+    @Query("SELECT a.id FROM Appointment a WHERE a.status = 0 AND a.appointmentTime < :before AND a.result IS NOT NULL ORDER BY a.appointmentTime")
+    List<Long> findIdsOfPastScheduledWithResult(LocalDateTime before, Limit limit);
+
+    @Query("SELECT a.id FROM Appointment a WHERE a.status = 0 AND a.appointmentTime < :before AND a.result IS NULL ORDER BY a.appointmentTime")
+    List<Long> findIdsOfPastScheduledWithoutResult(LocalDateTime before, Limit limit);
+
+    // only appointments still scheduled: a status set meanwhile (e.g. by a prescription) is kept
+    @Modifying
+    @Query("UPDATE Appointment a SET a.status = :status WHERE a.id IN :ids AND a.status = 0")
+    int updateScheduledStatus(Collection<Long> ids, int status);
+
+    @Query("SELECT a.id FROM Appointment a WHERE a.appointmentTime < :before ORDER BY a.appointmentTime")
+    List<Long> findIdsByAppointmentTimeBefore(LocalDateTime before, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM Appointment a WHERE a.id IN :ids")
+    int deleteByIds(Collection<Long> ids);
+
+    // removal of a deleted doctor (DoctorDeletionService): the past appointments in chunks to archive, then the rest
+    @Query("SELECT a.id FROM Appointment a WHERE a.doctor.id = :doctorId AND a.appointmentTime < :before ORDER BY a.appointmentTime")
+    List<Long> findIdsByDoctorIdAndAppointmentTimeBefore(Long doctorId, LocalDateTime before, Limit limit);
+
+    @Query("SELECT a.id FROM Appointment a WHERE a.doctor.id = :doctorId ORDER BY a.appointmentTime")
+    List<Long> findIdsByDoctorId(Long doctorId, Limit limit);
+
+    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.doctor.id = :doctorId")
+    long countByDoctorId(Long doctorId);
+
+    // time range of all stored appointments (null if there are none)
+    @Query("SELECT MIN(a.appointmentTime) FROM Appointment a")
+    LocalDateTime findFirstAppointmentTime();
+
+    @Query("SELECT MAX(a.appointmentTime) FROM Appointment a")
+    LocalDateTime findLastAppointmentTime();
+
 }
@@ -0,0 +1,65 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.models.ArchivedAppointment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedAppointmentRepository extends JpaRepository<ArchivedAppointment, Long> {
+
+    // copies the appointments with the given ids into the archive (to be deleted from appointment in the same transaction)
+    @Modifying
+    @Query(value = "INSERT INTO appointment_archive (id, doctor_id, patient_id, appointment_time, appointment_duration, reason, result, status, archived_at) " +
+            "SELECT a.id, a.doctor_id, a.patient_id, a.appointment_time, a.appointment_duration, a.reason, a.result, a.status, :archivedAt " +
+            "FROM appointment a WHERE a.id IN (:ids)",
+            nativeQuery = true)
+    int copyFromAppointments(Collection<Long> ids, LocalDateTime archivedAt);
+
+    List<ArchivedAppointment> findByPatientIdOrderByAppointmentTimeAsc(Long patientId);
+
+    // history of a patient in the archive since `from` (the range on appointment_time reads only the monthly partitions
+    // of the range, see AppointmentArchivePartitions), as the DTOs of the appointment table. The doctor may be deleted
+    // meanwhile (doctorName null). Read-only: served by a replica if there are any
+    String HISTORY = "SELECT new com.project.back_end.DTO.AppointmentDTO(a.id, a.doctorId, d.name, p.id, p.name, p.email, p.phone, p.address, " +
+            "a.appointmentTime, a.status) " +
+            "FROM ArchivedAppointment a " +
+            "JOIN Patient p ON p.id = a.patientId ";
+
+    @Transactional(readOnly = true)
+    @Query(HISTORY +
+            "LEFT JOIN Doctor d ON d.id = a.doctorId " +
+            "WHERE a.patientId = :patientId AND a.appointmentTime >= :from " +
+            "ORDER BY a.appointmentTime")
+    List<AppointmentDTO> findHistory(Long patientId, LocalDateTime from);
+
+    @Transactional(readOnly = true)
+    @Query(HISTORY +
+            "LEFT JOIN Doctor d ON d.id = a.doctorId " +
+            "WHERE a.patientId = :patientId AND a.status = :status AND a.appointmentTime >= :from " +
+            "ORDER BY a.appointmentTime")
+    List<AppointmentDTO> findHistoryByStatus(Long patientId, int status, LocalDateTime from);
+
+    @Transactional(readOnly = true)
+    @Query(HISTORY +
+            "JOIN Doctor d ON d.id = a.doctorId " +
+            "WHERE a.patientId = :patientId AND LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%')) AND a.appointmentTime >= :from " +
+            "ORDER BY a.appointmentTime")
+    List<AppointmentDTO> findHistoryByDoctorName(Long patientId, String doctorName, LocalDateTime from);
+
+    @Transactional(readOnly = true)
+    @Query(HISTORY +
+            "JOIN Doctor d ON d.id = a.doctorId " +
+            "WHERE a.patientId = :patientId AND LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%')) AND a.status = :status " +
+            "      AND a.appointmentTime >= :from " +
+            "ORDER BY a.appointmentTime")
+    List<AppointmentDTO> findHistoryByDoctorNameAndStatus(Long patientId, String doctorName, int status, LocalDateTime from);
+
+}
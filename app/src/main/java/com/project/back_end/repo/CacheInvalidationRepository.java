@@ -0,0 +1,30 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.CacheInvalidation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+
+    // next batch after the last version seen (primary key range scan)
+    List<CacheInvalidation> findByVersionGreaterThanOrderByVersionAsc(long version, Limit limit);
+
+    // versions skipped by a previous poll which may have been committed since
+    List<CacheInvalidation> findByVersionIn(Collection<Long> versions);
+
+    @Query("SELECT COALESCE(MAX(c.version), 0) FROM CacheInvalidation c")
+    long findMaxVersion();
+
+    @Modifying
+    @Query("DELETE FROM CacheInvalidation c WHERE c.createdAt < :before")
+    int deleteByCreatedAtBefore(LocalDateTime before);
+
+}
@@ -0,0 +1,40 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.DailyAppointmentReportEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DailyAppointmentReportRepository extends JpaRepository<DailyAppointmentReportEntry, Long> {
+
+    // report of one day, in the order of the former stored procedure (doctor name, appointment time)
+    List<DailyAppointmentReportEntry> findByReportDateOrderByDoctorNameAscAppointmentTimeAsc(LocalDate reportDate);
+
+    @Modifying
+    @Query("DELETE FROM DailyAppointmentReportEntry e WHERE e.reportDate = :reportDate")
+    int deleteByReportDate(LocalDate reportDate);
+
+    // the copy of the doctor's name follows a change of the doctor (all days: the former procedure joined the doctor)
+    @Modifying
+    @Query("UPDATE DailyAppointmentReportEntry e SET e.doctorName = :doctorName WHERE e.doctorId = :doctorId AND " +
+            "(e.doctorName IS NULL OR e.doctorName <> :doctorName)")
+    int updateDoctorName(Long doctorId, String doctorName);
+
+    // appointments deleted by a bulk delete (DoctorDeletionService)
+    @Modifying
+    @Query("DELETE FROM DailyAppointmentReportEntry e WHERE e.appointmentId IN :appointmentIds")
+    int deleteByAppointmentIds(Collection<Long> appointmentIds);
+
+    // status changed by a bulk update of the appointments (AppointmentHousekeepingService): like the appointments only
+    // the entries still scheduled, a status set meanwhile (e.g. completed by a prescription) is kept
+    @Modifying
+    @Query("UPDATE DailyAppointmentReportEntry e SET e.status = :status WHERE e.appointmentId IN :appointmentIds AND e.status = 0")
+    int updateScheduledStatus(Collection<Long> appointmentIds, int status);
+
+}
@@ -1,10 +1,14 @@
 package com.project.back_end.repo;
 
 import com.project.back_end.models.Doctor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 // 1. Extend JpaRepository:
@@ -21,11 +25,16 @@ import java.util.List;
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
 
 // 2. Custom Query Methods:
+//    (the lists only hold doctors which aren't soft-deleted, see Doctor.deletedAt; findById / findByEmail find both,
+//     the callers check isDeleted())
 
 //    - **findByEmail**:
 //      - This method retrieves a Doctor by their email.
 //      - Return type: Doctor
 //      - Parameters: String email
+//      - cacheable query (query cache): the id found for an email is cached, the doctor itself comes from the
+//        second-level cache; invalidated by every change of the doctor table
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Doctor findByEmail(String email);
 
 //    - **findByNameLike**:
@@ -34,7 +43,7 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
 //      - Return type: List<Doctor>
 //      - Parameters: String name
     @Query("SELECT d FROM Doctor d " +
-            "WHERE d.name LIKE CONCAT('%', :name, '%')")
+            "WHERE d.name LIKE CONCAT('%', :name, '%') AND d.deletedAt IS NULL")
     List<Doctor> findByNameLike(String name);
 
 //    - **findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase**:
@@ -44,13 +53,27 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
 //      - Parameters: String name, String specialty
     @Query("SELECT d FROM Doctor d " +
             "WHERE LOWER(d.name) LIKE LOWER( CONCAT('%', :name, '%')) " +
-            "      AND LOWER(d.specialty) LIKE LOWER( CONCAT('%', :specialty, '%'))")
+            "      AND LOWER(d.specialty) LIKE LOWER( CONCAT('%', :specialty, '%')) " +
+            "      AND d.deletedAt IS NULL")
     List<Doctor> findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(String name, String specialty);
 
 //    - **findBySpecialtyIgnoreCase**:
 //      - This method retrieves a list of Doctors with the specified specialty, ignoring case sensitivity.
 //      - Return type: List<Doctor>
 //      - Parameters: String specialty
+    @Query("SELECT d FROM Doctor d WHERE LOWER(d.specialty) = LOWER(:speciality) AND d.deletedAt IS NULL")
     List<Doctor> findBySpecialtyIgnoreCase(String speciality);
 
+    // all doctors, without the soft-deleted ones
+    @Query("SELECT d FROM Doctor d WHERE d.deletedAt IS NULL")
+    List<Doctor> findAllActive();
+
+    // which of the emails are taken (by any doctor, also a soft-deleted one), one query for a whole import batch
+    @Query("SELECT d.email FROM Doctor d WHERE d.email IN :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    // soft-deleted doctors whose appointments are still to be removed (DoctorDeletionService)
+    @Query("SELECT d.id FROM Doctor d WHERE d.deletedAt IS NOT NULL")
+    List<Long> findIdsOfDeleted();
+
 }
\ No newline at end of file
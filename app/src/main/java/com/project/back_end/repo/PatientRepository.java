@@ -6,6 +6,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 // 1. Extend JpaRepository:
 //    - The repository extends JpaRepository<Patient, Long>, which provides basic CRUD functionality.
 //    - This allows the repository to perform operations like save, delete, update, and find without needing to implement these methods manually.
@@ -40,5 +43,10 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
 //      - Parameters: String email, String phone
     Patient findByEmailOrPhone(String email, String phone);
 
+    // emails and phones of the given ones which are taken : Object[] {email, phone}, one query for a whole batch of
+    // registrations (PatientRegistrationService)
+    @Query("SELECT p.email, p.phone FROM Patient p WHERE p.email IN :emails OR p.phone IN :phones")
+    List<Object[]> findEmailsAndPhones(Collection<String> emails, Collection<String> phones);
+
 }
 
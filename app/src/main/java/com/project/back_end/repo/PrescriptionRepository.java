@@ -4,6 +4,7 @@ import com.project.back_end.models.Prescription;
 import org.springframework.data.mongodb.repository.MongoRepository;
 // import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 
@@ -24,5 +25,8 @@ public interface PrescriptionRepository extends MongoRepository<Prescription, St
 //      - MongoRepository automatically derives the query from the method name, in this case, it will find prescriptions by the appointment ID.
     List<Prescription> findByAppointmentId(Long appointmentId);
 
+    // prescriptions of several appointments with one query
+    List<Prescription> findByAppointmentIdIn(Collection<Long> appointmentIds);
+
 }
 
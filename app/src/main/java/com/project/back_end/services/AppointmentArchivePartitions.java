@@ -0,0 +1,136 @@
+package com.project.back_end.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+// monthly range partitions of appointment_archive on MySQL: partition pYYYYMM holds the appointments of that month
+// (p of the first month also everything before it), pmax everything after the last month. Queries with a range on
+// appointment_time only read the partitions of the range (partition pruning), and old months could be removed with
+// DROP PARTITION instead of a DELETE.
+// The table is created by ddl-auto like every other table and partitioned on the first maintain(); the primary key
+// becomes (id, appointment_time), as MySQL requires the partitioning column in every unique key.
+// The hot table appointment isn't partitioned (partitioned InnoDB tables allow no foreign keys), it's kept small by
+// AppointmentHousekeepingService which moves old appointments here. Other databases (H2 in the tests): no-op
+@Component
+public class AppointmentArchivePartitions {
+
+    static final String TABLE = "appointment_archive";
+    static final String MAX_PARTITION = "pmax";
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final Logger log = LoggerFactory.getLogger( getClass() );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+
+    private Boolean mysql;
+
+    @Autowired
+    public AppointmentArchivePartitions(DataSource dataSource,
+                                        @Value("${clinic.appointments.archive.partitions-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.monthsAhead = monthsAhead;
+    }
+
+    // the partitions to create: `partitionTable` the first partitioning of the table, otherwise a split of pmax;
+    // no months: nothing to do
+    record Plan(boolean partitionTable, List<YearMonth> months) {
+
+        static final Plan NONE = new Plan(false, List.of());
+    }
+
+    // makes sure there are partitions up to `partitions-ahead` months after the month of `newest` (the newest appointment
+    // time to be archived next), partitions the table on the first call; returns the number of partitions created
+    public int maintain(LocalDateTime newest) {
+        if (!isMysql()) {
+            return 0;
+        }
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT partition_name FROM information_schema.partitions " +
+                        "WHERE table_schema = DATABASE() AND table_name = ? AND partition_name IS NOT NULL " +
+                        "ORDER BY partition_ordinal_position",
+                String.class, TABLE);
+        LocalDateTime oldest = partitions.isEmpty()
+                ? jdbcTemplate.queryForObject("SELECT MIN(appointment_time) FROM " + TABLE, LocalDateTime.class)
+                : null;
+
+        Plan plan = plan(partitions, newest, oldest, monthsAhead);
+        List<YearMonth> months = plan.months();
+        if (months.isEmpty()) {
+            return 0;
+        }
+        if (plan.partitionTable()) {
+            log.info("partitioning {} by month {} .. {}", TABLE, months.get(0), months.get(months.size() - 1));
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, appointment_time) " +
+                    "PARTITION BY RANGE COLUMNS(appointment_time) " + definitions(months));
+        } else {
+            log.info("adding the partitions {} .. {} to {}", months.get(0), months.get(months.size() - 1), TABLE);
+            // pmax is empty as long as maintain() runs before the appointments are archived: the split moves no rows
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO " + definitions(months));
+        }
+        return months.size();
+    }
+
+    // existing: the partition names of the table (none: not partitioned yet), oldest: the oldest appointment time in the
+    // archive (only read for the first partitioning, null: empty)
+    static Plan plan(List<String> existing, LocalDateTime newest, LocalDateTime oldest, int monthsAhead) {
+        YearMonth last = YearMonth.from(newest).plusMonths(monthsAhead);
+        if (existing.isEmpty()) {
+            YearMonth first = oldest != null && oldest.isBefore(newest) ? YearMonth.from(oldest) : YearMonth.from(newest);
+            return new Plan(true, months(first, last));
+        }
+        YearMonth lastExisting = existing.stream()
+                .filter(name -> !name.equals(MAX_PARTITION))
+                .map(name -> YearMonth.parse(name, PARTITION_NAME))
+                .max(YearMonth::compareTo)
+                .orElse(YearMonth.from(newest).minusMonths(1));
+        if (!lastExisting.isBefore(last)) {
+            return Plan.NONE;
+        }
+        return new Plan(false, months(lastExisting.plusMonths(1), last));
+    }
+
+    // "(PARTITION p202501 VALUES LESS THAN ('2025-02-01 00:00:00'), ..., PARTITION pmax VALUES LESS THAN (MAXVALUE))"
+    static String definitions(List<YearMonth> months) {
+        StringJoiner joiner = new StringJoiner(", ", "(", ")");
+        for (YearMonth month : months) {
+            LocalDate end = month.plusMonths(1).atDay(1);
+            joiner.add("PARTITION " + PARTITION_NAME.format(month) + " VALUES LESS THAN ('" + end + " 00:00:00')");
+        }
+        joiner.add("PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+        return joiner.toString();
+    }
+
+    private static List<YearMonth> months(YearMonth first, YearMonth last) {
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        return months;
+    }
+
+    private boolean isMysql() {
+        if (mysql == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            mysql = "MySQL".equalsIgnoreCase(product);
+        }
+        return mysql;
+    }
+
+}
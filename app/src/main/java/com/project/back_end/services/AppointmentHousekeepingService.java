@@ -0,0 +1,156 @@
+package com.project.back_end.services;
+
+import com.project.back_end.cache.CacheInvalidationBus;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.CacheInvalidation;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import com.project.back_end.repo.DailyAppointmentReportRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+// nightly housekeeping of the appointment table (`clinic.appointments.housekeeping.cron`):
+//  1. appointments still scheduled `complete-after` after their start become completed (the doctor entered a result)
+//     or no-show (no result) - so the "scheduled" lists of the patients only hold what is still ahead
+//  2. appointments older than `retention` are moved into appointment_archive (same id), the hot table stays small;
+//     the monthly partitions of the archive for them are created before (AppointmentArchivePartitions)
+// Both steps work in chunks of `chunk-size` ids, every chunk in its own short transaction (bulk UPDATE / INSERT ... SELECT
+// + DELETE by id): a booking waits for one chunk at most, and a failure keeps the chunks done before.
+// Runs on the nodes with `enabled` (one is enough; on several the status updates are idempotent and a chunk
+// archived twice fails on the primary key of the archive)
+@Service
+public class AppointmentHousekeepingService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final AppointmentArchivePartitions archivePartitions;
+    private final DailyAppointmentReportRepository reportRepository;
+    private final DailyReportService dailyReportService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final Duration completeAfter;
+    private final Duration retention;
+
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    private final Logger log = LoggerFactory.getLogger( getClass() );
+
+    @Autowired
+    public AppointmentHousekeepingService(AppointmentRepository appointmentRepository,
+                                          ArchivedAppointmentRepository archivedAppointmentRepository,
+                                          AppointmentArchivePartitions archivePartitions,
+                                          DailyAppointmentReportRepository reportRepository,
+                                          DailyReportService dailyReportService,
+                                          CacheInvalidationBus cacheInvalidationBus,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${clinic.appointments.housekeeping.enabled:true}") boolean enabled,
+                                          @Value("${clinic.appointments.housekeeping.chunk-size:500}") int chunkSize,
+                                          @Value("${clinic.appointments.housekeeping.complete-after:2h}") Duration completeAfter,
+                                          @Value("${clinic.appointments.housekeeping.retention:365d}") Duration retention) {
+        this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.archivePartitions = archivePartitions;
+        this.reportRepository = reportRepository;
+        this.dailyReportService = dailyReportService;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.completeAfter = completeAfter;
+        this.retention = retention;
+    }
+
+    @Scheduled(cron = "${clinic.appointments.housekeeping.cron:0 30 2 * * *}")
+    public void scheduledRun() {
+        if (enabled) {
+            run(LocalDateTime.now());
+        }
+    }
+
+    // {"completed", "noShows", "archived"}, empty if a run is in progress
+    public Map<String, Integer> run(LocalDateTime now) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        if (!runLock.tryLock()) {
+            log.info("appointment housekeeping already running");
+            return result;
+        }
+        try {
+            LocalDateTime pastBefore = now.minus(completeAfter);
+            result.put("completed", inChunks(
+                    limit -> appointmentRepository.findIdsOfPastScheduledWithResult(pastBefore, limit),
+                    ids -> setStatus(ids, Appointment.STATUS_COMPLETED)));
+            result.put("noShows", inChunks(
+                    limit -> appointmentRepository.findIdsOfPastScheduledWithoutResult(pastBefore, limit),
+                    ids -> setStatus(ids, Appointment.STATUS_NO_SHOW)));
+            LocalDateTime archiveBefore = now.minus(retention);
+            try {
+                archivePartitions.maintain(archiveBefore);
+            } catch (RuntimeException e) {
+                // archiving still works, the rows end up in the partition pmax
+                log.warn("maintaining the partitions of appointment_archive failed: {}", e.getMessage());
+            }
+            result.put("archived", inChunks(
+                    limit -> appointmentRepository.findIdsByAppointmentTimeBefore(archiveBefore, limit),
+                    ids -> archive(ids, now)));
+            log.info("appointment housekeeping done: {}", result);
+
+            if (result.values().stream().anyMatch(count -> count > 0)) {
+                // the report of today holds statuses, on this node and the others
+                dailyReportService.invalidateToday();
+                cacheInvalidationBus.broadcast(CacheInvalidation.Region.APPOINTMENT, null);
+            }
+            return result;
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private record Chunk(int size, int changed) {
+    }
+
+    // reads the next chunk of ids and processes it in one transaction until a chunk is not full, returns the rows changed
+    private int inChunks(Function<Limit, List<Long>> nextChunk, Function<List<Long>, Integer> process) {
+        int total = 0;
+        Chunk chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> {
+                List<Long> ids = nextChunk.apply(Limit.of(chunkSize));
+                return new Chunk(ids.size(), ids.isEmpty() ? 0 : process.apply(ids));
+            });
+            total += chunk.changed();
+            // a full chunk without changes (changed meanwhile) ends the step as well: no endless loop on the same ids
+        } while (chunk.size() == chunkSize && chunk.changed() > 0);
+        return total;
+    }
+
+    private int setStatus(List<Long> ids, int status) {
+        int updated = appointmentRepository.updateScheduledStatus(ids, status);
+        reportRepository.updateScheduledStatus(ids, status);
+        return updated;
+    }
+
+    private int archive(List<Long> ids, LocalDateTime now) {
+        archivedAppointmentRepository.copyFromAppointments(ids, now);
+        return appointmentRepository.deleteByIds(ids);
+    }
+
+}
@@ -1,8 +1,10 @@
 package com.project.back_end.services;
 
+import com.project.back_end.events.AppointmentChangedEvent;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Doctor;
 import com.project.back_end.models.Patient;
+import com.project.back_end.monitoring.jfr.AppointmentBookingEvent;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
@@ -11,6 +13,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -37,6 +40,7 @@ public class AppointmentService {
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
     private final TokenService tokenService;    // private final @Lazy TokenService tokenService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private final Logger log = LoggerFactory.getLogger( getClass() );
 
@@ -45,11 +49,13 @@ public class AppointmentService {
 //    - These dependencies should be injected through the constructor.
 //    - Instruction: Ensure constructor injection is used for proper dependency management in Spring.
     @Autowired
-    public AppointmentService(AppointmentRepository appointmentRepository, PatientRepository patientRepository, DoctorRepository doctorRepository, TokenService tokenService) {
+    public AppointmentService(AppointmentRepository appointmentRepository, PatientRepository patientRepository, DoctorRepository doctorRepository, TokenService tokenService,
+                              ApplicationEventPublisher eventPublisher) {
         this.appointmentRepository = appointmentRepository;
         this.patientRepository = patientRepository;
         this.doctorRepository = doctorRepository;
         this.tokenService = tokenService;
+        this.eventPublisher = eventPublisher;
     }
 
 // 3. **Add @Transactional Annotation for Methods that Modify Database**:
@@ -62,30 +68,44 @@ public class AppointmentService {
 //    - Instruction: Ensure that the method handles any exceptions and returns an appropriate result code.
     @Transactional
     public int bookAppointment(Appointment appointment) {
+        AppointmentBookingEvent jfrEvent = new AppointmentBookingEvent();
+        jfrEvent.begin();
         try {
             // Validate patient exists
             Optional<Patient> patient = patientRepository.findById(appointment.getPatient().getId());
             if (patient.isEmpty()) {
+                jfrEvent.outcome = AppointmentBookingEvent.PATIENT_NOT_FOUND;
                 return 0; // Patient not found
             }
+            jfrEvent.patientId = patient.get().getId();
 
             // Validate doctor exists and is available
             Optional<Doctor> doctor = doctorRepository.findById(appointment.getDoctor().getId());
-            if (doctor.isEmpty()) {
-                return 0; // Doctor not found
+            if (doctor.isEmpty() || doctor.get().isDeleted()) {
+                jfrEvent.outcome = AppointmentBookingEvent.DOCTOR_NOT_FOUND;
+                return 0; // Doctor not found (or being deleted)
             }
+            jfrEvent.doctorId = doctor.get().getId();
 
             // Check if doctor is available at the requested time
             if (appointmentRepository.existsByDoctorIdAndAppointmentTime(
                 appointment.getDoctor().getId(), appointment.getAppointmentTime())) {
+                jfrEvent.outcome = AppointmentBookingEvent.SLOT_TAKEN;
                 return 0; // Time slot already booked
             }
 
-            appointmentRepository.save(appointment);
+            Appointment saved = appointmentRepository.save(appointment);
+            eventPublisher.publishEvent(AppointmentChangedEvent.booked(saved.getId(), doctor.get().getId(), patient.get().getId(),
+                    saved.getAppointmentTime(), saved.getStatus()));
+            jfrEvent.outcome = AppointmentBookingEvent.BOOKED;
             return 1;
         } catch (Exception e) {
             log.error(Arrays.toString(e.getStackTrace()));
+            jfrEvent.outcome = AppointmentBookingEvent.ERROR;
             return 0;
+        } finally {
+            // note: without the commit of the transaction, which follows when the method returns
+            jfrEvent.commit();
         }
     }
 
@@ -124,11 +144,14 @@ public class AppointmentService {
 
         try {
             // update appointment
+            LocalDateTime previousTime = existing.getAppointmentTime();
             existing.setAppointmentTime(appointment.getAppointmentTime());
             existing.setStatus(appointment.getStatus());
             existing.setReason(appointment.getReason());
             // existing.setNotes(appointment.getNotes());
             appointmentRepository.save(existing);
+            eventPublisher.publishEvent(AppointmentChangedEvent.updated(existing.getId(), existing.getDoctor().getId(), existing.getPatient().getId(),
+                    previousTime, existing.getAppointmentTime(), existing.getStatus()));
 
             response.put("success", "Appointment updated successfully");
             return ResponseEntity.ok(response);
@@ -164,6 +187,8 @@ public class AppointmentService {
 
         try {
             appointmentRepository.delete(existing);
+            eventPublisher.publishEvent(AppointmentChangedEvent.cancelled(existing.getId(), existing.getDoctor().getId(), existing.getPatient().getId(),
+                    existing.getAppointmentTime(), existing.getStatus()));
 
             response.put("success", "Appointment cancelled successfully");
             return ResponseEntity.ok(response);
@@ -177,7 +202,8 @@ public class AppointmentService {
 //    - This method retrieves a list of appointments for a specific doctor on a particular day, optionally filtered by the patient's name.
 //    - It uses `@Transactional` to ensure that database operations are consistent and handled in a single transaction.
 //    - Instruction: Ensure the correct use of transaction boundaries, especially when querying the database for appointments.
-    @Transactional
+//    - read-only: Hibernate keeps no snapshots of the loaded appointments for dirty checking and doesn't flush at the end
+    @Transactional(readOnly = true)
     public Map<String, Object> getAppointment(String patientName, LocalDate date, String token) {
         Map<String, Object> result = new HashMap<>();
 
@@ -214,6 +240,8 @@ public class AppointmentService {
         optionalExisting.ifPresent(appointment -> {
             appointment.setStatus(status);
             appointmentRepository.save(appointment);
+            eventPublisher.publishEvent(AppointmentChangedEvent.updated(appointment.getId(), appointment.getDoctor().getId(), appointment.getPatient().getId(),
+                    appointment.getAppointmentTime(), appointment.getAppointmentTime(), status));
         });
     }
 
@@ -0,0 +1,94 @@
+package com.project.back_end.services;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// minimal CSV reader (RFC 4180) for the imports: fields separated by `,`, optionally quoted with `"` (quotes doubled
+// inside, may contain `,` and line breaks), records separated by CRLF or LF. Reads one record at a time, the
+// file is never held in memory as a whole
+public class CsvReader implements AutoCloseable {
+
+    private final Reader reader;
+    private int record;
+    private int pushedBack = -2; // -2 : none
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    // the fields of the next record, null at the end; empty lines are skipped
+    public List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+        while ((c = read()) != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(following);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                any = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                any = true;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        unread(following);
+                    }
+                }
+                if (any || field.length() > 0) {
+                    break;
+                }
+            } else {
+                field.append((char) c);
+                any = true;
+            }
+        }
+        if (!any && field.length() == 0) {
+            return null;
+        }
+        fields.add(field.toString());
+        record++;
+        return fields;
+    }
+
+    // number of the record returned last (1: the first one, e.g. the header)
+    public int getRecord() {
+        return record;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+}
@@ -0,0 +1,187 @@
+package com.project.back_end.services;
+
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.events.CacheInvalidationEvent;
+import com.project.back_end.events.DoctorUpdatedEvent;
+import com.project.back_end.models.CacheInvalidation;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.DailyAppointmentReportEntry;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DailyAppointmentReportRepository;
+import com.project.back_end.repo.DoctorRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// materialized daily appointment report (replacement of the stored procedure GetDailyAppointmentReportByDoctor).
+// - every booking / update / cancellation updates the table daily_appointment_report in the transaction of the change
+// - the report of today is additionally held in memory (updated after commit), past days are read from the table
+// - the copies of the doctor's name follow an update of the doctor (DoctorUpdatedEvent; on the other nodes today's
+//   report is reloaded on the DOCTOR invalidation). Patients can't be changed once registered, so their copies stay valid
+@Service
+public class DailyReportService {
+
+    private static final Comparator<DailyAppointmentReportEntry> REPORT_ORDER =
+            Comparator.comparing(DailyAppointmentReportEntry::getDoctorName, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(DailyAppointmentReportEntry::getAppointmentTime);
+
+    private final DailyAppointmentReportRepository reportRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorRepository doctorRepository;
+
+    // report of today : appointment id -> entry
+    private volatile LocalDate todayDate;
+    private volatile Map<Long, DailyAppointmentReportEntry> todayEntries = new ConcurrentHashMap<>();
+    private final ReentrantLock todayLock = new ReentrantLock();
+
+    private final Logger log = LoggerFactory.getLogger( getClass() );
+
+    @Autowired
+    public DailyReportService(DailyAppointmentReportRepository reportRepository, AppointmentRepository appointmentRepository,
+                              DoctorRepository doctorRepository) {
+        this.reportRepository = reportRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.doctorRepository = doctorRepository;
+    }
+
+    @EventListener
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (event.getType() == AppointmentChangedEvent.Type.CANCELLED) {
+            reportRepository.deleteById(event.getAppointmentId());
+            afterCommit(() -> removeFromToday(event.getAppointmentId()));
+            return;
+        }
+        // the appointment is already in the persistence context of the current transaction : no additional select
+        Optional<Appointment> appointment = appointmentRepository.findById(event.getAppointmentId());
+        if (appointment.isEmpty()) {
+            return;
+        }
+        DailyAppointmentReportEntry entry = reportRepository.save(new DailyAppointmentReportEntry(appointment.get()));
+        afterCommit(() -> putIntoToday(entry));
+    }
+
+    @EventListener
+    @Transactional
+    public void onDoctorUpdated(DoctorUpdatedEvent event) {
+        doctorRepository.findById(event.getDoctorId()).ifPresent(doctor -> {
+            int updated = reportRepository.updateDoctorName(doctor.getId(), doctor.getName());
+            if (updated > 0) {
+                afterCommit(this::invalidateToday);
+            }
+        });
+    }
+
+    // appointment or doctor changed on another node (CacheInvalidationBus): today's report is reloaded from the table
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (event.getRegion() == CacheInvalidation.Region.APPOINTMENT || event.getRegion() == CacheInvalidation.Region.DOCTOR) {
+            invalidateToday();
+        }
+    }
+
+    // report of a day ordered by doctor name and appointment time
+    public List<DailyAppointmentReportEntry> getReport(LocalDate date) {
+        if (date.equals(LocalDate.now())) {
+            return currentTodayEntries().values().stream().sorted(REPORT_ORDER).toList();
+        }
+        return reportRepository.findByReportDateOrderByDoctorNameAscAppointmentTimeAsc(date);
+    }
+
+    // rebuilds the report of a day from the appointment table (e.g. for days before the report table existed)
+    @Transactional
+    public int rebuild(LocalDate date) {
+        reportRepository.deleteByReportDate(date);
+        List<DailyAppointmentReportEntry> entries = appointmentRepository
+                .findWithDoctorAndPatientByAppointmentTimeRange(date.atStartOfDay(), date.plusDays(1).atStartOfDay())
+                .stream()
+                .map(DailyAppointmentReportEntry::new)
+                .toList();
+        reportRepository.saveAll(entries);
+        if (date.equals(LocalDate.now())) {
+            afterCommit(this::invalidateToday);
+        }
+        log.info("daily report of {} rebuilt : {} entries", date, entries.size());
+        return entries.size();
+    }
+
+    private Map<Long, DailyAppointmentReportEntry> currentTodayEntries() {
+        LocalDate today = LocalDate.now();
+        if (today.equals(todayDate)) {
+            return todayEntries;
+        }
+        todayLock.lock();
+        try {
+            if (!today.equals(todayDate)) { // day changed (or first access) : load today's report from the table
+                Map<Long, DailyAppointmentReportEntry> entries = new ConcurrentHashMap<>();
+                reportRepository.findByReportDateOrderByDoctorNameAscAppointmentTimeAsc(today)
+                        .forEach(e -> entries.put(e.getAppointmentId(), e));
+                todayEntries = entries;
+                todayDate = today;
+            }
+            return todayEntries;
+        } finally {
+            todayLock.unlock();
+        }
+    }
+
+    private void putIntoToday(DailyAppointmentReportEntry entry) {
+        todayLock.lock();
+        try {
+            if (entry.getReportDate().equals(todayDate)) {
+                todayEntries.put(entry.getAppointmentId(), entry);
+            } else {
+                todayEntries.remove(entry.getAppointmentId()); // moved to another day
+            }
+        } finally {
+            todayLock.unlock();
+        }
+    }
+
+    private void removeFromToday(Long appointmentId) {
+        todayLock.lock();
+        try {
+            todayEntries.remove(appointmentId);
+        } finally {
+            todayLock.unlock();
+        }
+    }
+
+    // forces a reload of today's report on the next access
+    public void invalidateToday() {
+        todayLock.lock();
+        try {
+            todayDate = null;
+        } finally {
+            todayLock.unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.project.back_end.services;
+
+import com.project.back_end.config.DashboardExecutorConfig;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+// everything the doctor dashboard shows for one day in one response: the appointments (MySQL, with their patients)
+// and the prescriptions of these appointments (Mongo). Both sources are queried at the same time on the dashboard
+// executor, the prescriptions by the appointment ids (an index-only query) instead of waiting for the appointments:
+// the response takes as long as the slower source, not the sum of them.
+// Without Mongo the dashboard still shows the appointments ("prescriptionsAvailable": false).
+@Service
+public class DoctorDashboardService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final PrescriptionRepository prescriptionRepository;
+    private final TokenService tokenService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AsyncTaskExecutor executor;
+    private final Duration timeout;
+
+    private final Logger log = LoggerFactory.getLogger( getClass() );
+
+    @Autowired
+    public DoctorDashboardService(AppointmentRepository appointmentRepository,
+                                  PrescriptionRepository prescriptionRepository,
+                                  TokenService tokenService,
+                                  PlatformTransactionManager transactionManager,
+                                  @Qualifier(DashboardExecutorConfig.DASHBOARD_EXECUTOR) AsyncTaskExecutor executor,
+                                  @Value("${clinic.dashboard.timeout:5s}") Duration timeout) {
+        this.appointmentRepository = appointmentRepository;
+        this.prescriptionRepository = prescriptionRepository;
+        this.tokenService = tokenService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    // {"date", "appointments": [...], "prescriptions": {appointmentId: [...]}, "prescriptionsAvailable"}
+    public ResponseEntity<Map<String, Object>> getDashboard(String patientName, LocalDate date, String token) {
+        Map<String, Object> response = new HashMap<>();
+        Long doctorId = tokenService.getDoctorIdFromToken(token);
+        if (doctorId == null) {
+            response.put("error", "Invalid token or doctor not found");
+            return ResponseEntity.badRequest().body(response);
+        }
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = date.plusDays(1).atStartOfDay();
+
+        CompletableFuture<List<Appointment>> appointments;
+        CompletableFuture<Map<Long, List<Prescription>>> prescriptions;
+        try {
+            appointments = CompletableFuture.supplyAsync(() -> loadAppointments(doctorId, patientName, start, end), executor);
+            prescriptions = CompletableFuture.supplyAsync(() -> loadPrescriptions(doctorId, start, end), executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("dashboard of doctor {} rejected: executor saturated", doctorId);
+            response.put("error", "Dashboard temporarily unavailable");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE.value()).body(response); // SERVICE_UNAVAILABLE.value() : 503
+        }
+
+        try {
+            CompletableFuture.allOf(appointments, prescriptions.exceptionally(e -> null))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+            List<Appointment> dayAppointments = appointments.join();
+            Map<Long, List<Prescription>> dayPrescriptions = prescriptions.isCompletedExceptionally() ? null : prescriptions.join();
+            if (dayPrescriptions == null) {
+                log.warn("dashboard of doctor {} without prescriptions: {}", doctorId, failureOf(prescriptions));
+            }
+
+            response.put("date", date);
+            response.put("appointments", dayAppointments);
+            response.put("prescriptionsAvailable", dayPrescriptions != null);
+            response.put("prescriptions", dayPrescriptions == null ? Map.of() : prescriptionsOf(dayAppointments, dayPrescriptions));
+            return ResponseEntity.ok(response);
+        } catch (TimeoutException e) {
+            appointments.cancel(true);
+            prescriptions.cancel(true);
+            log.warn("dashboard of doctor {} not complete after {}", doctorId, timeout);
+            response.put("error", "Dashboard temporarily unavailable");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE.value()).body(response); // SERVICE_UNAVAILABLE.value() : 503
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.put("error", "Error loading dashboard");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR.value()).body(response); // INTERNAL_SERVER_ERROR.value() : 500
+        } catch (ExecutionException e) {
+            log.error("dashboard of doctor {} failed : {}", doctorId, e.getCause().getMessage(), e.getCause());
+            response.put("error", "Error loading dashboard");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR.value()).body(response); // INTERNAL_SERVER_ERROR.value() : 500
+        }
+    }
+
+    // the same selection as AppointmentService.getAppointment
+    private List<Appointment> loadAppointments(Long doctorId, String patientName, LocalDateTime start, LocalDateTime end) {
+        return readOnlyTransaction.execute(status -> patientName != null && !patientName.isEmpty()
+                ? appointmentRepository.findByDoctorIdAndPatientNameContainingIgnoreCaseAndAppointmentTimeBetween(doctorId, patientName, start, end)
+                : appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(doctorId, start, end));
+    }
+
+    // prescriptions of all appointments of the day by appointment id (the patient filter is applied when combining)
+    private Map<Long, List<Prescription>> loadPrescriptions(Long doctorId, LocalDateTime start, LocalDateTime end) {
+        List<Long> appointmentIds = appointmentRepository.findIdsByDoctorIdAndAppointmentTimeBetween(doctorId, start, end);
+        if (appointmentIds.isEmpty()) {
+            return Map.of();
+        }
+        return prescriptionRepository.findByAppointmentIdIn(appointmentIds).stream()
+                .collect(Collectors.groupingBy(Prescription::getAppointmentId));
+    }
+
+    private static Map<Long, List<Prescription>> prescriptionsOf(List<Appointment> appointments, Map<Long, List<Prescription>> prescriptions) {
+        Set<Long> shown = appointments.stream().map(Appointment::getId).collect(Collectors.toSet());
+        Map<Long, List<Prescription>> result = new LinkedHashMap<>();
+        prescriptions.forEach((appointmentId, ofAppointment) -> {
+            if (shown.contains(appointmentId)) {
+                result.put(appointmentId, ofAppointment);
+            }
+        });
+        return result;
+    }
+
+    private static String failureOf(CompletableFuture<?> future) {
+        try {
+            future.join();
+            return "";
+        } catch (RuntimeException e) {
+            return e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+        }
+    }
+
+}
@@ -0,0 +1,256 @@
+package com.project.back_end.services;
+
+import com.project.back_end.cache.CacheInvalidationBus;
+import com.project.back_end.config.DoctorDeletionConfig;
+import com.project.back_end.events.DoctorDeletedEvent;
+import com.project.back_end.models.CacheInvalidation;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import com.project.back_end.repo.DailyAppointmentReportRepository;
+import com.project.back_end.repo.DoctorRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// removal of a soft-deleted doctor (DoctorService.deleteDoctor) in the background, on the doctorDeletionExecutor:
+//  1. the past appointments are moved to appointment_archive (the patients keep their history, see PatientService);
+//     the monthly partitions of the archive up to now are created before (AppointmentArchivePartitions)
+//  2. the remaining (upcoming) appointments are deleted, with their rows of the daily report
+//  3. the doctor is deleted, together with the appointments booked meanwhile (only before the soft delete was visible)
+// The bulk deletes publish no AppointmentChangedEvent: today's daily report is reloaded at the end
+// in chunks of `clinic.doctors.deletion.chunk-size` appointments, every chunk in its own short transaction: the locks
+// on appointment are held for one chunk only, bookings of other doctors go on. Progress per doctor: getProgress.
+// A deletion interrupted (restart) or failed is continued by resume() every `resume-interval`, on every node
+// (the soft-deleted doctor is the persistent state; two nodes on the same doctor: one of them fails on the primary
+// key of the archive and retries later)
+@Service
+public class DoctorDeletionService {
+
+    public static final String RUNNING = "running";
+    public static final String COMPLETED = "completed";
+    public static final String FAILED = "failed";
+
+    // progress of the deletion of one doctor on this node
+    public static final class Progress {
+
+        private final Long doctorId;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicInteger archived = new AtomicInteger();
+        private final AtomicInteger deleted = new AtomicInteger();
+        private volatile String state = RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        Progress(Long doctorId) {
+            this.doctorId = doctorId;
+        }
+
+        public String getState() {
+            return state;
+        }
+
+        public int getArchived() {
+            return archived.get();
+        }
+
+        public int getDeleted() {
+            return deleted.get();
+        }
+
+        boolean isRunning() {
+            return RUNNING.equals(state);
+        }
+
+        void finish(String state, String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.state = state;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("doctorId", doctorId);
+            map.put("state", state);
+            map.put("archived", archived.get());
+            map.put("deleted", deleted.get());
+            map.put("startedAt", startedAt);
+            if (finishedAt != null) {
+                map.put("finishedAt", finishedAt);
+            }
+            if (error != null) {
+                map.put("error", error);
+            }
+            return map;
+        }
+    }
+
+    private final DoctorRepository doctorRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final AppointmentArchivePartitions archivePartitions;
+    private final DailyAppointmentReportRepository reportRepository;
+    private final DailyReportService dailyReportService;
+    private final CacheInvalidationBus invalidationBus;
+    private final TransactionTemplate transactionTemplate;
+    private final AsyncTaskExecutor executor;
+    private final int chunkSize;
+
+    private final Map<Long, Progress> deletions = new ConcurrentHashMap<>();
+
+    private final Logger log = LoggerFactory.getLogger( getClass() );
+
+    @Autowired
+    public DoctorDeletionService(DoctorRepository doctorRepository,
+                                 AppointmentRepository appointmentRepository,
+                                 ArchivedAppointmentRepository archivedAppointmentRepository,
+                                 AppointmentArchivePartitions archivePartitions,
+                                 DailyAppointmentReportRepository reportRepository,
+                                 DailyReportService dailyReportService,
+                                 CacheInvalidationBus invalidationBus,
+                                 PlatformTransactionManager transactionManager,
+                                 @Qualifier(DoctorDeletionConfig.DOCTOR_DELETION_EXECUTOR) AsyncTaskExecutor executor,
+                                 @Value("${clinic.doctors.deletion.chunk-size:500}") int chunkSize) {
+        this.doctorRepository = doctorRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.archivePartitions = archivePartitions;
+        this.reportRepository = reportRepository;
+        this.dailyReportService = dailyReportService;
+        this.invalidationBus = invalidationBus;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorDeleted(DoctorDeletedEvent event) {
+        start(event.getDoctorId());
+    }
+
+    @Scheduled(initialDelayString = "${clinic.doctors.deletion.resume-interval:10m}",
+            fixedDelayString = "${clinic.doctors.deletion.resume-interval:10m}")
+    public void resume() {
+        doctorRepository.findIdsOfDeleted().forEach(this::start);
+    }
+
+    // starts the deletion unless it is running already
+    public void start(Long doctorId) {
+        Progress progress = new Progress(doctorId);
+        Progress previous = deletions.compute(doctorId, (id, current) -> current != null && current.isRunning() ? current : progress);
+        if (previous != progress) {
+            return;
+        }
+        try {
+            executor.execute(() -> run(progress));
+        } catch (RejectedExecutionException e) {
+            progress.finish(FAILED, "rejected: " + e.getMessage());
+        }
+    }
+
+    // {"doctorId", "state", "archived", "deleted", "startedAt", "finishedAt", "error", "remaining"}, empty: neither
+    // a deletion of this doctor on this node nor a soft-deleted doctor with this id (never deleted, or completed
+    // on another node / before a restart)
+    public Optional<Map<String, Object>> getProgress(Long doctorId) {
+        Progress progress = deletions.get(doctorId);
+        Map<String, Object> result;
+        if (progress != null) {
+            result = progress.toMap();
+        } else {
+            Optional<Doctor> doctor = doctorRepository.findById(doctorId);
+            if (doctor.isEmpty() || !doctor.get().isDeleted()) {
+                return Optional.empty();
+            }
+            result = new LinkedHashMap<>();
+            result.put("doctorId", doctorId);
+            result.put("state", "pending");
+        }
+        if (!COMPLETED.equals(result.get("state"))) {
+            result.put("remaining", appointmentRepository.countByDoctorId(doctorId));
+        }
+        return Optional.of(result);
+    }
+
+    private void run(Progress progress) {
+        Long doctorId = progress.doctorId;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                // the archived appointments are recent ones: their months need partitions, not pmax
+                archivePartitions.maintain(now);
+            } catch (RuntimeException e) {
+                log.warn("maintaining the partitions of appointment_archive failed: {}", e.getMessage());
+            }
+            inChunks(limit -> appointmentRepository.findIdsByDoctorIdAndAppointmentTimeBefore(doctorId, now, limit), ids -> {
+                archivedAppointmentRepository.copyFromAppointments(ids, now);
+                appointmentRepository.deleteByIds(ids);
+            }, progress.archived);
+            inChunks(limit -> appointmentRepository.findIdsByDoctorId(doctorId, limit), ids -> {
+                reportRepository.deleteByAppointmentIds(ids);
+                appointmentRepository.deleteByIds(ids);
+            }, progress.deleted);
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> bookedMeanwhile = appointmentRepository.findIdsByDoctorId(doctorId, Limit.unlimited());
+                if (!bookedMeanwhile.isEmpty()) {
+                    reportRepository.deleteByAppointmentIds(bookedMeanwhile);
+                }
+                appointmentRepository.deleteAllByDoctorId(doctorId);
+                doctorRepository.deleteById(doctorId);
+            });
+            dailyReportService.invalidateToday();
+            invalidationBus.broadcast(CacheInvalidation.Region.DOCTOR, doctorId);
+            invalidationBus.broadcast(CacheInvalidation.Region.APPOINTMENT, doctorId);
+            progress.finish(COMPLETED, null);
+            log.info("doctor {} deleted: {} appointments archived, {} deleted", doctorId, progress.getArchived(), progress.getDeleted());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.finish(FAILED, "interrupted");
+        } catch (RuntimeException e) {
+            log.error("deleting doctor {} failed: {}", doctorId, e.getMessage());
+            progress.finish(FAILED, e.getMessage());
+        }
+    }
+
+    // processes the ids of nextChunk in transactions of at most chunkSize ids until a chunk is not full, counts the
+    // ids of the committed chunks
+    private void inChunks(Function<Limit, List<Long>> nextChunk, Consumer<List<Long>> processor, AtomicInteger committed)
+            throws InterruptedException {
+        int size;
+        do {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            size = transactionTemplate.execute(status -> {
+                List<Long> ids = nextChunk.apply(Limit.of(chunkSize));
+                if (!ids.isEmpty()) {
+                    processor.accept(ids);
+                }
+                return ids.size();
+            });
+            committed.addAndGet(size);
+        } while (size == chunkSize);
+    }
+
+}
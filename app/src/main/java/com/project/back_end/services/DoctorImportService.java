@@ -0,0 +1,263 @@
+package com.project.back_end.services;
+
+import com.project.back_end.cache.CacheInvalidationBus;
+import com.project.back_end.models.CacheInvalidation;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// bulk import of doctors from CSV (POST /doctor/import/{token}), for onboarding a whole hospital at once.
+// Header line with the column names (any order, case-insensitive): email, password, phone, name, specialty
+// and optionally academicDegree, medicalLicense, availableTimes (slots separated by `;`, e.g. "09:00-10:00;10:00-11:00").
+// The file is read record by record; every `clinic.doctors.import.batch-size` valid rows are written in one
+// transaction: one query for the emails already taken, one JDBC batch insert of the doctors (generated ids) and one of
+// their available times. A row is rejected (with its errors) when it fails the bean validation of Doctor or its email
+// is taken or repeated in the file; the other rows are imported.
+// (JDBC instead of save(): Hibernate can't batch inserts of IDENTITY ids, and saveDoctor does two round-trips per doctor)
+@Service
+public class DoctorImportService {
+
+    static final String INSERT_DOCTOR = "INSERT INTO doctor (email, password, phone, name, academic_degree, medical_license, specialty) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    static final String INSERT_AVAILABLE_TIME = "INSERT INTO doctor_available_times (doctor_id, available_times) VALUES (?, ?)";
+
+    static final List<String> REQUIRED_COLUMNS = List.of("email", "password", "phone", "name", "specialty");
+
+    private record Row(int record, Doctor doctor) {
+    }
+
+    private final DoctorRepository doctorRepository;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidationBus invalidationBus;
+    private final Cache secondLevelCache;
+    private final int batchSize;
+
+    private final Logger log = LoggerFactory.getLogger( getClass() );
+
+    @Autowired
+    public DoctorImportService(DoctorRepository doctorRepository,
+                               Validator validator,
+                               DataSource dataSource,
+                               PlatformTransactionManager transactionManager,
+                               CacheInvalidationBus invalidationBus,
+                               EntityManagerFactory entityManagerFactory,
+                               @Value("${clinic.doctors.import.batch-size:500}") int batchSize) {
+        this.doctorRepository = doctorRepository;
+        this.validator = validator;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.invalidationBus = invalidationBus;
+        this.secondLevelCache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.batchSize = batchSize;
+    }
+
+    // {"imported", "rejected", "errors": [{"row", "email", "errors": [...]}], "durationMs"}; "row": number of the
+    // record in the file (1: header). Throws IllegalArgumentException if the header lacks a required column
+    public Map<String, Object> importCsv(InputStream csv) throws IOException {
+        long start = System.nanoTime();
+        int imported = 0;
+        List<Map<String, Object>> errors = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8)))) {
+            Map<String, Integer> columns = columns(reader.next());
+
+            Set<String> emailsInFile = new HashSet<>();
+            List<Row> batch = new ArrayList<>(batchSize);
+            List<String> fields;
+            while ((fields = reader.next()) != null) {
+                Doctor doctor = toDoctor(fields, columns);
+                List<String> rowErrors = validate(doctor);
+                if (rowErrors.isEmpty() && !emailsInFile.add(doctor.getEmail().toLowerCase(Locale.ROOT))) {
+                    rowErrors = List.of("email: repeated in the file");
+                }
+                if (!rowErrors.isEmpty()) {
+                    errors.add(error(reader.getRecord(), doctor.getEmail(), rowErrors));
+                    continue;
+                }
+                batch.add(new Row(reader.getRecord(), doctor));
+                if (batch.size() == batchSize) {
+                    imported += insert(batch, errors);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                imported += insert(batch, errors);
+            }
+        } finally {
+            if (imported > 0) {
+                // the rows were written past Hibernate: cached "no doctor with this email" results are stale, here
+                // and on the other nodes
+                secondLevelCache.evictDefaultQueryRegion();
+                invalidationBus.broadcast(CacheInvalidation.Region.DOCTOR, null);
+            }
+        }
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("doctor import: {} imported, {} rejected in {} ms", imported, errors.size(), durationMs);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("imported", imported);
+        result.put("rejected", errors.size());
+        result.put("errors", errors);
+        result.put("durationMs", durationMs);
+        return result;
+    }
+
+    // column name (lower case) -> index
+    private static Map<String, Integer> columns(List<String> header) {
+        if (header == null) {
+            throw new IllegalArgumentException("empty file");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("missing columns: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private static Doctor toDoctor(List<String> fields, Map<String, Integer> columns) {
+        String availableTimes = field(fields, columns, "availabletimes");
+        return new Doctor(field(fields, columns, "email"), field(fields, columns, "password"), field(fields, columns, "phone"),
+                field(fields, columns, "name"), field(fields, columns, "academicdegree"), field(fields, columns, "medicallicense"),
+                field(fields, columns, "specialty"),
+                availableTimes == null ? List.of() : Arrays.stream(availableTimes.split(";"))
+                        .map(String::trim)
+                        .filter(slot -> !slot.isEmpty())
+                        .toList());
+    }
+
+    // trimmed value, null if the column or the value is missing
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private List<String> validate(Doctor doctor) {
+        return validator.validate(doctor).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    private static Map<String, Object> error(int record, String email, List<String> rowErrors) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("row", record);
+        error.put("email", email);
+        error.put("errors", rowErrors);
+        return error;
+    }
+
+    // inserts the doctors of the batch whose email isn't taken yet, returns the number inserted. A failing batch
+    // (e.g. an email taken meanwhile by another request) is rolled back and reported for each of its rows
+    private int insert(List<Row> batch, List<Map<String, Object>> errors) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Set<String> taken = new HashSet<>();
+                doctorRepository.findExistingEmails(batch.stream().map(row -> row.doctor().getEmail()).toList())
+                        .forEach(email -> taken.add(email.toLowerCase(Locale.ROOT)));
+                List<Row> rows = new ArrayList<>(batch.size());
+                for (Row row : batch) {
+                    if (taken.contains(row.doctor().getEmail().toLowerCase(Locale.ROOT))) {
+                        errors.add(error(row.record(), row.doctor().getEmail(), List.of("email: doctor already exists")));
+                    } else {
+                        rows.add(row);
+                    }
+                }
+                if (!rows.isEmpty()) {
+                    insertDoctors(rows);
+                }
+                return rows.size();
+            });
+        } catch (DataAccessException e) {
+            log.warn("doctor import: batch of {} rows failed: {}", batch.size(), e.getMessage());
+            // the rows rejected as duplicates before the failure stay reported, the others get the failure
+            Set<Integer> reported = new HashSet<>();
+            errors.forEach(error -> reported.add((Integer) error.get("row")));
+            batch.stream()
+                    .filter(row -> !reported.contains(row.record()))
+                    .forEach(row -> errors.add(error(row.record(), row.doctor().getEmail(), List.of("batch failed: " + e.getMostSpecificCause().getMessage()))));
+            return 0;
+        }
+    }
+
+    private void insertDoctors(List<Row> rows) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_DOCTOR, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Doctor doctor = rows.get(i).doctor();
+                        ps.setString(1, doctor.getEmail());
+                        ps.setString(2, doctor.getPassword());
+                        ps.setString(3, doctor.getPhone());
+                        ps.setString(4, doctor.getName());
+                        ps.setString(5, doctor.getAcademicDegree());
+                        ps.setString(6, doctor.getMedicalLicense());
+                        ps.setString(7, doctor.getSpecialty());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                }, keys);
+
+        // Object[] {doctorId, slot}
+        List<Object[]> availableTimes = new ArrayList<>();
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        for (int i = 0; i < rows.size(); i++) {
+            Number id = (Number) keyList.get(i).values().iterator().next();
+            for (String slot : rows.get(i).doctor().getAvailableTimes()) {
+                availableTimes.add(new Object[]{id.longValue(), slot});
+            }
+        }
+        if (!availableTimes.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_AVAILABLE_TIME, availableTimes);
+        }
+    }
+
+}
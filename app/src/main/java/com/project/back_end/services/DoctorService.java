@@ -1,18 +1,25 @@
 package com.project.back_end.services;
 
 import com.project.back_end.DTO.Login;
+import com.project.back_end.cache.CacheInvalidationBus;
+import com.project.back_end.events.DoctorDeletedEvent;
+import com.project.back_end.events.DoctorUpdatedEvent;
+import com.project.back_end.models.CacheInvalidation;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Doctor;
+import com.project.back_end.monitoring.jfr.DoctorAvailabilityEvent;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
 import io.micrometer.common.util.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 import java.util.Collections;
@@ -35,6 +42,8 @@ public class DoctorService {
     private final DoctorRepository doctorRepository;
     private final AppointmentRepository appointmentRepository;
     private final TokenService tokenService;
+    private final CacheInvalidationBus invalidationBus;
+    private final ApplicationEventPublisher eventPublisher;
 
 // 2. **Constructor Injection for Dependencies**:
 //    - The `DoctorService` class depends on `DoctorRepository`, `AppointmentRepository`, and `TokenService`.
@@ -43,35 +52,58 @@ public class DoctorService {
     @Autowired
     public DoctorService(DoctorRepository doctorRepository,
                          AppointmentRepository appointmentRepository,
-                         TokenService tokenService) {
+                         TokenService tokenService,
+                         CacheInvalidationBus invalidationBus,
+                         ApplicationEventPublisher eventPublisher) {
         this.doctorRepository = doctorRepository;
         this.appointmentRepository = appointmentRepository;
         this.tokenService = tokenService;
+        this.invalidationBus = invalidationBus;
+        this.eventPublisher = eventPublisher;
     }
 
 // 3. **Add @Transactional Annotation for Methods that Modify or Fetch Database Data**:
 //    - Methods like `getDoctorAvailability`, `getDoctors`, `findDoctorsByName`, `filterDoctorsBy*` should be annotated with `@Transactional`.
 //    - The `@Transactional` annotation ensures that database operations are consistent and wrapped in a single transaction.
 //    - Instruction: Add the `@Transactional` annotation above the methods that perform database operations or queries.
+//    - Methods which only read use `@Transactional(readOnly = true)`: Hibernate loads the entities read-only (no snapshots
+//      for dirty checking, no flush at commit) and, with replicas configured, the transaction runs on a replica.
 
 // 4. **getDoctorAvailability Method**:
 //    - Retrieves the available time slots for a specific doctor on a particular date and filters out already booked slots.
 //    - The method fetches all appointments for the doctor on the given date and calculates the availability by comparing against booked slots.
 //    - Instruction: Ensure that the time slots are properly formatted and the available slots are correctly filtered.
-    @Transactional
+    @Transactional(readOnly = true)
     public List<String> getDoctorAvailability(Long doctorId, LocalDate date) {
-        Optional<Doctor> optionalExisting = doctorRepository.findById(doctorId);
-        if (optionalExisting.isEmpty()) {
-            return Collections.emptyList();
+        DoctorAvailabilityEvent jfrEvent = new DoctorAvailabilityEvent();
+        jfrEvent.begin();
+        jfrEvent.doctorId = doctorId;
+        jfrEvent.date = date.toString();
+        try {
+            Optional<Doctor> optionalExisting = doctorRepository.findById(doctorId);
+            if (optionalExisting.isEmpty() || optionalExisting.get().isDeleted()) {
+                jfrEvent.outcome = DoctorAvailabilityEvent.DOCTOR_NOT_FOUND;
+                return Collections.emptyList();
+            }
+            Doctor doctor = optionalExisting.get();
+            final List<String> allTimeSlotsPerDay = doctor.getAvailableTimes();
+
+            List<Appointment> appointmentsBookedOnThisDay = appointmentRepository
+                    .findByDoctorIdAndAppointmentTimeBetween(doctorId,
+                            date.atStartOfDay(),
+                            date.plusDays(1).atStartOfDay()
+                    );
+            List<String> slots = availableSlots(allTimeSlotsPerDay, appointmentsBookedOnThisDay);
+            jfrEvent.availableSlots = slots.size();
+            jfrEvent.outcome = DoctorAvailabilityEvent.FOUND;
+            return slots;
+        } finally {
+            jfrEvent.commit();
         }
-        Doctor doctor = optionalExisting.get();
-        final List<String> allTimeSlotsPerDay = doctor.getAvailableTimes();
+    }
 
-        List<Appointment> appointmentsBookedOnThisDay = appointmentRepository
-                .findByDoctorIdAndAppointmentTimeBetween(doctorId,
-                        date.atStartOfDay(),
-                        date.plusDays(1).atStartOfDay()
-                );
+    // set difference of the doctor's time slots and the booked appointments, sorted (package-private for the benchmarks)
+    static List<String> availableSlots(List<String> allTimeSlotsPerDay, List<Appointment> appointmentsBookedOnThisDay) {
         //todo: consider non-1h-slots (e.g. longer than 1h) : regard duration of appointments
         Set<String> bookedTimeSlots = appointmentsBookedOnThisDay.stream()
                 .map(a -> a.getAppointmentTime().toLocalTime().toString())
@@ -94,7 +126,9 @@ public class DoctorService {
             if (doctorRepository.findByEmail(doctor.getEmail()) != null) {
                 return -1; // conflict: already exists
             }
-            doctorRepository.save(doctor);
+            Doctor saved = doctorRepository.save(doctor);
+            // other nodes may have cached "no doctor with this email" (query cache)
+            invalidationBus.broadcast(CacheInvalidation.Region.DOCTOR, saved.getId());
             return 1; // successfully saved
         } catch (Exception e) {
             return 0; // internal error
@@ -107,7 +141,7 @@ public class DoctorService {
     public int updateDoctor(Doctor doctor) {
         try {
             Optional<Doctor> optionalExisting = doctorRepository.findById(doctor.getId());
-            if (optionalExisting.isEmpty()) {
+            if (optionalExisting.isEmpty() || optionalExisting.get().isDeleted()) {
                 return -1; // conflict: not found
             }
             Doctor existing = optionalExisting.get();
@@ -121,6 +155,8 @@ public class DoctorService {
             existing.setAvailableTimes(doctor.getAvailableTimes());
 
             doctorRepository.save(doctor);
+            invalidationBus.broadcast(CacheInvalidation.Region.DOCTOR, doctor.getId());
+            eventPublisher.publishEvent(new DoctorUpdatedEvent(doctor.getId()));
             return 1; // successfully updated
         } catch (Exception e) {
             return 0; // internal error
@@ -130,16 +166,19 @@ public class DoctorService {
 // 7. **getDoctors Method**:
 //    - Fetches all doctors from the database. It is marked with `@Transactional` to ensure that the collection is properly loaded.
 //    - Instruction: Ensure that the collection is eagerly loaded, especially if dealing with lazy-loaded relationships (e.g., available times). 
-    @Transactional
+    @Transactional(readOnly = true)
     @EntityGraph(attributePaths = {"availableTimes"})
     public List<Doctor> getDoctors() {
-        return doctorRepository.findAll();
+        return doctorRepository.findAllActive();
     }
 
 // 8. **deleteDoctor Method**:
 //    - Deletes a doctor from the system along with all appointments associated with that doctor.
 //    - It first checks if the doctor exists. If not, it returns `-1`; otherwise, it deletes the doctor and their appointments.
 //    - Instruction: Ensure the doctor and their appointments are deleted properly, with error handling for internal issues.
+//    - Soft delete: only marks the doctor as deleted (a short update of one row), the appointments - possibly years of
+//      them - are archived / deleted in small batches by DoctorDeletionService after the commit, which then deletes the
+//      doctor; progress: DoctorDeletionService.getProgress (GET /doctor/deletion/{id}/{token})
     @Transactional
     public int deleteDoctor(long doctorId) {
         try {
@@ -147,8 +186,13 @@ public class DoctorService {
             if (optionalExist.isEmpty()) {
                 return -1; // conflict: not found
             }
-            appointmentRepository.deleteAllByDoctorId(doctorId);
-            doctorRepository.deleteById(doctorId);
+            Doctor doctor = optionalExist.get();
+            if (!doctor.isDeleted()) {
+                doctor.setDeletedAt(LocalDateTime.now());
+                invalidationBus.broadcast(CacheInvalidation.Region.DOCTOR, doctorId);
+            }
+            // deleted before: starts the removal again if it isn't running (e.g. failed)
+            eventPublisher.publishEvent(new DoctorDeletedEvent(doctorId));
             return 1; // successfully deleted
         } catch (Exception e) {
             return 0; // internal error
@@ -162,7 +206,7 @@ public class DoctorService {
     public ResponseEntity<Map<String, String>> validateDoctor(Login login) {
         Map<String, String> response = new HashMap<>();
         Doctor doctor = doctorRepository.findByEmail(login.getIdentifier());
-        if (doctor == null || !doctor.getPassword().equals(login.getPassword())) {
+        if (doctor == null || doctor.isDeleted() || !doctor.getPassword().equals(login.getPassword())) {
             response.put("error", "Invalid credentials");
             return ResponseEntity.badRequest().body(response);
         }
@@ -177,7 +221,7 @@ public class DoctorService {
 //    - Instruction: Ensure that available times are eagerly loaded for the doctors. : use @EntityGraph(attributePaths = {"availableTimes"})
     // todo: maybe method should named as findDoctorsByName ?
     @EntityGraph(attributePaths = {"availableTimes"})
-    @Transactional
+    @Transactional(readOnly = true)
     public Map<String, Object> findDoctorByName(String name) {
         Map<String, Object> result = new HashMap<>();
         List<Doctor> doctors = doctorRepository.findByNameLike(name);
@@ -189,7 +233,7 @@ public class DoctorService {
 //    - Filters doctors based on their name, specialty, and availability during a specific time (AM/PM).
 //    - The method fetches doctors matching the name and specialty criteria, then filters them based on their availability during the specified time period.
 //    - Instruction: Ensure proper filtering based on both the name and specialty as well as the specified time period.
-    @Transactional
+    @Transactional(readOnly = true)
     public Map<String, Object> filterDoctorsByNameSpecialtyAndTime(String name, String specialty, String amOrPm) {
         List<Doctor> doctors = doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(name, specialty);
         Map<String, Object> result = new HashMap<>();
@@ -201,7 +245,8 @@ public class DoctorService {
 //    - Filters a list of doctors based on whether their available times match the specified time period (AM/PM).
 //    - This method processes a list of doctors and their available times to return those that fit the time criteria.
 //    - Instruction: Ensure that the time filtering logic correctly handles both AM and PM time slots and edge cases.
-private List<Doctor> filterDoctorsByTime(List<Doctor> doctors, String amOrPm) {
+// note: package-private for the benchmarks
+List<Doctor> filterDoctorsByTime(List<Doctor> doctors, String amOrPm) {
     return doctors.stream().filter(d -> {
         final List<String> availableTimeSlots = d.getAvailableTimes();
         if (availableTimeSlots == null) {
@@ -231,7 +276,7 @@ private List<Doctor> filterDoctorsByTime(List<Doctor> doctors, String amOrPm) {
 //    - Filters doctors based on their name and the specified time period (AM/PM).
 //    - Fetches doctors based on partial name matching and filters the results to include only those available during the specified time period.
 //    - Instruction: Ensure that the method correctly filters doctors based on the given name and time of day (AM/PM).
-@Transactional
+@Transactional(readOnly = true)
 public Map<String, Object> filterDoctorByNameAndTime(String name, String amOrPm) {
     List<Doctor> doctors = doctorRepository.findByNameLike(name);
     Map<String, Object> result = new HashMap<>();
@@ -243,7 +288,7 @@ public Map<String, Object> filterDoctorByNameAndTime(String name, String amOrPm)
 //    - Filters doctors by name and specialty.
 //    - It ensures that the resulting list of doctors matches both the name (case-insensitive) and the specified specialty.
 //    - Instruction: Ensure that both name and specialty are considered when filtering doctors.
-    @Transactional
+    @Transactional(readOnly = true)
     public Map<String, Object> filterDoctorByNameAndSpecialty(String name, String specialty) {
         List<Doctor> doctors = doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(name, specialty);
         Map<String, Object> result = new HashMap<>();
@@ -255,7 +300,7 @@ public Map<String, Object> filterDoctorByNameAndTime(String name, String amOrPm)
 //    - Filters doctors based on their specialty and availability during a specific time period (AM/PM).
 //    - Fetches doctors based on the specified specialty and filters them based on their available time slots for AM/PM.
 //    - Instruction: Ensure the time filtering is accurately applied based on the given specialty and time period (AM/PM).
-    @Transactional
+    @Transactional(readOnly = true)
     public Map<String, Object> filterDoctorByTimeAndSpecialty(String specialty, String amOrPm) {
         List<Doctor> doctors = doctorRepository.findBySpecialtyIgnoreCase(specialty);
         Map<String, Object> result = new HashMap<>();
@@ -267,7 +312,7 @@ public Map<String, Object> filterDoctorByNameAndTime(String name, String amOrPm)
 //    - Filters doctors based on their specialty.
 //    - This method fetches all doctors matching the specified specialty and returns them.
 //    - Instruction: Make sure the filtering logic works for case-insensitive specialty matching.
-    @Transactional
+    @Transactional(readOnly = true)
     public Map<String, Object> filterDoctorBySpecialty(String specialty) {
         List<Doctor> doctors = doctorRepository.findBySpecialtyIgnoreCase(specialty);
         Map<String, Object> result = new HashMap<>();
@@ -279,9 +324,9 @@ public Map<String, Object> filterDoctorByNameAndTime(String name, String amOrPm)
 //    - Filters all doctors based on their availability during a specific time period (AM/PM).
 //    - The method checks all doctors' available times and returns those available during the specified time period.
 //    - Instruction: Ensure proper filtering logic to handle AM/PM time periods.
-    @Transactional
+    @Transactional(readOnly = true)
     public Map<String, Object> filterDoctorsByTime(String amOrPm) {
-        List<Doctor> doctors = doctorRepository.findAll();
+        List<Doctor> doctors = doctorRepository.findAllActive();
         Map<String, Object> result = new HashMap<>();
         result.put("doctors", filterDoctorsByTime(doctors, amOrPm));
         return result;
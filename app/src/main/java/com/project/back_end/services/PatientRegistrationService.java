@@ -0,0 +1,187 @@
+package com.project.back_end.services;
+
+import com.project.back_end.cache.CacheInvalidationBus;
+import com.project.back_end.models.CacheInvalidation;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.PatientRepository;
+
+import jakarta.validation.Validator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// bulk registration of patients (POST /patient/bulk/{token}), e.g. when a partner clinic is onboarded. Instead of
+// validatePatient (findByEmailOrPhone) + createPatient (save, one IDENTITY insert) per patient:
+//  - bean validation of every patient, duplicates within the request (email case-insensitive, phone) are rejected
+//  - every `clinic.patients.registration.batch-size` patients: one query for the emails and phones already taken, then one
+//    JDBC batch insert, in one transaction (with rewriteBatchedStatements MySQL gets one multi-row INSERT and assigns
+//    the auto-increment ids itself - no round-trip per id)
+// The result reports the rejected patients by their index in the request and the throughput
+@Service
+public class PatientRegistrationService {
+
+    static final String INSERT_PATIENT = "INSERT INTO patient (email, password, phone, name, date_of_birth, address) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private record Row(int index, Patient patient) {
+    }
+
+    private final PatientRepository patientRepository;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidationBus invalidationBus;
+    private final int batchSize;
+
+    private final Logger log = LoggerFactory.getLogger( getClass() );
+
+    @Autowired
+    public PatientRegistrationService(PatientRepository patientRepository,
+                                      Validator validator,
+                                      DataSource dataSource,
+                                      PlatformTransactionManager transactionManager,
+                                      CacheInvalidationBus invalidationBus,
+                                      @Value("${clinic.patients.registration.batch-size:500}") int batchSize) {
+        this.patientRepository = patientRepository;
+        this.validator = validator;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.invalidationBus = invalidationBus;
+        this.batchSize = batchSize;
+    }
+
+    // {"registered", "rejected", "errors": [{"index", "email", "errors": [...]}], "durationMs", "patientsPerSecond"}
+    public Map<String, Object> register(List<Patient> patients) {
+        long start = System.nanoTime();
+        int registered = 0;
+        List<Map<String, Object>> errors = new ArrayList<>();
+
+        Set<String> emails = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        List<Row> batch = new ArrayList<>(Math.min(batchSize, patients.size()));
+        for (int i = 0; i < patients.size(); i++) {
+            Patient patient = patients.get(i);
+            List<String> rowErrors = validate(patient);
+            if (rowErrors.isEmpty()) {
+                rowErrors = new ArrayList<>();
+                if (!emails.add(patient.getEmail().toLowerCase(Locale.ROOT))) {
+                    rowErrors.add("email: repeated in the request");
+                }
+                if (!phones.add(patient.getPhone())) {
+                    rowErrors.add("phone: repeated in the request");
+                }
+            }
+            if (!rowErrors.isEmpty()) {
+                errors.add(error(i, patient == null ? null : patient.getEmail(), rowErrors));
+                continue;
+            }
+            batch.add(new Row(i, patient));
+            if (batch.size() == batchSize) {
+                registered += insert(batch, errors);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            registered += insert(batch, errors);
+        }
+        if (registered > 0) {
+            invalidationBus.broadcast(CacheInvalidation.Region.PATIENT, null);
+        }
+
+        long durationNanos = Math.max(1, System.nanoTime() - start);
+        long patientsPerSecond = registered * 1_000_000_000L / durationNanos;
+        log.info("bulk registration: {} patients registered, {} rejected in {} ms ({} patients/s)",
+                registered, errors.size(), durationNanos / 1_000_000, patientsPerSecond);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("registered", registered);
+        result.put("rejected", errors.size());
+        result.put("errors", errors);
+        result.put("durationMs", durationNanos / 1_000_000);
+        result.put("patientsPerSecond", patientsPerSecond);
+        return result;
+    }
+
+    private List<String> validate(Patient patient) {
+        if (patient == null) {
+            return List.of("patient missing");
+        }
+        return validator.validate(patient).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    private static Map<String, Object> error(int index, String email, List<String> rowErrors) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("index", index);
+        error.put("email", email);
+        error.put("errors", rowErrors);
+        return error;
+    }
+
+    // inserts the patients of the batch whose email and phone aren't taken, returns the number inserted. A failing
+    // batch (e.g. an email registered meanwhile by another request) is rolled back and reported for each of its rows
+    private int insert(List<Row> batch, List<Map<String, Object>> errors) {
+        List<Map<String, Object>> batchErrors = new ArrayList<>();
+        try {
+            int inserted = transactionTemplate.execute(status -> {
+                Set<String> takenEmails = new HashSet<>();
+                Set<String> takenPhones = new HashSet<>();
+                List<Object[]> taken = patientRepository.findEmailsAndPhones(
+                        batch.stream().map(row -> row.patient().getEmail()).toList(),
+                        batch.stream().map(row -> row.patient().getPhone()).toList());
+                for (Object[] emailAndPhone : taken) {
+                    takenEmails.add(((String) emailAndPhone[0]).toLowerCase(Locale.ROOT));
+                    takenPhones.add((String) emailAndPhone[1]);
+                }
+
+                List<Object[]> values = new ArrayList<>(batch.size());
+                for (Row row : batch) {
+                    Patient patient = row.patient();
+                    List<String> rowErrors = new ArrayList<>();
+                    if (takenEmails.contains(patient.getEmail().toLowerCase(Locale.ROOT))) {
+                        rowErrors.add("email: patient already exists");
+                    }
+                    if (takenPhones.contains(patient.getPhone())) {
+                        rowErrors.add("phone: patient already exists");
+                    }
+                    if (rowErrors.isEmpty()) {
+                        values.add(new Object[]{patient.getEmail(), patient.getPassword(), patient.getPhone(), patient.getName(),
+                                Date.valueOf(patient.getDateOfBirth()), patient.getAddress()});
+                    } else {
+                        batchErrors.add(error(row.index(), patient.getEmail(), rowErrors));
+                    }
+                }
+                if (!values.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_PATIENT, values);
+                }
+                return values.size();
+            });
+            errors.addAll(batchErrors);
+            return inserted;
+        } catch (DataAccessException e) {
+            log.warn("bulk registration: batch of {} patients failed: {}", batch.size(), e.getMessage());
+            batch.forEach(row -> errors.add(error(row.index(), row.patient().getEmail(),
+                    List.of("batch failed: " + e.getMostSpecificCause().getMessage()))));
+            return 0;
+        }
+    }
+
+}
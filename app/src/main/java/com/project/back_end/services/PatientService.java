@@ -1,25 +1,32 @@
 package com.project.back_end.services;
 
 import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.cache.CacheInvalidationBus;
+import com.project.back_end.models.CacheInvalidation;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
 import com.project.back_end.repo.PatientRepository;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 
 // 1. **Add @Service Annotation**:
@@ -32,7 +39,11 @@ public class PatientService {
 
     private final PatientRepository patientRepository;
     private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
     private final TokenService tokenService;
+    private final CacheInvalidationBus invalidationBus;
+    // how far back the history reaches into the archive (clinic.appointments.archive.history)
+    private final Duration archiveHistory;
 
     private final Logger log = LoggerFactory.getLogger( getClass() );
 
@@ -41,10 +52,16 @@ public class PatientService {
 //    - These dependencies are injected via the constructor to maintain good practices of dependency injection and testing.
 //    - Instruction: Ensure constructor injection is used for all the required dependencies.
     @Autowired
-    public PatientService(PatientRepository patientRepository, AppointmentRepository appointmentRepository, TokenService tokenService) {
+    public PatientService(PatientRepository patientRepository, AppointmentRepository appointmentRepository,
+                          ArchivedAppointmentRepository archivedAppointmentRepository, TokenService tokenService,
+                          CacheInvalidationBus invalidationBus,
+                          @Value("${clinic.appointments.archive.history:3650d}") Duration archiveHistory) {
         this.patientRepository = patientRepository;
         this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
         this.tokenService = tokenService;
+        this.invalidationBus = invalidationBus;
+        this.archiveHistory = archiveHistory;
     }
 
 // 3. **createPatient Method**:
@@ -53,7 +70,8 @@ public class PatientService {
 //    - Instruction: Ensure that error handling is done properly and exceptions are caught and logged appropriately.
     public int createPatient(Patient patient) {
         try {
-            patientRepository.save(patient);
+            Patient saved = patientRepository.save(patient);
+            invalidationBus.broadcast(CacheInvalidation.Region.PATIENT, saved.getId());
             return 1;
         } catch (Exception e) {
             log.error("createPatient failed {} : {} : {}", patient, e.getMessage(), Arrays.toString(e.getStackTrace()));
@@ -67,7 +85,7 @@ public class PatientService {
 //    - This method is marked as `@Transactional` to ensure database consistency during the transaction.
 //    - Instruction: Ensure that appointment data is properly converted into DTOs and the method handles errors gracefully.
 
-    @Transactional
+    @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> getPatientAppointment(Long id, String token) {
         Map<String, Object> response = new HashMap<>();
         try {
@@ -78,14 +96,14 @@ public class PatientService {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND.value()).body(response); // NOT_FOUND.value : 404
             }
             Long patientId = patient.getId();
-            if (patientId != id) {
+            // id is optional (null: take the patient of the token)
+            if (id != null && !id.equals(patientId)) {
                 response.put("error", "Patient mismatch");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).body(response); // UNAUTHORIZED.value : 401
             }
-            List<AppointmentDTO> appointments = appointmentRepository.findByPatientId(patientId)
-                    .stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            List<AppointmentDTO> appointments = withArchive(
+                    archivedAppointmentRepository.findHistory(patientId, archiveFrom()),
+                    appointmentRepository.findByPatientId(patientId));
             response.put("appointments", appointments);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -99,7 +117,7 @@ public class PatientService {
 //    - Retrieves appointments with a specific status (0 for future, 1 for past) for the patient.
 //    - Converts the appointments into `AppointmentDTO` and returns them in the response.
 //    - Instruction: Ensure the method correctly handles "past" and "future" conditions, and that invalid conditions are caught and returned as errors.
-    @Transactional
+    @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> filterByCondition(String condition, Long id) {
         Map<String, Object> response = new HashMap<>();
         try {
@@ -112,11 +130,10 @@ public class PatientService {
                 response.put("error", "Invalid condition");
                 return ResponseEntity.badRequest().body(response);
             }
-            List<AppointmentDTO> appointments = appointmentRepository
-                    .findByPatientIdAndStatusOrderByAppointmentTimeAsc(id, status)
-                    .stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            // past: completed appointments, the older ones in the archive
+            List<AppointmentDTO> appointments = withArchive(
+                    status == 1 ? archivedAppointmentRepository.findHistoryByStatus(id, status, archiveFrom()) : List.of(),
+                    appointmentRepository.findByPatientIdAndStatusOrderByAppointmentTimeAsc(id, status));
             response.put("appointments", appointments);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -129,15 +146,13 @@ public class PatientService {
 //    - Filters appointments for a patient based on the doctor's name.
 //    - It retrieves appointments where the doctor’s name matches the given value, and the patient ID matches the provided ID.
 //    - Instruction: Ensure that the method correctly filters by doctor's name and patient ID and handles any errors or invalid cases.
-    @Transactional
+    @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> filterByDoctor(String name, Long patientId) {
         Map<String, Object> response = new HashMap<>();
         try {
-            List<AppointmentDTO> appointments = appointmentRepository
-                    .filterByDoctorNameAndPatientId(name, patientId)
-                    .stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            List<AppointmentDTO> appointments = withArchive(
+                    archivedAppointmentRepository.findHistoryByDoctorName(patientId, name, archiveFrom()),
+                    appointmentRepository.filterByDoctorNameAndPatientId(name, patientId));
             response.put("appointments", appointments);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -151,7 +166,7 @@ public class PatientService {
 //    - This method combines filtering by doctor name and appointment status (past or future).
 //    - Converts the appointments into `AppointmentDTO` objects and returns them in the response.
 //    - Instruction: Ensure that the filter handles both doctor name and condition properly, and catches errors for invalid input.
-    @Transactional
+    @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> filterByDoctorAndCondition(String condition, String name, long patientId) {
         Map<String, Object> response = new HashMap<>();
         try {
@@ -164,11 +179,9 @@ public class PatientService {
                 response.put("error", "Invalid condition");
                 return ResponseEntity.badRequest().body(response);
             }
-            List<AppointmentDTO> appointments = appointmentRepository
-                    .filterByDoctorNameAndPatientIdAndStatus(name, patientId, status)
-                    .stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            List<AppointmentDTO> appointments = withArchive(
+                    status == 1 ? archivedAppointmentRepository.findHistoryByDoctorNameAndStatus(patientId, name, status, archiveFrom()) : List.of(),
+                    appointmentRepository.filterByDoctorNameAndPatientIdAndStatus(name, patientId, status));
             response.put("appointments", appointments);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -207,9 +220,25 @@ public class PatientService {
 //    - The service uses `AppointmentDTO` to transfer appointment-related data between layers. This ensures that sensitive or unnecessary data (e.g., password or private patient information) is not exposed in the response.
 //    - Instruction: Ensure that DTOs are used appropriately to limit the exposure of internal data and only send the relevant fields to the client.
 
+    // the appointments moved to appointment_archive together with the current ones, ordered by time: the history reads
+    // as one list. Mostly the archived ones are older (AppointmentHousekeepingService), but the past appointments of a
+    // deleted doctor are archived at once (DoctorDeletionService)
+    private List<AppointmentDTO> withArchive(List<AppointmentDTO> archived, List<Appointment> current) {
+        List<AppointmentDTO> appointments = new ArrayList<>(archived.size() + current.size());
+        appointments.addAll(archived);
+        current.stream().map(this::convertToDTO).forEach(appointments::add);
+        appointments.sort(Comparator.comparing(AppointmentDTO::getAppointmentTime)); // stable: ties keep their order
+        return appointments;
+    }
+
+    private LocalDateTime archiveFrom() {
+        return LocalDateTime.now().minus(archiveHistory);
+    }
+
     // todo: maybe move convertToDTO() to other file ?
 
-    private AppointmentDTO convertToDTO(Appointment appointment) {
+    // note: package-private for the benchmarks
+    AppointmentDTO convertToDTO(Appointment appointment) {
         return new AppointmentDTO(
                 appointment.getId(),
                 appointment.getDoctor().getId(),
@@ -1,12 +1,18 @@
 package com.project.back_end.services;
 
 import com.project.back_end.models.Prescription;
+import com.project.back_end.monitoring.jfr.PrescriptionSaveEvent;
+import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.PrescriptionRepository;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -25,7 +31,12 @@ import java.util.Map;
 @Service
 public class PrescriptionService {
 
+    public static final int HISTORY_PAGE_SIZE_DEFAULT = 20;
+    public static final int HISTORY_PAGE_SIZE_MAX = 100;
+
     private final PrescriptionRepository prescriptionRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final MongoTemplate mongoTemplate;
 
     private final Logger log = LoggerFactory.getLogger( getClass() );
 
@@ -34,8 +45,12 @@ public class PrescriptionService {
 //    - It is injected through the constructor, ensuring proper dependency management and enabling testing.
 //    - Instruction: Constructor injection is a good practice, ensuring that all necessary dependencies are available at the time of service initialization.
     @Autowired
-    public PrescriptionService(PrescriptionRepository prescriptionRepository) {
+    public PrescriptionService(PrescriptionRepository prescriptionRepository,
+                               AppointmentRepository appointmentRepository,
+                               MongoTemplate mongoTemplate) {
         this.prescriptionRepository = prescriptionRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.mongoTemplate = mongoTemplate;
     }
 
 // 3. **savePrescription Method**:
@@ -46,21 +61,31 @@ public class PrescriptionService {
 //    - Instruction: Handle errors by providing appropriate status codes and messages, ensuring that multiple prescriptions for the same appointment are not saved.
     public ResponseEntity<Map<String, String>> savePrescription(Prescription prescription) {
         Map<String, String> response = new HashMap<>();
+        PrescriptionSaveEvent jfrEvent = new PrescriptionSaveEvent();
+        jfrEvent.begin();
+        if (prescription.getAppointmentId() != null) {
+            jfrEvent.appointmentId = prescription.getAppointmentId();
+        }
         try {
             // check for already existing prescription for the same appointment
             List<Prescription> existing = prescriptionRepository.findByAppointmentId(prescription.getAppointmentId());
             if (!existing.isEmpty()) {
+                jfrEvent.outcome = PrescriptionSaveEvent.ALREADY_EXISTS;
                 response.put("message", "Prescription already exists for this appointment");
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST.value()).body(response); // BAD_REQUEST.value : 400
             }
             // save prescription
             prescriptionRepository.save(prescription);
+            jfrEvent.outcome = PrescriptionSaveEvent.SAVED;
             response.put("message", "Prescription saved");
             return ResponseEntity.status(HttpStatus.CREATED.value()).body(response); // CREATED.value : 201
         } catch (Exception e) {
             log.error(Arrays.toString(e.getStackTrace()));
+            jfrEvent.outcome = PrescriptionSaveEvent.ERROR;
             response.put("message", "Error saving prescription");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR.value()).body(response); // INTERNAL_SERVER_ERROR.value : 500
+        } finally {
+            jfrEvent.commit();
         }
     }
 
@@ -82,6 +107,45 @@ public class PrescriptionService {
         }
     }
 
+    // medication history of a patient: the appointment ids come from mysql, the prescriptions of all these appointments
+    // are read with one aggregation (newest first, paginated) instead of one request per appointment
+    public ResponseEntity<Map<String, Object>> getMedicationHistory(Long patientId, int page, int size) {
+        Map<String, Object> response = new HashMap<>();
+        if (page < 0 || size < 1) {
+            response.put("error", "Invalid page or size");
+            return ResponseEntity.badRequest().body(response);
+        }
+        int pageSize = Math.min(size, HISTORY_PAGE_SIZE_MAX);
+        try {
+            List<Long> appointmentIds = appointmentRepository.findIdsByPatientId(patientId);
+            List<Prescription> prescriptions = appointmentIds.isEmpty()
+                    ? List.of()
+                    : findPrescriptionsOfAppointments(appointmentIds, (long) page * pageSize, pageSize + 1);
+
+            // one more document than requested was read to know whether there is a next page
+            boolean hasMore = prescriptions.size() > pageSize;
+            response.put("prescriptions", hasMore ? prescriptions.subList(0, pageSize) : prescriptions);
+            response.put("page", page);
+            response.put("size", pageSize);
+            response.put("hasMore", hasMore);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("getMedicationHistory failed for patient {} : {} : {}", patientId, e.getMessage(), Arrays.toString(e.getStackTrace()));
+            response.put("error", "Error retrieving medication history");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR.value()).body(response); // INTERNAL_SERVER_ERROR.value : 500
+        }
+    }
+
+    private List<Prescription> findPrescriptionsOfAppointments(List<Long> appointmentIds, long skip, int limit) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("appointmentId").in(appointmentIds)),
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "prescriptionDate").and(Sort.by(Sort.Direction.DESC, "_id"))),
+                Aggregation.skip(skip),
+                Aggregation.limit(limit)
+        );
+        return mongoTemplate.aggregate(aggregation, Prescription.class, Prescription.class).getMappedResults();
+    }
+
 // 5. **Exception Handling and Error Responses**:
 //    - Both methods (`savePrescription` and `getPrescription`) contain try-catch blocks to handle exceptions that may occur during database interaction.
 //    - If an error occurs, the method logs the error and returns an HTTP `500 Internal Server Error` response with a corresponding error message.
@@ -0,0 +1,159 @@
+package com.project.back_end.services;
+
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.models.AppointmentDailyCount;
+import com.project.back_end.repo.AppointmentDailyCountMonthRepository;
+import com.project.back_end.repo.AppointmentDailyCountRepository;
+import com.project.back_end.repo.AppointmentRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// replaces the stored procedures GetDoctorWithMostPatientsByMonth / GetDoctorWithMostPatientsByYear:
+// instead of scanning the appointment table with MONTH()/YEAR() the reports are summed up from per doctor and day counters
+// (appointment_daily_count) which are maintained incrementally whenever an appointment is booked, moved or cancelled.
+// A month's counters are rebuilt (backfill) under the exclusive lock of the month (appointment_daily_count_month), the
+// increments hold it shared: a booking is either counted by the rebuild (committed before it) or incremented after
+// it (waits for it), never both nor neither.
+@Service
+public class ReportingService {
+
+    public static final int LEADERBOARD_SIZE_DEFAULT = 10;
+
+    private final AppointmentDailyCountRepository dailyCountRepository;
+    private final AppointmentDailyCountMonthRepository monthRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Logger log = LoggerFactory.getLogger( getClass() );
+
+    @Autowired
+    public ReportingService(AppointmentDailyCountRepository dailyCountRepository,
+                            AppointmentDailyCountMonthRepository monthRepository,
+                            AppointmentRepository appointmentRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.dailyCountRepository = dailyCountRepository;
+        this.monthRepository = monthRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // runs inside the transaction of the appointment change, so the counters are committed (or rolled back) together with it
+    @EventListener
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (!event.isTimeChanged()) {
+            return; // e.g. only status or reason changed
+        }
+        if (event.getPreviousTime() != null) {
+            LocalDate day = event.getPreviousTime().toLocalDate();
+            lockMonthShared(day);
+            dailyCountRepository.increment(event.getDoctorId(), day, -1);
+        }
+        if (event.getAppointmentTime() != null) {
+            LocalDate day = event.getAppointmentTime().toLocalDate();
+            lockMonthShared(day);
+            dailyCountRepository.increment(event.getDoctorId(), day, 1);
+        }
+    }
+
+    // waits while the month is being rebuilt; held until the commit of the appointment change
+    private void lockMonthShared(LocalDate day) {
+        LocalDate monthStart = day.withDayOfMonth(1);
+        if (monthRepository.lockShared(monthStart).isEmpty()) {
+            monthRepository.createIfMissing(monthStart);
+            monthRepository.lockShared(monthStart);
+        }
+    }
+
+    public List<Map<String, Object>> getTopDoctorsOfMonth(int year, int month, int limit) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return getTopDoctors(yearMonth.atDay(1), yearMonth.plusMonths(1).atDay(1), limit);
+    }
+
+    public List<Map<String, Object>> getTopDoctorsOfYear(int year, int limit) {
+        return getTopDoctors(LocalDate.of(year, 1, 1), LocalDate.of(year + 1, 1, 1), limit);
+    }
+
+    private List<Map<String, Object>> getTopDoctors(LocalDate from, LocalDate to, int limit) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Object[] row : dailyCountRepository.findTopDoctors(from, to, PageRequest.of(0, limit))) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("doctorId", row[0]);
+            entry.put("doctorName", row[1]);
+            entry.put("patientsSeen", row[2]);
+            result.add(entry);
+        }
+        return result;
+    }
+
+    // backfill job: rebuilds the counters of the given months from the appointment table.
+    // every month is processed in its own (short) transaction under the exclusive lock of the month, so bookings are only
+    // blocked for the month being rebuilt. The counts are read without locking the appointments: the bookings of the
+    // month still uncommitted wait for the lock and increment the rebuilt counters afterwards.
+    // from / to may be null : the range of the stored appointments is used.
+    public Map<String, Object> backfill(YearMonth from, YearMonth to) {
+        Map<String, Object> result = new HashMap<>();
+        if (from == null || to == null) {
+            LocalDateTime first = appointmentRepository.findFirstAppointmentTime();
+            LocalDateTime last = appointmentRepository.findLastAppointmentTime();
+            if (first == null || last == null) {
+                result.put("months", 0);
+                result.put("rows", 0);
+                return result;
+            }
+            from = (from != null ? from : YearMonth.from(first));
+            to = (to != null ? to : YearMonth.from(last));
+        }
+        if (from.isAfter(to)) {
+            result.put("error", "Invalid range: from is after to");
+            return result;
+        }
+
+        int months = 0;
+        long rows = 0;
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            LocalDate start = month.atDay(1);
+            LocalDate end = month.plusMonths(1).atDay(1);
+            Integer inserted = transactionTemplate.execute(status -> {
+                monthRepository.createIfMissing(start);
+                monthRepository.lockExclusive(start);
+                List<AppointmentDailyCount> counts = new ArrayList<>();
+                for (Object[] row : dailyCountRepository.countAppointments(start.atStartOfDay(), end.atStartOfDay())) {
+                    counts.add(new AppointmentDailyCount(((Number) row[0]).longValue(), toLocalDate(row[1]), ((Number) row[2]).longValue()));
+                }
+                dailyCountRepository.deleteByAppointmentDateRange(start, end);
+                dailyCountRepository.saveAll(counts);
+                return counts.size();
+            });
+            months++;
+            rows += (inserted != null ? inserted : 0);
+            log.debug("backfill of appointment_daily_count for {} : {} rows", month, inserted);
+        }
+        log.info("backfill of appointment_daily_count from {} to {} done : {} months, {} rows", from, to, months, rows);
+        result.put("months", months);
+        result.put("rows", rows);
+        return result;
+    }
+
+    // DATE column of a native query
+    private static LocalDate toLocalDate(Object date) {
+        return date instanceof java.sql.Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) date;
+    }
+
+}
@@ -123,8 +123,8 @@ public class ServiceClass {
                 return -1; // doctor not set
             }
             Optional<Doctor> doctorOpt = doctorRepository.findById(appointment.getDoctor().getId());
-            if (doctorOpt.isEmpty()) {
-                return -1; // doctor don't exist
+            if (doctorOpt.isEmpty() || doctorOpt.get().isDeleted()) {
+                return -1; // doctor don't exist (or is being deleted)
             }
 
             // extract time as String
@@ -2,6 +2,7 @@ package com.project.back_end.services;
 
 import com.project.back_end.models.Doctor;
 import com.project.back_end.models.Patient;
+import com.project.back_end.monitoring.jfr.TokenValidationEvent;
 import com.project.back_end.repo.AdminRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
@@ -35,10 +36,10 @@ public class TokenService {
 
     private final Logger log = LoggerFactory.getLogger( getClass() );
 
-    @Value("$(jwt.secret")
+    @Value("${jwt.secret}")
     private String jwtSecret;
 
-    @Value(value="$(jwt.expiration)")
+    @Value(value="${jwt.expiration}")
     private String jwtExpirationMs;
 
     // 2. **Constructor Injection for Dependencies**
@@ -112,16 +113,30 @@ public class TokenService {
 // This ensures secure access control based on the user's role and their existence in the system.
 
     public boolean validateToken(String token, String userRole) {
+        TokenValidationEvent jfrEvent = new TokenValidationEvent();
+        jfrEvent.begin();
+        jfrEvent.role = userRole;
         try {
             String identifier = extractIdentifier(token);
-            return switch (identifier) {
+            boolean valid = switch (userRole) {
                 case "admin" -> adminRepository.findByUsername(identifier) != null;
-                case "doctor" -> doctorRepository.findByEmail(identifier) != null;
+                case "doctor" -> {
+                    Doctor doctor = doctorRepository.findByEmail(identifier);
+                    if (doctor != null && doctor.getId() != null) {
+                        jfrEvent.doctorId = doctor.getId();
+                    }
+                    yield doctor != null && !doctor.isDeleted();
+                }
                 case "patient" -> patientRepository.findByEmail(identifier) != null;
                 default -> false;
             };
+            jfrEvent.outcome = valid ? TokenValidationEvent.VALID : TokenValidationEvent.UNKNOWN_USER;
+            return valid;
         } catch (Exception e) {
+            jfrEvent.outcome = TokenValidationEvent.INVALID_TOKEN;
             return false;
+        } finally {
+            jfrEvent.commit();
         }
     }
 
@@ -150,7 +165,7 @@ public class TokenService {
             return null;
         }
         Doctor doctor = doctorRepository.findByEmail(identifier);
-        return (doctor != null ? doctor.getId() : null);
+        return (doctor != null && !doctor.isDeleted() ? doctor.getId() : null);
     }
 
 
@@ -8,7 +8,7 @@
  * - showBookingOverlay() from '/js/loggedPatient.js' (NO)
  */
 
-import { deleteDoctor } from '/static/js/services/doctorServices.js';
+import { deleteDoctor, subscribeToAvailability } from '/static/js/services/doctorServices.js';
 import { getPatientData } from '/static/js/services/patientServices.js';
 // import { showBookingOverlay } from '/static/js/loggedPatient.js';
 import { bookAppointment } from '/static/js/services/appointmentRecordService.js';
@@ -221,12 +221,30 @@ function showBookingOverlay(e, doctor, patient) {
     document.body.appendChild(modalApp);
 
     document.getElementById('closeModal').onclick = () => {
+        availability?.close();
         modalApp.remove();
         ripple.remove();
     };
 
     setTimeout(() => modalApp.classList.add("active"), 600);
 
+    // live availability of the chosen date: taken slots can't be selected
+    let availability = null;
+    const timeSelect = modalApp.querySelector("#appointment-time");
+    const setSlotTaken = (time, taken) => Array.from(timeSelect.options)
+        .filter(option => option.value.startsWith(time))
+        .forEach(option => option.disabled = taken);
+    modalApp.querySelector("#appointment-date").addEventListener("change", event => {
+        availability?.close();
+        availability = subscribeToAvailability(doctor.id, event.target.value, localStorage.getItem("token"), {
+            snapshot: slots => Array.from(timeSelect.options)
+                .filter(option => option.value)
+                .forEach(option => option.disabled = !slots.includes(option.value)),
+            taken: time => setSlotTaken(time, true),
+            freed: time => setSlotTaken(time, false)
+        });
+    });
+
     modalApp.querySelector(".confirm-booking").addEventListener("click", async () => {
         const date = modalApp.querySelector("#appointment-date").value;
         const time = modalApp.querySelector("#appointment-time").value;
@@ -244,6 +262,7 @@ function showBookingOverlay(e, doctor, patient) {
 
         if (success) {
             alert("Appointment Booked successfully");
+            availability?.close();
             ripple.remove();
             modalApp.remove();
         } else {
@@ -1,6 +1,6 @@
 // doctorDashboard.js — Appointment management for doctors
 
-import { getAllAppointments } from "./services/appointmentRecordService.js";
+import { getDoctorDashboard, subscribeToSchedule } from "./services/appointmentRecordService.js";
 import { createPatientRow } from "./components/patientRecordRow.js";
 
 // === State Variables ===
@@ -41,7 +41,8 @@ if (datePicker) {
 // === Load Appointments Based on Date & Optional Name Filter ===
 async function loadAppointments() {
     try {
-        const appointments = await getAllAppointments(selectedDate, patientName, token);
+        const dashboard = await getDoctorDashboard(selectedDate, patientName, token);
+        const appointments = dashboard.appointments;
         tableBody.innerHTML = "";
 
         if (!appointments || appointments.length === 0) {
@@ -65,10 +66,21 @@ async function loadAppointments() {
     }
 }
 
+// === Live Schedule Changes: reload only when the selected day is concerned ===
+function concernsSelectedDate(change) {
+    return [change.previousTime, change.appointmentTime]
+        .some(time => time && time.startsWith(selectedDate));
+}
+
 // === Initialize Page on Load ===
 document.addEventListener("DOMContentLoaded", () => {
     renderContent(); // Injects header/footer layout
     loadAppointments(); // Loads today's appointments
+    subscribeToSchedule(token, (type, change) => {
+        if (type === "resync" || concernsSelectedDate(change)) {
+            loadAppointments();
+        }
+    });
 });
 
 /*
@@ -13,6 +13,26 @@ export async function getAllAppointments(date, patientName, token) {
   return await response.json();
 }
 
+// Doctor dashboard of one day in one request: { appointments, prescriptions (by appointment id), prescriptionsAvailable }
+export async function getDoctorDashboard(date, patientName, token) {
+  const response = await fetch(`${APPOINTMENT_API}/dashboard/${date}/${patientName}/${token}`);
+  if (!response.ok) {
+    throw new Error("Failed to fetch dashboard");
+  }
+
+  return await response.json();
+}
+
+// Live changes of the doctor's schedule (server-sent events "booked", "updated", "cancelled", "resync").
+// The browser reconnects by itself when the connection is closed.
+export function subscribeToSchedule(token, onChange) {
+  const source = new EventSource(`${APPOINTMENT_API}/stream/${token}`);
+  ["booked", "updated", "cancelled"].forEach(type =>
+    source.addEventListener(type, event => onChange(type, JSON.parse(event.data))));
+  source.addEventListener("resync", () => onChange("resync", null));
+  return source;
+}
+
 export async function bookAppointment(appointment, token) {
   try {
     const response = await fetch(`${APPOINTMENT_API}/${token}`, {
@@ -136,3 +136,22 @@ export async function filterDoctors(name = "", time = "", specialty = "") {
 
    Catch any other errors, alert the user, and return a default empty result
 */
+
+// === Live Availability of a Doctor on a Date (server-sent events) ===
+// handlers: snapshot(availableSlots), taken(time), freed(time) - time is the start of the slot ("HH:mm");
+// on "resync" (changed on another server) the connection is opened again and starts with a new snapshot
+export function subscribeToAvailability(doctorId, date, token, handlers) {
+    let source = null;
+    const open = () => {
+        source = new EventSource(`${API_BASE_URL}/doctor/availability/stream/patient/${doctorId}/${date}/${token}`);
+        source.addEventListener("snapshot", event => handlers.snapshot(JSON.parse(event.data).availableSlots));
+        source.addEventListener("taken", event => handlers.taken(JSON.parse(event.data).time));
+        source.addEventListener("freed", event => handlers.freed(JSON.parse(event.data).time));
+        source.addEventListener("resync", () => {
+            source.close();
+            open();
+        });
+    };
+    open();
+    return { close: () => source.close() };
+}
@@ -0,0 +1,74 @@
+package com.project.back_end.analytics;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.InstanceOfAssertFactories.list;
+
+// the snapshot holds the archived appointments as well, also those of a doctor deleted meanwhile
+@SpringBootTest(properties = {
+        "spring.jpa.properties.jakarta.persistence.validation.mode=none",
+        "spring.datasource.url=jdbc:h2:mem:analytics;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1"})
+@ActiveProfiles("test")
+class AnalyticsServiceTest {
+
+    private static final long DELETED_DOCTOR_ID = 900_001L;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void countsArchivedAppointmentsAndThoseOfDeletedDoctors() {
+        Doctor doctor = doctorRepository.save(new Doctor("analytics-doctor@example.com", "secret1", "5557000001", "Dr. Analytics",
+                "Dr.", "AN-1", "Cardiologist", List.of("09:00-10:00")));
+        Patient patient = patientRepository.save(new Patient("analytics-patient@example.com", "secret1", "5557000002",
+                "Analytics Patient", LocalDate.of(1980, 1, 1), "Main Street 7"));
+        LocalDateTime day = LocalDateTime.of(2024, 2, 3, 9, 0);
+        appointmentRepository.save(new Appointment(doctor, patient, day, Duration.ofMinutes(30), "checkup", "treated",
+                Appointment.STATUS_COMPLETED));
+        archive(800_001L, doctor.getId(), patient.getId(), day.minusDays(20), Appointment.STATUS_COMPLETED);
+        archive(800_002L, DELETED_DOCTOR_ID, patient.getId(), day.minusDays(10), Appointment.STATUS_NO_SHOW);
+        archive(800_003L, DELETED_DOCTOR_ID, patient.getId(), day.minusDays(5), Appointment.STATUS_COMPLETED);
+
+        analyticsService.refreshSnapshot();
+        Map<String, Object> statistics = analyticsService.getStatistics(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 1));
+
+        assertThat(statistics).containsEntry("appointments", 4L);
+        assertThat(statistics).extractingByKey("doctors", list(Map.class))
+                .extracting(d -> d.get("doctorId"), d -> d.get("doctorName"), d -> d.get("appointments"), d -> d.get("noShows"))
+                .containsExactlyInAnyOrder(
+                        tuple(doctor.getId(), "Dr. Analytics", 2L, 0L),
+                        tuple(DELETED_DOCTOR_ID, null, 2L, 1L));
+    }
+
+    private void archive(long id, long doctorId, long patientId, LocalDateTime time, int status) {
+        jdbcTemplate.update("INSERT INTO appointment_archive (id, doctor_id, patient_id, appointment_time, reason, status, archived_at) " +
+                "VALUES (?, ?, ?, ?, 'checkup', ?, ?)", id, doctorId, patientId, time, status, time.plusYears(1));
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.project.back_end.analytics;
+
+import com.project.back_end.models.Appointment;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the fork/join statistics against a plain sequential fold over the same snapshot, and the rules per appointment
+class AppointmentStatsTaskTest {
+
+    private static final int NOW = 1_000_000;
+    private static final int DOCTORS = 7;
+
+    @Test
+    void splitResultEqualsSequentialFold() {
+        // several leaves, the last one partial
+        int size = 3 * AppointmentStatsTask.LEAF_SIZE + 17;
+        Random random = new Random(4711);
+        AppointmentSnapshot.Builder builder = new AppointmentSnapshot.Builder();
+        int minute = NOW - size / 2;
+        for (int i = 0; i < size; i++) {
+            minute += random.nextInt(2); // ordered by time, some at the same minute
+            builder.add(random.nextInt(DOCTORS), minute, random.nextInt(4), 15 + random.nextInt(4) * 15);
+        }
+        AppointmentSnapshot snapshot = build(builder);
+        int from = 123;
+        int to = size - 45;
+
+        AppointmentStatsTask.Stats split = ForkJoinPool.commonPool().invoke(new AppointmentStatsTask(snapshot, from, to, NOW));
+        AppointmentStatsTask.Stats sequential = sequentialFold(snapshot, from, to, NOW);
+
+        assertThat(split.appointments).containsExactly(sequential.appointments);
+        assertThat(split.cancelled).containsExactly(sequential.cancelled);
+        assertThat(split.bookedMinutes).containsExactly(sequential.bookedMinutes);
+        assertThat(split.past).containsExactly(sequential.past);
+        assertThat(split.noShows).containsExactly(sequential.noShows);
+        assertThat(sum(split.appointments) + sum(split.cancelled)).isEqualTo(to - from);
+    }
+
+    @Test
+    void countsPastScheduledAndNoShowAppointmentsAsNoShows() {
+        AppointmentSnapshot.Builder builder = new AppointmentSnapshot.Builder();
+        builder.add(0, NOW - 60, Appointment.STATUS_SCHEDULED, 30); // past, never completed
+        builder.add(0, NOW - 50, Appointment.STATUS_NO_SHOW, 30);
+        builder.add(0, NOW - 40, Appointment.STATUS_COMPLETED, 30);
+        builder.add(0, NOW - 30, Appointment.STATUS_CANCELLED, 30); // neither booked nor past
+        builder.add(1, NOW - 20, Appointment.STATUS_COMPLETED, 45);
+        builder.add(0, NOW, Appointment.STATUS_SCHEDULED, 60); // not past yet
+        builder.add(1, NOW + 60, Appointment.STATUS_SCHEDULED, 60);
+        AppointmentSnapshot snapshot = build(builder);
+
+        AppointmentStatsTask.Stats stats = ForkJoinPool.commonPool().invoke(new AppointmentStatsTask(snapshot, 0, snapshot.size(), NOW));
+
+        assertThat(stats.appointments).startsWith(4, 2);
+        assertThat(stats.cancelled).startsWith(1, 0);
+        assertThat(stats.bookedMinutes).startsWith(150, 105);
+        assertThat(stats.past).startsWith(3, 1);
+        assertThat(stats.noShows).startsWith(2, 0);
+    }
+
+    private static AppointmentSnapshot build(AppointmentSnapshot.Builder builder) {
+        long[] doctorIds = new long[DOCTORS];
+        String[] doctorNames = new String[DOCTORS];
+        for (int d = 0; d < DOCTORS; d++) {
+            doctorIds[d] = 100 + d;
+            doctorNames[d] = "Dr. " + d;
+        }
+        return builder.build(doctorIds, doctorNames, new int[DOCTORS], new int[DOCTORS], new String[]{"Cardiologist"});
+    }
+
+    // one loop over the rows, written independently of the task
+    private static AppointmentStatsTask.Stats sequentialFold(AppointmentSnapshot snapshot, int from, int to, int now) {
+        AppointmentStatsTask.Stats stats = new AppointmentStatsTask.Stats(snapshot.doctorCount());
+        for (int i = from; i < to; i++) {
+            int doctor = snapshot.doctorIndex[i];
+            int status = snapshot.status[i];
+            boolean cancelled = status == Appointment.STATUS_CANCELLED;
+            boolean past = !cancelled && snapshot.epochMinute[i] < now;
+            stats.cancelled[doctor] += cancelled ? 1 : 0;
+            stats.appointments[doctor] += cancelled ? 0 : 1;
+            stats.bookedMinutes[doctor] += cancelled ? 0 : snapshot.durationMinutes[i];
+            stats.past[doctor] += past ? 1 : 0;
+            stats.noShows[doctor] += past && status != Appointment.STATUS_COMPLETED ? 1 : 0;
+        }
+        return stats;
+    }
+
+    private static long sum(long[] values) {
+        long sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+}
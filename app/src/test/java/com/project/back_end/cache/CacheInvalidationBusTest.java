@@ -0,0 +1,90 @@
+package com.project.back_end.cache;
+
+import com.project.back_end.BackEndApplication;
+import com.project.back_end.models.CacheInvalidation;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.CacheInvalidationRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.services.DoctorService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// two nodes (application contexts) in one JVM on one in-memory database, each with its own second-level cache:
+// a change made on one node reaches the cache of the other with its next poll
+class CacheInvalidationBusTest {
+
+    private static final String EMAIL = "invalidation-doctor@example.com";
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(BackEndApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.jpa.properties.jakarta.persistence.validation.mode=none",
+                        "--spring.datasource.url=jdbc:h2:mem:invalidation;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                        // both nodes start on the same database: the second must not drop the tables of the first
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--clinic.cache.invalidation.enabled=true",
+                        // polled by the test
+                        "--clinic.cache.invalidation.poll-interval=1h");
+    }
+
+    @Test
+    void changeOnOneNodeEvictsTheCacheOfTheOther() {
+        DoctorService doctorServiceA = nodeA.getBean(DoctorService.class);
+        DoctorRepository doctorsA = nodeA.getBean(DoctorRepository.class);
+        DoctorRepository doctorsB = nodeB.getBean(DoctorRepository.class);
+        CacheInvalidationBus busB = nodeB.getBean(CacheInvalidationBus.class);
+
+        assertThat(doctorServiceA.saveDoctor(new Doctor(EMAIL, "secret1", "5554000000", "Dr. Invalidation", "Dr.", "CI-1",
+                "Neurologist", List.of("09:00-10:00")))).isEqualTo(1);
+        busB.poll();
+        assertThat(doctorsB.findByEmail(EMAIL).getPhone()).isEqualTo("5554000000"); // now cached on B
+
+        Doctor changed = doctorsA.findByEmail(EMAIL);
+        changed.setPhone("5554000009");
+        assertThat(doctorServiceA.updateDoctor(changed)).isEqualTo(1);
+
+        assertThat(doctorsB.findByEmail(EMAIL).getPhone()).as("stale until B polls").isEqualTo("5554000000");
+        busB.poll();
+        assertThat(doctorsB.findByEmail(EMAIL).getPhone()).isEqualTo("5554000009");
+    }
+
+    @Test
+    void broadcastsCarryTheOriginNode() {
+        CacheInvalidationBus busA = nodeA.getBean(CacheInvalidationBus.class);
+        CacheInvalidationRepository invalidations = nodeA.getBean(CacheInvalidationRepository.class);
+        long before = invalidations.findMaxVersion();
+
+        busA.broadcast(CacheInvalidation.Region.ADMIN, 42L);
+
+        List<CacheInvalidation> written = invalidations.findByVersionIn(List.of(before + 1));
+        assertThat(written).singleElement().satisfies(invalidation -> {
+            assertThat(invalidation.getRegion()).isEqualTo(CacheInvalidation.Region.ADMIN);
+            assertThat(invalidation.getEntityId()).isEqualTo(42L);
+            assertThat(invalidation.getOriginNode()).isEqualTo(busA.getNodeId());
+        });
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.project.back_end.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// sizing decisions of AdaptivePoolSizer: bounds [4, 12], step 2, target wait 5 ms, max usage 500 ms
+class AdaptivePoolSizerTest {
+
+    private final AdaptivePoolSizer sizer = new AdaptivePoolSizer(null, new SimpleMeterRegistry(), 4, 12, 2, 5, 500);
+
+    @Test
+    void growsWhileRequestsWaitForConnections() {
+        assertThat(sizer.nextSize(10, new AdaptivePoolSizer.Window(20, 15, 0.9, 8))).isEqualTo(12);
+        assertThat(sizer.nextSize(12, new AdaptivePoolSizer.Window(20, 15, 0.9, 8))).isEqualTo(12);
+    }
+
+    @Test
+    void doesNotGrowWhenTheDatabaseIsSlow() {
+        assertThat(sizer.nextSize(10, new AdaptivePoolSizer.Window(20, 800, 1.0, 8))).isEqualTo(10);
+    }
+
+    @Test
+    void doesNotGrowWithoutQueuedRequests() {
+        assertThat(sizer.nextSize(10, new AdaptivePoolSizer.Window(20, 15, 0.9, 0))).isEqualTo(10);
+    }
+
+    @Test
+    void shrinksWhenIdle() {
+        assertThat(sizer.nextSize(10, new AdaptivePoolSizer.Window(0.1, 2, 0.1, 0))).isEqualTo(9);
+        assertThat(sizer.nextSize(4, new AdaptivePoolSizer.Window(0.1, 2, 0.1, 0))).isEqualTo(4);
+    }
+
+    @Test
+    void keepsTheSizeOfABusyPoolWithoutWaiting() {
+        assertThat(sizer.nextSize(10, new AdaptivePoolSizer.Window(0.1, 2, 0.8, 0))).isEqualTo(10);
+    }
+
+    @Test
+    void minimumIdleFollowsThePoolSizeBackToItsConfiguredValue() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:adaptive-pool");
+        config.setMinimumIdle(6);
+        config.setMaximumPoolSize(8);
+        try (HikariDataSource pool = new HikariDataSource(config)) {
+            sizer.resize(pool, 5);
+            assertThat(pool.getMinimumIdle()).isEqualTo(5);
+            sizer.resize(pool, 4);
+            assertThat(pool.getMinimumIdle()).isEqualTo(4);
+
+            sizer.resize(pool, 7);
+            assertThat(pool.getMaximumPoolSize()).isEqualTo(7);
+            assertThat(pool.getMinimumIdle()).isEqualTo(6);
+        }
+    }
+
+}
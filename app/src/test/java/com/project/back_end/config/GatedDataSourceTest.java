@@ -0,0 +1,80 @@
+package com.project.back_end.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GatedDataSourceTest {
+
+    private GatedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:gate");
+        dataSource = new GatedDataSource(h2, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    void handsOutAtMostPermitsConnections() throws Exception {
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            assertThat(dataSource.getAvailablePermits()).isZero();
+            assertThatThrownBy(dataSource::getConnection)
+                    .isInstanceOf(SQLTransientConnectionException.class)
+                    .hasMessageContaining("2 permits");
+        }
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void closedConnectionReturnsItsPermitOnce() throws Exception {
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void waitingThreadGetsThePermitOfAClosedConnection() throws Exception {
+        GatedDataSource slowGate = new GatedDataSource(dataSource.getTargetDataSource(), 1, Duration.ofSeconds(5));
+        Connection held = slowGate.getConnection();
+        Thread closer = new Thread(() -> {
+            try {
+                while (slowGate.getWaitingThreads() == 0) {
+                    Thread.onSpinWait();
+                }
+                held.close();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        closer.start();
+        try (Connection connection = slowGate.getConnection()) {
+            assertThat(connection.isValid(1)).isTrue();
+        }
+        closer.join();
+    }
+
+    @Test
+    void resizedGateTakesEffectWhenConnectionsAreClosed() throws Exception {
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        dataSource.setMaxPermits(1);
+        first.close();
+        assertThat(dataSource.getAvailablePermits()).isZero();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        second.close();
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+
+        dataSource.setMaxPermits(3);
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(3);
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.project.back_end.config;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.services.DoctorService;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// read/write routing against two in-memory databases: "replication" is a copy of the primary (H2 SCRIPT) made by the
+// test, so the replica knows exactly the rows which existed at the last copy
+@SpringBootTest(properties = {
+        "spring.jpa.properties.jakarta.persistence.validation.mode=none",
+        "spring.datasource.url=" + ReplicaRoutingTest.PRIMARY_URL,
+        "clinic.datasource.replicas.enabled=true",
+        "clinic.datasource.replicas.urls=" + ReplicaRoutingTest.REPLICA_URL,
+        "clinic.datasource.replicas.max-lag=1m",
+        // heartbeat and replication by the test
+        "clinic.datasource.replicas.heartbeat-interval=1h"})
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    private static final AtomicInteger doctorNumber = new AtomicInteger();
+
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    private final JdbcTemplate primary = new JdbcTemplate(h2(PRIMARY_URL));
+    private final JdbcTemplate replica = new JdbcTemplate(h2(REPLICA_URL));
+
+    private Doctor replicated;
+    private Doctor unreplicated;
+
+    @BeforeEach
+    void replicateThenWriteToThePrimary() {
+        replicated = doctorRepository.save(newDoctor());
+        lagMonitor.beat();
+        replicate();
+        lagMonitor.refresh(); // writes the next heartbeat on the primary only, reads the copied one on the replica
+
+        unreplicated = doctorRepository.save(newDoctor());
+        ReadYourWrites.clear(); // the reads below are of another client
+    }
+
+    @AfterEach
+    void clearReadYourWrites() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void readOnlyTransactionReadsFromTheReplica() {
+        assertThat(doctorEmails()).contains(replicated.getEmail()).doesNotContain(unreplicated.getEmail());
+        assertThat(primary.queryForObject("SELECT COUNT(*) FROM doctor WHERE email = ?", Integer.class, unreplicated.getEmail()))
+                .as("writes go to the primary")
+                .isEqualTo(1);
+    }
+
+    @Test
+    void clientReadsItsOwnWriteFromThePrimary() {
+        ReadYourWrites.recordWrite(System.currentTimeMillis());
+
+        assertThat(doctorEmails()).contains(replicated.getEmail(), unreplicated.getEmail());
+    }
+
+    @Test
+    void laggingReplicaIsSkipped() {
+        replica.update("UPDATE replication_heartbeat SET beat = ? WHERE id = 1", System.currentTimeMillis() - 120_000);
+        lagMonitor.read(lagMonitor.getReplicas().get(0));
+
+        assertThat(lagMonitor.lagMillis(lagMonitor.getReplicas().get(0))).isGreaterThan(60_000);
+        assertThat(doctorEmails()).contains(replicated.getEmail(), unreplicated.getEmail());
+    }
+
+    private List<String> doctorEmails() {
+        return doctorService.getDoctors().stream().map(Doctor::getEmail).toList();
+    }
+
+    private static Doctor newDoctor() {
+        int n = doctorNumber.incrementAndGet();
+        return new Doctor("routing-doctor" + n + "@example.com", "secret1", String.format("555500%04d", n),
+                "Dr. Routing " + n, "Dr.", "RR-" + n, "Pediatrician", List.of("09:00-10:00"));
+    }
+
+    // the replica becomes a copy of the primary
+    private void replicate() {
+        List<String> script = primary.queryForList("SCRIPT NOPASSWORDS NOSETTINGS", String.class);
+        replica.execute("DROP ALL OBJECTS");
+        script.stream()
+                .filter(statement -> !statement.startsWith("--") && !statement.startsWith("CREATE USER"))
+                .forEach(replica::execute);
+    }
+
+    private static JdbcDataSource h2(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.project.back_end.live;
+
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.services.TokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the doctor's schedule as server-sent events over a real connection: changes arrive as events, the number of
+// connections is bounded, and a connection closed by the client is released with the next heartbeat
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.properties.jakarta.persistence.validation.mode=none",
+        "spring.datasource.url=jdbc:h2:mem:schedule-stream;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "clinic.live.schedule.max-connections=1",
+        // heartbeats by the test
+        "clinic.live.heartbeat-interval=1h"})
+@ActiveProfiles("test")
+class ScheduleStreamTest {
+
+    private static final String EMAIL = "stream-doctor@example.com";
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private ScheduleStream scheduleStream;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private TokenService tokenService;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private Doctor doctor;
+    private HttpResponse<Stream<String>> connection;
+
+    @BeforeEach
+    void connect() throws Exception {
+        doctor = doctorRepository.findByEmail(EMAIL);
+        if (doctor == null) {
+            doctor = doctorRepository.save(new Doctor(EMAIL, "secret1", "5556000000", "Dr. Stream", "Dr.", "SSE-1",
+                    "Cardiologist", List.of("09:00-10:00")));
+        }
+        connection = open();
+        assertThat(connection.statusCode()).isEqualTo(200);
+        await(() -> scheduleStream.getBroadcaster().getSubscriberCount() == 1);
+    }
+
+    @AfterEach
+    void disconnect() {
+        connection.body().close();
+        await(() -> {
+            scheduleStream.heartbeat();
+            return scheduleStream.getBroadcaster().getSubscriberCount() == 0;
+        });
+    }
+
+    @Test
+    void changesOfTheDoctorArriveAsEvents() throws Exception {
+        LocalDateTime time = LocalDateTime.of(2030, 5, 6, 9, 0);
+        scheduleStream.onAppointmentChanged(AppointmentChangedEvent.booked(4711L, doctor.getId() + 1000, 1L, time, 0)); // other doctor
+        scheduleStream.onAppointmentChanged(AppointmentChangedEvent.booked(4712L, doctor.getId(), 1L, time, 0));
+
+        Iterator<String> lines = connection.body().iterator();
+        String event = CompletableFuture.supplyAsync(() -> {
+            String line = lines.next();
+            while (!line.startsWith("event:")) {
+                line = lines.next();
+            }
+            return line + "\n" + lines.next();
+        }).get(5, TimeUnit.SECONDS);
+
+        assertThat(event).startsWith("event:booked").contains("\"appointmentId\":4712").contains("2030-05-06T09:00");
+    }
+
+    @Test
+    void startsWithAComment() throws Exception {
+        // the response headers arrive at once, not with the first event
+        Iterator<String> lines = connection.body().iterator();
+        assertThat(CompletableFuture.supplyAsync(lines::next).get(5, TimeUnit.SECONDS)).isEqualTo(":connected");
+    }
+
+    @Test
+    void connectionsAreBounded() throws Exception {
+        HttpResponse<Stream<String>> second = open();
+        try {
+            assertThat(second.statusCode()).isEqualTo(503);
+        } finally {
+            second.body().close();
+        }
+    }
+
+    private HttpResponse<Stream<String>> open() throws Exception {
+        String token = tokenService.generateToken(EMAIL);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/appointments/stream/" + token))
+                .header("Accept", "text/event-stream")
+                .timeout(Duration.ofSeconds(5)) // until the response headers
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofLines());
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 5 s").isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+}
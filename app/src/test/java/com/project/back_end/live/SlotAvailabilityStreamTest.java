@@ -0,0 +1,135 @@
+package com.project.back_end.live;
+
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.services.TokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// availability of a doctor on one day as server-sent events: a snapshot first, then the slots taken and freed
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.properties.jakarta.persistence.validation.mode=none",
+        "spring.datasource.url=jdbc:h2:mem:slot-stream;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        // heartbeats by the test
+        "clinic.live.heartbeat-interval=1h"})
+@ActiveProfiles("test")
+class SlotAvailabilityStreamTest {
+
+    private static final String DOCTOR_EMAIL = "slots-doctor@example.com";
+    private static final String PATIENT_EMAIL = "slots-patient@example.com";
+    private static final LocalDate DAY = LocalDate.now().plusDays(7);
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private SlotAvailabilityStream slotAvailabilityStream;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private TokenService tokenService;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private Doctor doctor;
+    private HttpResponse<Stream<String>> connection;
+    private Iterator<String> lines;
+
+    @BeforeEach
+    void connect() throws Exception {
+        doctor = doctorRepository.findByEmail(DOCTOR_EMAIL);
+        if (doctor == null) {
+            doctor = doctorRepository.save(new Doctor(DOCTOR_EMAIL, "secret1", "5557000000", "Dr. Slots", "Dr.", "SL-1",
+                    "Dermatologist", List.of("09:00-10:00", "10:00-11:00")));
+            patientRepository.save(new Patient(PATIENT_EMAIL, "secret1", "5557000001", "Slot Patient",
+                    LocalDate.of(1990, 1, 1), "Main Street 1"));
+        }
+        String token = tokenService.generateToken(PATIENT_EMAIL);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/doctor/availability/stream/patient/"
+                        + doctor.getId() + "/" + DAY + "/" + token))
+                .header("Accept", "text/event-stream")
+                .timeout(Duration.ofSeconds(5)) // until the response headers
+                .build();
+        connection = client.send(request, HttpResponse.BodyHandlers.ofLines());
+        assertThat(connection.statusCode()).isEqualTo(200);
+        lines = connection.body().iterator();
+    }
+
+    @AfterEach
+    void disconnect() {
+        connection.body().close();
+    }
+
+    @Test
+    void startsWithTheCurrentAvailability() throws Exception {
+        assertThat(nextEvent()).startsWith("event:snapshot").contains("\"availableSlots\":[\"09:00-10:00\",\"10:00-11:00\"]");
+    }
+
+    @Test
+    void publishesTakenAndFreedSlots() throws Exception {
+        nextEvent(); // snapshot
+
+        slotAvailabilityStream.onAppointmentChanged(AppointmentChangedEvent.booked(1L, doctor.getId(), 1L, DAY.atTime(9, 0), 0));
+        slotAvailabilityStream.onAppointmentChanged(AppointmentChangedEvent.updated(1L, doctor.getId(), 1L,
+                DAY.atTime(9, 0), DAY.atTime(10, 0), 0));
+        // another day of the doctor: not on this stream
+        slotAvailabilityStream.onAppointmentChanged(AppointmentChangedEvent.cancelled(2L, doctor.getId(), 1L, DAY.plusDays(1).atTime(9, 0), 0));
+        slotAvailabilityStream.onAppointmentChanged(AppointmentChangedEvent.cancelled(1L, doctor.getId(), 1L, DAY.atTime(10, 0), 0));
+
+        assertThat(nextEvent()).startsWith("event:taken").contains("\"time\":\"09:00\"");
+        assertThat(nextEvent()).startsWith("event:freed").contains("\"time\":\"09:00\"");
+        assertThat(nextEvent()).startsWith("event:taken").contains("\"time\":\"10:00\"");
+        assertThat(nextEvent()).startsWith("event:freed").contains("\"time\":\"10:00\"").contains(DAY.toString());
+    }
+
+    @Test
+    void readsTheSnapshotOnTheSubscribingThread() {
+        // not on the delivery threads shared by all connections
+        AtomicReference<Thread> reader = new AtomicReference<>();
+        SseEmitter emitter = slotAvailabilityStream.getBroadcaster().subscribe(new SlotAvailabilityStream.SlotKey(doctor.getId(), DAY.plusDays(7)),
+                () -> {
+                    reader.set(Thread.currentThread());
+                    return Map.of();
+                });
+        emitter.complete();
+
+        assertThat(reader.get()).isSameAs(Thread.currentThread());
+    }
+
+    // "event:<name>" and the data line of the next event
+    private String nextEvent() throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            String line = lines.next();
+            while (!line.startsWith("event:")) {
+                line = lines.next();
+            }
+            return line + "\n" + lines.next();
+        }).get(5, TimeUnit.SECONDS);
+    }
+
+}
@@ -0,0 +1,189 @@
+package com.project.back_end.monitoring;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.services.TokenService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// number of SQL statements per endpoint (header X-SQL-Statement-Count, see SqlStatementCountFilter).
+// The expected counts are exact: a change to the mapping or a query that adds statements per row (N+1) fails here,
+// the data set is sized so that per-row statements differ from a constant number of statements.
+@SpringBootTest(properties = {
+        "spring.jpa.properties.jakarta.persistence.validation.mode=none",
+        // own database: the exact counts depend on the rows (other test contexts share the in-memory "cms")
+        "spring.datasource.url=jdbc:h2:mem:sqlcount;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        // the counts of the mapping itself: a warm second-level cache would hide statements depending on the test order
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        // no Mongo: the prescriptions of the dashboard fail at once instead of waiting for a server
+        "spring.data.mongodb.uri=mongodb://localhost:27017/prescriptions?serverSelectionTimeoutMS=100"})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class SqlStatementCountTest {
+
+    private static final int DOCTORS = 5;
+    private static final LocalDateTime DAY = LocalDateTime.of(2031, 3, 4, 9, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private TokenService tokenService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Doctor doctor;
+    private Patient patient;
+    private String doctorToken;
+    private String patientToken;
+
+    @BeforeEach
+    void seed() {
+        if (doctorRepository.findByEmail("sqlcount-doctor0@example.com") == null) {
+            List<Doctor> doctors = new ArrayList<>();
+            for (int d = 0; d < DOCTORS; d++) {
+                doctors.add(new Doctor("sqlcount-doctor" + d + "@example.com", "secret1", String.format("555000%04d", d),
+                        "Dr. Count " + d, "Dr.", "SC-" + d, "Dermatologist", List.of("09:00-10:00", "10:00-11:00", "11:00-12:00")));
+            }
+            doctorRepository.saveAll(doctors);
+            List<Patient> patients = new ArrayList<>();
+            for (int p = 0; p < 3; p++) {
+                patients.add(new Patient("sqlcount-patient" + p + "@example.com", "secret1", String.format("555100%04d", p),
+                        "Count Patient " + p, null, "Street " + p));
+            }
+            patientRepository.saveAll(patients);
+            List<Appointment> appointments = new ArrayList<>();
+            for (int i = 0; i < 15; i++) {
+                appointments.add(new Appointment(doctors.get(i % doctors.size()), patients.get(i % patients.size()),
+                        DAY.plusHours(i / doctors.size()), Duration.ofMinutes(60), "checkup", null, 0));
+            }
+            appointmentRepository.saveAll(appointments);
+            // completed appointments of the first patient moved to the archive, one with each doctor
+            LocalDateTime past = LocalDateTime.now().minusMonths(6).withNano(0);
+            for (int d = 0; d < DOCTORS; d++) {
+                jdbcTemplate.update("INSERT INTO appointment_archive (id, doctor_id, patient_id, appointment_time, reason, status, archived_at) " +
+                                "VALUES (?, ?, ?, ?, 'checkup', 1, ?)",
+                        900_000L + d, doctors.get(d).getId(), patients.get(0).getId(), past.plusDays(d), past.plusMonths(3));
+            }
+        }
+        doctor = doctorRepository.findByEmail("sqlcount-doctor0@example.com");
+        patient = patientRepository.findByEmail("sqlcount-patient0@example.com");
+        doctorToken = tokenService.generateToken(doctor.getEmail());
+        patientToken = tokenService.generateToken(patient.getEmail());
+    }
+
+    @Test
+    void doctorList() throws Exception {
+        // the doctors, then the available times (element collection) of each doctor one by one
+        assertStatements(get("/doctor"), 1 + DOCTORS);
+    }
+
+    @Test
+    void doctorFilter() throws Exception {
+        // as the doctor list
+        assertStatements(get("/doctor/filter/Count/AM/Dermatologist"), 1 + DOCTORS);
+    }
+
+    @Test
+    void doctorAvailability() throws Exception {
+        assertStatements(get("/doctor/availability/patient/{doctorId}/{date}/{token}", doctor.getId(), DAY.toLocalDate(), patientToken), 6);
+    }
+
+    @Test
+    void appointmentsOfDay() throws Exception {
+        assertStatements(get("/appointments/{date}/{patientName}/{token}", DAY.toLocalDate(), "null", doctorToken), 5);
+    }
+
+    @Test
+    void doctorDashboard() throws Exception {
+        // token validation and the doctor of the token on the request thread (each the doctor and its available times),
+        // then on the dashboard executor the appointments and the appointment ids of the prescriptions' lookup
+        assertStatements(get("/appointments/dashboard/{date}/{patientName}/{token}", DAY.toLocalDate(), "null", doctorToken), 4 + 2);
+    }
+
+    @Test
+    void patientDetails() throws Exception {
+        // token validation and the patient itself: both look the patient up by email
+        assertStatements(get("/patient/{token}", patientToken), 2);
+    }
+
+    @Test
+    void patientAppointments() throws Exception {
+        // patient (twice), the archive and the appointments, then each doctor of the appointments one by one (all DOCTORS here)
+        assertStatements(get("/patient/{token}/appointments", patientToken), 4 + DOCTORS);
+    }
+
+    @Test
+    void patientFilter() throws Exception {
+        assertStatements(get("/patient/filter/{condition}/{name}/{token}", "future", "Count", patientToken), 3 + DOCTORS);
+    }
+
+    @Test
+    void patientPastFilter() throws Exception {
+        // patient (twice), the archive (doctor names joined: no statement per archived appointment) and the appointments
+        // (none completed)
+        assertStatements(get("/patient/filter/{condition}/{name}/{token}", "past", "Count", patientToken), 4);
+        mockMvc.perform(get("/patient/filter/{condition}/{name}/{token}", "past", "Count", patientToken))
+                .andExpect(jsonPath("$.appointments.length()").value(DOCTORS));
+    }
+
+    @Test
+    void invalidTokenIssuesNoStatement() throws Exception {
+        mockMvc.perform(get("/patient/{token}", "not-a-token"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string(SqlStatementStats.HEADER_COUNT, "0"));
+    }
+
+    @Test
+    void recordsMetricPerUriPattern() throws Exception {
+        mockMvc.perform(get("/doctor")).andExpect(status().isOk());
+        DistributionSummary statements = meterRegistry.get(SqlStatementCountFilter.STATEMENTS_METRIC_NAME)
+                .tag("method", "GET")
+                .tag("uri", "/doctor")
+                .summary();
+        assertThat(statements.count()).isPositive();
+        assertThat(meterRegistry.get(SqlStatementCountFilter.TIME_METRIC_NAME).tag("uri", "/doctor").timer().count()).isPositive();
+    }
+
+    private void assertStatements(RequestBuilder request, int expected) throws Exception {
+        MvcResult result = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+        assertThat(result.getResponse().getHeader(SqlStatementStats.HEADER_TIME)).isNotNull();
+        assertThat(result.getResponse().getHeader(SqlStatementStats.HEADER_COUNT))
+                .as("SQL statements of %s", result.getRequest().getRequestURI())
+                .isEqualTo(Integer.toString(expected));
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.project.back_end.monitoring;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// sampled SQL tracing (SqlTraceRecorder) and the /actuator/sqltraces endpoint
+@SpringBootTest(properties = {
+        "spring.jpa.properties.jakarta.persistence.validation.mode=none",
+        "spring.datasource.url=jdbc:h2:mem:sqltrace;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "clinic.sql.trace.sample-rate=1",
+        "clinic.sql.trace.capacity=3"})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class SqlTraceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private SqlTraceRecorder recorder;
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @BeforeEach
+    void seed() {
+        if (doctorRepository.findByEmail("sqltrace-doctor@example.com") == null) {
+            doctorRepository.save(new Doctor("sqltrace-doctor@example.com", "secret1", "5552000000", "Dr. Trace",
+                    "Dr.", "ST-1", "Dermatologist", List.of("09:00-10:00")));
+        }
+        recorder.clear();
+    }
+
+    @AfterEach
+    void resetSampleRate() {
+        recorder.setSampleRate(1);
+    }
+
+    @Test
+    void recordsSqlOfSampledRequests() throws Exception {
+        mockMvc.perform(get("/doctor")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/sqltraces"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sampleRate").value(1.0))
+                .andExpect(jsonPath("$.traces", hasSize(1)))
+                .andExpect(jsonPath("$.traces[0].method").value("GET"))
+                .andExpect(jsonPath("$.traces[0].uri").value("/doctor"))
+                .andExpect(jsonPath("$.traces[0].status").value(200))
+                .andExpect(jsonPath("$.traces[0].statementCount").value(2))
+                .andExpect(jsonPath("$.traces[0].statements", hasSize(2)))
+                .andExpect(jsonPath("$.traces[0].statements[0].sql", startsWith("select")));
+    }
+
+    @Test
+    void keepsOnlyTheLastTraces() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/doctor")).andExpect(status().isOk());
+        }
+        assertThat(recorder.getTraces()).hasSize(3);
+    }
+
+    @Test
+    void sampleRateCannotBeChangedOverHttp() throws Exception {
+        mockMvc.perform(post("/actuator/sqltraces")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sampleRate\": 0}"))
+                .andExpect(status().is4xxClientError());
+        mockMvc.perform(delete("/actuator/sqltraces"))
+                .andExpect(status().is4xxClientError());
+        mockMvc.perform(get("/doctor")).andExpect(status().isOk());
+
+        assertThat(recorder.getSampleRate()).isEqualTo(1.0);
+        assertThat(recorder.getTraces()).isNotEmpty();
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.project.back_end.monitoring.jfr;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.services.DoctorService;
+import com.project.back_end.services.TokenService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the domain JFR events are written into a running recording, with their fields
+@SpringBootTest
+@ActiveProfiles("test")
+class ClinicJfrEventsTest {
+
+    @Autowired
+    private TokenService tokenService;
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void recordsTokenValidationAndAvailability() throws Exception {
+        Doctor doctor = doctorRepository.findByEmail("jfr-doctor@example.com");
+        if (doctor == null) {
+            doctor = doctorRepository.save(new Doctor("jfr-doctor@example.com", "secret1", "5553000000", "Dr. Recorder",
+                    "Dr.", "JFR-1", "Dermatologist", List.of("09:00-10:00", "10:00-11:00")));
+        }
+        String doctorToken = tokenService.generateToken(doctor.getEmail());
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("clinic.TokenValidation");
+            recording.enable("clinic.DoctorAvailability");
+            recording.start();
+            assertThat(tokenService.validateToken(doctorToken, "doctor")).isTrue();
+            assertThat(tokenService.validateToken("not-a-token", "patient")).isFalse();
+            doctorService.getDoctorAvailability(doctor.getId(), LocalDate.of(2032, 5, 3));
+            recording.stop();
+            Path file = tempDir.resolve("clinic.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        List<RecordedEvent> tokenValidations = events.stream()
+                .filter(e -> e.getEventType().getName().equals("clinic.TokenValidation"))
+                .toList();
+        assertThat(tokenValidations).hasSize(2);
+        assertThat(tokenValidations.get(0).getString("role")).isEqualTo("doctor");
+        assertThat(tokenValidations.get(0).getLong("doctorId")).isEqualTo(doctor.getId());
+        assertThat(tokenValidations.get(0).getString("outcome")).isEqualTo(TokenValidationEvent.VALID);
+        assertThat(tokenValidations.get(1).getString("outcome")).isEqualTo(TokenValidationEvent.INVALID_TOKEN);
+
+        RecordedEvent availability = events.stream()
+                .filter(e -> e.getEventType().getName().equals("clinic.DoctorAvailability"))
+                .findFirst().orElseThrow();
+        assertThat(availability.getLong("doctorId")).isEqualTo(doctor.getId());
+        assertThat(availability.getString("date")).isEqualTo("2032-05-03");
+        assertThat(availability.getInt("availableSlots")).isEqualTo(2);
+        assertThat(availability.getString("outcome")).isEqualTo(DoctorAvailabilityEvent.FOUND);
+        assertThat(availability.getDuration()).isPositive();
+    }
+
+}
@@ -0,0 +1,227 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// query plan regression tests: every query of the AppointmentRepository is executed against the H2 stand-in (MySQL mode),
+// the SQL issued by Hibernate is captured and EXPLAINed. A query which has to scan the whole appointment table
+// (e.g. because one of the indexes declared on Appointment was removed) fails the test.
+@SpringBootTest(properties = "spring.jpa.properties.jakarta.persistence.validation.mode=none")
+@ActiveProfiles("test")
+@Import(AppointmentRepositoryQueryPlanTest.SqlCaptureConfig.class)
+class AppointmentRepositoryQueryPlanTest {
+
+    private static final List<String> capturedSql = new CopyOnWriteArrayList<>();
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 7, 8, 0);
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private DataSource dataSource;
+
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    void seed() {
+        if (appointmentRepository.count() == 0) {
+            List<Doctor> doctors = new ArrayList<>();
+            for (int d = 0; d < 20; d++) {
+                doctors.add(new Doctor("doctor" + d + "@example.com", "secret1", "0123456789", "Dr. Doctor " + d,
+                        "Dr.", "L-" + d, d % 2 == 0 ? "Cardiologist" : "Neurologist", List.of("09:00-10:00", "10:00-11:00")));
+            }
+            doctorRepository.saveAll(doctors);
+            List<Patient> patients = new ArrayList<>();
+            for (int p = 0; p < 100; p++) {
+                patients.add(new Patient("patient" + p + "@example.com", "secret1", String.format("%010d", p), "Patient " + p, null, "Street " + p));
+            }
+            patientRepository.saveAll(patients);
+            List<Appointment> appointments = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                appointments.add(new Appointment(doctors.get(i % doctors.size()), patients.get(i % patients.size()),
+                        START.plusHours(i / doctors.size()), Duration.ofMinutes(60), "checkup", null, i % 3));
+            }
+            appointmentRepository.saveAll(appointments);
+            new JdbcTemplate(dataSource).execute("ANALYZE");
+        }
+        doctor = doctorRepository.findByEmail("doctor3@example.com");
+        patient = patientRepository.findByEmail("patient7@example.com");
+        capturedSql.clear();
+    }
+
+    @Test
+    void findByDoctorIdAndAppointmentTimeBetween() {
+        appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(doctor.getId(), START, START.plusDays(1));
+        assertNoAppointmentTableScan();
+    }
+
+    @Test
+    void findByDoctorIdAndPatientNameContainingIgnoreCaseAndAppointmentTimeBetween() {
+        appointmentRepository.findByDoctorIdAndPatientNameContainingIgnoreCaseAndAppointmentTimeBetween(doctor.getId(), "pat", START, START.plusDays(1));
+        assertNoAppointmentTableScan();
+    }
+
+    @Test
+    void existsByDoctorIdAndAppointmentTime() {
+        appointmentRepository.existsByDoctorIdAndAppointmentTime(doctor.getId(), START);
+        assertNoAppointmentTableScan();
+    }
+
+    @Test
+    void existsByDoctorIdAndAppointmentTimeAndIdNot() {
+        appointmentRepository.existsByDoctorIdAndAppointmentTimeAndIdNot(doctor.getId(), START, 1L);
+        assertNoAppointmentTableScan();
+    }
+
+    @Test
+    void findByPatientId() {
+        appointmentRepository.findByPatientId(patient.getId());
+        assertNoAppointmentTableScan();
+    }
+
+    @Test
+    void findByPatientIdAndStatusOrderByAppointmentTimeAsc() {
+        appointmentRepository.findByPatientIdAndStatusOrderByAppointmentTimeAsc(patient.getId(), Appointment.STATUS_SCHEDULED);
+        assertNoAppointmentTableScan();
+    }
+
+    @Test
+    void filterByDoctorNameAndPatientId() {
+        appointmentRepository.filterByDoctorNameAndPatientId("doctor", patient.getId());
+        assertNoAppointmentTableScan();
+    }
+
+    @Test
+    void filterByDoctorNameAndPatientIdAndStatus() {
+        appointmentRepository.filterByDoctorNameAndPatientIdAndStatus("doctor", patient.getId(), Appointment.STATUS_SCHEDULED);
+        assertNoAppointmentTableScan();
+    }
+
+    @Test
+    void findIdsByPatientId() {
+        appointmentRepository.findIdsByPatientId(patient.getId());
+        assertNoAppointmentTableScan();
+    }
+
+    @Test
+    void findWithDoctorAndPatientByAppointmentTimeRange() {
+        appointmentRepository.findWithDoctorAndPatientByAppointmentTimeRange(START, START.plusHours(2));
+        assertNoAppointmentTableScan();
+    }
+
+    @Test
+    void findFirstAndLastAppointmentTime() {
+        appointmentRepository.findFirstAppointmentTime();
+        appointmentRepository.findLastAppointmentTime();
+        assertNoAppointmentTableScan();
+    }
+
+    @Test
+    void updateStatus() {
+        appointmentRepository.updateStatus(Appointment.STATUS_SCHEDULED, -1L);
+        assertNoAppointmentTableScan();
+    }
+
+    @Test
+    void deleteAllByDoctorId() {
+        appointmentRepository.deleteAllByDoctorId(-1L);
+        assertNoAppointmentTableScan();
+    }
+
+    private void assertNoAppointmentTableScan() {
+        List<String> statements = capturedSql.stream()
+                .filter(sql -> sql.toLowerCase().contains("appointment"))
+                .toList();
+        assertThat(statements).as("captured SQL").isNotEmpty();
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertThat(plan.toLowerCase())
+                    .as("plan of %s", sql)
+                    .doesNotContain("appointment.tablescan");
+        }
+    }
+
+    // EXPLAIN of a statement with parameters: H2 plans the statement when it is prepared, the parameter values don't matter
+    private String explain(String sql) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 1; i <= explain.getParameterMetaData().getParameterCount(); i++) {
+                explain.setObject(i, null);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = explain.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        } catch (SQLException e) {
+            throw new IllegalStateException("EXPLAIN failed for " + sql, e);
+        }
+    }
+
+    // records the SQL of all statements prepared through the application's DataSource
+    @TestConfiguration
+    static class SqlCaptureConfig {
+
+        @Bean
+        static BeanPostProcessor sqlCapturingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return proxy(DataSource.class, dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        private static <T> T proxy(Class<T> type, T target) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+                if (method.getName().equals("prepareStatement") && args != null && args[0] instanceof String sql) {
+                    capturedSql.add(sql);
+                }
+                try {
+                    Object result = method.invoke(target, args);
+                    if (result instanceof Connection connection) {
+                        return proxy(Connection.class, connection);
+                    }
+                    return result;
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.Admin;
+import com.project.back_end.models.Doctor;
+import jakarta.persistence.EntityManagerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// second-level cache of Doctor / Admin: once warm, the lookups by id, email and username issue no SQL,
+// and a change made through JPA is visible to the next lookup
+@SpringBootTest(properties = {
+        "spring.jpa.properties.jakarta.persistence.validation.mode=none",
+        "spring.datasource.url=jdbc:h2:mem:l2cache;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1"})
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    private static final String EMAIL = "l2cache-doctor@example.com";
+    private static final String USERNAME = "l2cache-admin";
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private AdminRepository adminRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private Doctor doctor;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (doctorRepository.findByEmail(EMAIL) == null) {
+            doctorRepository.save(new Doctor(EMAIL, "secret1", "5553000000", "Dr. Cache", "Dr.", "L2-1", "Cardiologist",
+                    List.of("09:00-10:00", "10:00-11:00")));
+            adminRepository.save(new Admin(USERNAME, "secret1", "l2cache-admin@example.com", "5553000001"));
+        }
+        // warm up
+        doctor = doctorRepository.findByEmail(EMAIL);
+        doctorRepository.findById(doctor.getId()).orElseThrow().getAvailableTimes().size();
+        adminRepository.findByUsername(USERNAME);
+        statistics.clear();
+    }
+
+    @Test
+    void lookupsOfWarmEntitiesIssueNoSql() {
+        Doctor byId = doctorRepository.findById(doctor.getId()).orElseThrow();
+        Doctor byEmail = doctorRepository.findByEmail(EMAIL);
+        Admin admin = adminRepository.findByUsername(USERNAME);
+
+        assertThat(byId.getAvailableTimes()).containsExactly("09:00-10:00", "10:00-11:00");
+        assertThat(byEmail.getId()).isEqualTo(doctor.getId());
+        assertThat(admin.getUsername()).isEqualTo(USERNAME);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void changeIsVisibleToTheNextLookup() {
+        Doctor changed = doctorRepository.findById(doctor.getId()).orElseThrow();
+        changed.setAvailableTimes(List.of("14:00-15:00"));
+        changed.setPhone("5553000009");
+        doctorRepository.save(changed);
+
+        Doctor reloaded = doctorRepository.findByEmail(EMAIL);
+        assertThat(reloaded.getPhone()).isEqualTo("5553000009");
+        assertThat(reloaded.getAvailableTimes()).containsExactly("14:00-15:00");
+
+        reloaded.setAvailableTimes(List.of("09:00-10:00", "10:00-11:00"));
+        doctorRepository.save(reloaded);
+    }
+
+    @Test
+    void exportsCacheStatisticsAsMetrics() {
+        doctorRepository.findById(doctor.getId());
+
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tag("region", "doctor")
+                .tag("result", "hit")
+                .functionCounter()).isNotNull();
+    }
+
+}
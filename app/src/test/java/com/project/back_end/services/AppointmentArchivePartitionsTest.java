@@ -0,0 +1,70 @@
+package com.project.back_end.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AppointmentArchivePartitionsTest {
+
+    private static final LocalDateTime NEWEST = LocalDateTime.of(2025, 3, 14, 10, 0);
+
+    @Test
+    void oneRangePartitionPerMonthAndACatchAll() {
+        assertThat(AppointmentArchivePartitions.definitions(List.of(YearMonth.of(2024, 12), YearMonth.of(2025, 1))))
+                .isEqualTo("(PARTITION p202412 VALUES LESS THAN ('2025-01-01 00:00:00'), " +
+                        "PARTITION p202501 VALUES LESS THAN ('2025-02-01 00:00:00'), " +
+                        "PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+    }
+
+    @Test
+    void firstRunPartitionsFromTheOldestArchivedMonth() {
+        AppointmentArchivePartitions.Plan plan = AppointmentArchivePartitions.plan(List.of(), NEWEST,
+                LocalDateTime.of(2024, 12, 31, 23, 0), 2);
+
+        assertThat(plan.partitionTable()).isTrue();
+        assertThat(plan.months()).containsExactly(
+                YearMonth.of(2024, 12), YearMonth.of(2025, 1), YearMonth.of(2025, 2), YearMonth.of(2025, 3),
+                YearMonth.of(2025, 4), YearMonth.of(2025, 5));
+    }
+
+    @Test
+    void firstRunOnAnEmptyArchiveStartsWithTheNewestMonth() {
+        AppointmentArchivePartitions.Plan plan = AppointmentArchivePartitions.plan(List.of(), NEWEST, null, 1);
+
+        assertThat(plan.partitionTable()).isTrue();
+        assertThat(plan.months()).containsExactly(YearMonth.of(2025, 3), YearMonth.of(2025, 4));
+    }
+
+    @Test
+    void nothingToDoWhenThePartitionsAreAhead() {
+        assertThat(AppointmentArchivePartitions.plan(List.of("p202504", "p202505", "p202506", "pmax"), NEWEST, null, 3))
+                .isEqualTo(AppointmentArchivePartitions.Plan.NONE);
+        assertThat(AppointmentArchivePartitions.plan(List.of("p202507", "pmax"), NEWEST, null, 3))
+                .isEqualTo(AppointmentArchivePartitions.Plan.NONE);
+    }
+
+    @Test
+    void splitsPmaxAfterTheLastExistingPartitionOverAGap() {
+        // the last run was several months ago: the partitions continue after the newest existing one
+        AppointmentArchivePartitions.Plan plan = AppointmentArchivePartitions.plan(
+                List.of("p202410", "p202411", "pmax"), NEWEST, null, 1);
+
+        assertThat(plan.partitionTable()).isFalse();
+        assertThat(plan.months()).containsExactly(
+                YearMonth.of(2024, 12), YearMonth.of(2025, 1), YearMonth.of(2025, 2), YearMonth.of(2025, 3),
+                YearMonth.of(2025, 4));
+    }
+
+    @Test
+    void onlyPmaxStartsWithTheNewestMonth() {
+        AppointmentArchivePartitions.Plan plan = AppointmentArchivePartitions.plan(List.of("pmax"), NEWEST, null, 0);
+
+        assertThat(plan.partitionTable()).isFalse();
+        assertThat(plan.months()).containsExactly(YearMonth.of(2025, 3));
+    }
+
+}
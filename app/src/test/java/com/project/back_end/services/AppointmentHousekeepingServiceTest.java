@@ -0,0 +1,167 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.ArchivedAppointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.ServerVersion;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.InstanceOfAssertFactories.list;
+
+// housekeeping in chunks of 2: past scheduled appointments become completed / no-show, old ones move to the archive,
+// and the history of the patient (appointments and prescriptions, the latter in an in-memory Mongo) still lists them
+@SpringBootTest(properties = {
+        "spring.jpa.properties.jakarta.persistence.validation.mode=none",
+        "spring.datasource.url=jdbc:h2:mem:housekeeping;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "clinic.appointments.housekeeping.chunk-size=2",
+        "clinic.appointments.housekeeping.complete-after=2h",
+        "clinic.appointments.housekeeping.retention=365d",
+        "spring.data.mongodb.auto-index-creation=true"})
+@ActiveProfiles("test")
+class AppointmentHousekeepingServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 6, 15, 12, 0);
+
+    @Autowired
+    private AppointmentHousekeepingService housekeepingService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private TokenService tokenService;
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+    @Autowired
+    private PrescriptionService prescriptionService;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private static MongoServer mongoServer;
+
+    @DynamicPropertySource
+    static void mongo(DynamicPropertyRegistry registry) {
+        mongoServer = new MongoServer(new MemoryBackend().version(ServerVersion.MONGO_5_0));
+        InetSocketAddress address = mongoServer.bind();
+        registry.add("spring.data.mongodb.uri",
+                () -> "mongodb://" + address.getHostString() + ":" + address.getPort() + "/prescriptions");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongoServer.shutdown();
+    }
+
+    @Test
+    void completesPastAppointmentsAndArchivesOldOnes() {
+        Doctor doctor = doctorRepository.save(new Doctor("housekeeping-doctor@example.com", "secret1", "5558000000",
+                "Dr. Housekeeping", "Dr.", "HK-1", "General", List.of("09:00-10:00")));
+        Patient patient = patientRepository.save(new Patient("housekeeping-patient@example.com", "secret1", "5558000001",
+                "Housekeeping Patient", LocalDate.of(1985, 3, 1), "Main Street 2"));
+
+        Appointment withResult1 = save(doctor, patient, NOW.minusDays(2), "treated", Appointment.STATUS_SCHEDULED);
+        Appointment withResult2 = save(doctor, patient, NOW.minusDays(3), "treated", Appointment.STATUS_SCHEDULED);
+        Appointment withResult3 = save(doctor, patient, NOW.minusDays(4), "treated", Appointment.STATUS_SCHEDULED);
+        Appointment missed = save(doctor, patient, NOW.minusDays(1), null, Appointment.STATUS_SCHEDULED);
+        Appointment running = save(doctor, patient, NOW.minusHours(1), null, Appointment.STATUS_SCHEDULED);
+        Appointment upcoming = save(doctor, patient, NOW.plusDays(1), null, Appointment.STATUS_SCHEDULED);
+        Appointment old1 = save(doctor, patient, NOW.minusDays(400), "treated", Appointment.STATUS_COMPLETED);
+        Appointment old2 = save(doctor, patient, NOW.minusDays(500), "treated", Appointment.STATUS_COMPLETED);
+        Appointment old3 = save(doctor, patient, NOW.minusDays(600), null, Appointment.STATUS_SCHEDULED);
+        prescribe(withResult1, "Medication recent", NOW.minusDays(2));
+        prescribe(old1, "Medication archived", NOW.minusDays(400));
+
+        assertThat(housekeepingService.run(NOW))
+                .containsEntry("completed", 3)
+                .containsEntry("noShows", 2) // missed and old3 (archived afterwards)
+                .containsEntry("archived", 3);
+
+        assertThat(statusOf(withResult1)).isEqualTo(Appointment.STATUS_COMPLETED);
+        assertThat(statusOf(withResult2)).isEqualTo(Appointment.STATUS_COMPLETED);
+        assertThat(statusOf(withResult3)).isEqualTo(Appointment.STATUS_COMPLETED);
+        assertThat(statusOf(missed)).isEqualTo(Appointment.STATUS_NO_SHOW);
+        assertThat(statusOf(running)).isEqualTo(Appointment.STATUS_SCHEDULED);
+        assertThat(statusOf(upcoming)).isEqualTo(Appointment.STATUS_SCHEDULED);
+
+        assertThat(appointmentRepository.findAllById(List.of(old1.getId(), old2.getId(), old3.getId()))).isEmpty();
+        assertThat(archivedAppointmentRepository.findByPatientIdOrderByAppointmentTimeAsc(patient.getId()))
+                .extracting(ArchivedAppointment::getId, ArchivedAppointment::getStatus, ArchivedAppointment::getArchivedAt)
+                .containsExactly(
+                        tuple(old3.getId(), Appointment.STATUS_NO_SHOW, NOW),
+                        tuple(old2.getId(), Appointment.STATUS_COMPLETED, NOW),
+                        tuple(old1.getId(), Appointment.STATUS_COMPLETED, NOW));
+
+        ResponseEntity<Map<String, Object>> history = patientService.getPatientAppointment(null,
+                tokenService.generateToken(patient.getEmail()));
+        assertThat(history.getBody()).extractingByKey("appointments", list(AppointmentDTO.class))
+                .hasSize(9)
+                .extracting(AppointmentDTO::getId)
+                .startsWith(old3.getId(), old2.getId(), old1.getId());
+        assertThat(patientService.filterByCondition("past", patient.getId()).getBody())
+                .extractingByKey("appointments", list(AppointmentDTO.class))
+                .extracting(AppointmentDTO::getId)
+                .containsExactly(old2.getId(), old1.getId(), withResult3.getId(), withResult2.getId(), withResult1.getId());
+        assertThat(prescriptionService.getMedicationHistory(patient.getId(), 0, 10).getBody())
+                .extractingByKey("prescriptions", list(Prescription.class))
+                .extracting(Prescription::getMedication)
+                .containsExactly("Medication recent", "Medication archived");
+        assertThat(mongoTemplate.indexOps(Prescription.class).getIndexInfo())
+                .extracting(IndexInfo::getName)
+                .contains("appointmentId_prescriptionDate");
+
+        assertThat(housekeepingService.run(NOW))
+                .as("nothing left to do")
+                .containsEntry("completed", 0)
+                .containsEntry("noShows", 0)
+                .containsEntry("archived", 0);
+    }
+
+    private Appointment save(Doctor doctor, Patient patient, LocalDateTime time, String result, int status) {
+        return appointmentRepository.save(new Appointment(doctor, patient, time, Duration.ofHours(1), "checkup", result, status));
+    }
+
+    private void prescribe(Appointment appointment, String medication, LocalDateTime time) {
+        Prescription prescription = new Prescription("Housekeeping Patient", appointment.getId(), medication, "10mg", null);
+        prescription.setPrescriptionDate(time.toLocalDate());
+        prescriptionRepository.save(prescription);
+    }
+
+    private int statusOf(Appointment appointment) {
+        return appointmentRepository.findById(appointment.getId()).orElseThrow().getStatus();
+    }
+
+}
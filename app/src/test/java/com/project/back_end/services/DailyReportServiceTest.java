@@ -0,0 +1,209 @@
+package com.project.back_end.services;
+
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.events.CacheInvalidationEvent;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.CacheInvalidation;
+import com.project.back_end.models.DailyAppointmentReportEntry;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DailyAppointmentReportRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the materialized daily report: maintained in the transaction of the appointment change, today's report in memory
+// only after the commit, and the doctor's name following an update of the doctor
+@SpringBootTest(properties = {
+        "spring.jpa.properties.jakarta.persistence.validation.mode=none",
+        "spring.datasource.url=jdbc:h2:mem:daily-report;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1"})
+@ActiveProfiles("test")
+class DailyReportServiceTest {
+
+    @Autowired
+    private DailyReportService dailyReportService;
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private DailyAppointmentReportRepository reportRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Patient patient;
+
+    @BeforeEach
+    void seed() {
+        patient = patientRepository.findByEmail("daily-patient@example.com");
+        if (patient == null) {
+            patient = patientRepository.save(new Patient("daily-patient@example.com", "secret1", "5559000000", "Daily Patient",
+                    LocalDate.of(1970, 1, 1), "Main Street 9"));
+        }
+    }
+
+    @Test
+    void bookingAppearsInTodaysReportAfterTheCommit() {
+        Doctor doctor = doctor("daily-adams@example.com", "Dr. Adams", "5559000001");
+        LocalDateTime time = LocalDate.now().atTime(LocalTime.NOON);
+
+        Long appointmentId = transactionTemplate.execute(status -> {
+            Appointment appointment = appointmentRepository.save(new Appointment(doctor, patient, time, Duration.ofHours(1),
+                    "checkup", null, Appointment.STATUS_SCHEDULED));
+            dailyReportService.onAppointmentChanged(AppointmentChangedEvent.booked(appointment.getId(), doctor.getId(),
+                    patient.getId(), time, Appointment.STATUS_SCHEDULED));
+            assertThat(todaysReportOf(doctor)).isEmpty(); // not committed yet
+            return appointment.getId();
+        });
+
+        assertThat(todaysReportOf(doctor))
+                .singleElement()
+                .satisfies(entry -> {
+                    assertThat(entry.getAppointmentId()).isEqualTo(appointmentId);
+                    assertThat(entry.getDoctorName()).isEqualTo("Dr. Adams");
+                    assertThat(entry.getPatientName()).isEqualTo("Daily Patient");
+                    assertThat(entry.getPatientPhone()).isEqualTo("5559000000");
+                });
+        assertThat(reportRepository.findById(appointmentId)).isPresent();
+    }
+
+    @Test
+    void rolledBackBookingIsNotReported() {
+        Doctor doctor = doctor("daily-baker@example.com", "Dr. Baker", "5559000002");
+        LocalDateTime time = LocalDate.now().atTime(LocalTime.NOON);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Appointment appointment = appointmentRepository.save(new Appointment(doctor, patient, time, Duration.ofHours(1),
+                    "checkup", null, Appointment.STATUS_SCHEDULED));
+            dailyReportService.onAppointmentChanged(AppointmentChangedEvent.booked(appointment.getId(), doctor.getId(),
+                    patient.getId(), time, Appointment.STATUS_SCHEDULED));
+            status.setRollbackOnly();
+        });
+
+        assertThat(todaysReportOf(doctor)).isEmpty();
+        dailyReportService.invalidateToday();
+        assertThat(todaysReportOf(doctor)).isEmpty();
+    }
+
+    @Test
+    void cancellationAndMoveRemoveTheEntryFromToday() {
+        Doctor doctor = doctor("daily-clark@example.com", "Dr. Clark", "5559000003");
+        LocalDateTime today = LocalDate.now().atTime(LocalTime.NOON);
+        LocalDateTime tomorrow = today.plusDays(1);
+        Appointment cancelled = book(doctor, today);
+        Appointment moved = book(doctor, today.plusHours(1));
+        assertThat(todaysReportOf(doctor)).hasSize(2);
+
+        transactionTemplate.executeWithoutResult(status -> dailyReportService.onAppointmentChanged(
+                AppointmentChangedEvent.cancelled(cancelled.getId(), doctor.getId(), patient.getId(), today,
+                        Appointment.STATUS_CANCELLED)));
+        transactionTemplate.executeWithoutResult(status -> {
+            Appointment appointment = appointmentRepository.findById(moved.getId()).orElseThrow();
+            appointment.setAppointmentTime(tomorrow);
+            dailyReportService.onAppointmentChanged(AppointmentChangedEvent.updated(moved.getId(), doctor.getId(),
+                    patient.getId(), today.plusHours(1), tomorrow, Appointment.STATUS_SCHEDULED));
+        });
+
+        assertThat(todaysReportOf(doctor)).isEmpty();
+        assertThat(reportRepository.findById(cancelled.getId())).isEmpty();
+        assertThat(dailyReportService.getReport(tomorrow.toLocalDate()))
+                .extracting(DailyAppointmentReportEntry::getAppointmentId)
+                .contains(moved.getId());
+    }
+
+    @Test
+    void doctorUpdateRefreshesTheDoctorsName() {
+        Doctor doctor = doctor("daily-davis@example.com", "Dr. Davis", "5559000004");
+        LocalDateTime today = LocalDate.now().atTime(LocalTime.NOON);
+        Appointment appointmentToday = book(doctor, today);
+        Appointment appointmentTomorrow = book(doctor, today.plusDays(1));
+        assertThat(todaysReportOf(doctor)).extracting(DailyAppointmentReportEntry::getDoctorName).containsExactly("Dr. Davis");
+
+        Doctor changed = doctorRepository.findById(doctor.getId()).orElseThrow();
+        changed.setName("Dr. Davis-Miller");
+        assertThat(doctorService.updateDoctor(changed)).isEqualTo(1);
+
+        assertThat(todaysReportOf(doctor)).extracting(DailyAppointmentReportEntry::getDoctorName)
+                .containsExactly("Dr. Davis-Miller");
+        assertThat(reportRepository.findById(appointmentToday.getId()).orElseThrow().getDoctorName()).isEqualTo("Dr. Davis-Miller");
+        assertThat(reportRepository.findById(appointmentTomorrow.getId()).orElseThrow().getDoctorName()).isEqualTo("Dr. Davis-Miller");
+    }
+
+    @Test
+    void doctorChangedOnAnotherNodeReloadsTodaysReport() {
+        Doctor doctor = doctor("daily-evans@example.com", "Dr. Evans", "5559000005");
+        Appointment appointment = book(doctor, LocalDate.now().atTime(LocalTime.NOON));
+        assertThat(todaysReportOf(doctor)).extracting(DailyAppointmentReportEntry::getDoctorName).containsExactly("Dr. Evans");
+
+        // the other node updated the table, then broadcast the change
+        jdbcTemplate.update("UPDATE daily_appointment_report SET doctor_name = ? WHERE appointment_id = ?",
+                "Dr. Evans-Moore", appointment.getId());
+        dailyReportService.onCacheInvalidation(new CacheInvalidationEvent(CacheInvalidation.Region.DOCTOR, doctor.getId()));
+
+        assertThat(todaysReportOf(doctor)).extracting(DailyAppointmentReportEntry::getDoctorName)
+                .containsExactly("Dr. Evans-Moore");
+    }
+
+    @Test
+    void housekeepingKeepsAStatusSetMeanwhile() {
+        Doctor doctor = doctor("daily-fox@example.com", "Dr. Fox", "5559000006");
+        LocalDateTime yesterday = LocalDate.now().minusDays(1).atTime(LocalTime.NOON);
+        Appointment completed = book(doctor, yesterday);
+        Appointment missed = book(doctor, yesterday.plusHours(1));
+        // completed by a prescription between the read of the ids and the update of the housekeeping
+        jdbcTemplate.update("UPDATE daily_appointment_report SET status = ? WHERE appointment_id = ?",
+                Appointment.STATUS_COMPLETED, completed.getId());
+
+        Integer updated = transactionTemplate.execute(status -> reportRepository.updateScheduledStatus(
+                List.of(completed.getId(), missed.getId()), Appointment.STATUS_NO_SHOW));
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(reportRepository.findById(completed.getId()).orElseThrow().getStatus()).isEqualTo(Appointment.STATUS_COMPLETED);
+        assertThat(reportRepository.findById(missed.getId()).orElseThrow().getStatus()).isEqualTo(Appointment.STATUS_NO_SHOW);
+    }
+
+    // as AppointmentService: the appointment and its report entry in one transaction
+    private Appointment book(Doctor doctor, LocalDateTime time) {
+        return transactionTemplate.execute(status -> {
+            Appointment appointment = appointmentRepository.save(new Appointment(doctor, patient, time, Duration.ofHours(1),
+                    "checkup", null, Appointment.STATUS_SCHEDULED));
+            dailyReportService.onAppointmentChanged(AppointmentChangedEvent.booked(appointment.getId(), doctor.getId(),
+                    patient.getId(), time, Appointment.STATUS_SCHEDULED));
+            return appointment;
+        });
+    }
+
+    private List<DailyAppointmentReportEntry> todaysReportOf(Doctor doctor) {
+        return dailyReportService.getReport(LocalDate.now()).stream()
+                .filter(entry -> entry.getDoctorId().equals(doctor.getId()))
+                .toList();
+    }
+
+    private Doctor doctor(String email, String name, String phone) {
+        Doctor doctor = doctorRepository.findByEmail(email);
+        return doctor != null ? doctor : doctorRepository.save(new Doctor(email, "secret1", phone, name, "Dr.", "DR-" + phone,
+                "Cardiologist", List.of("09:00-10:00")));
+    }
+
+}
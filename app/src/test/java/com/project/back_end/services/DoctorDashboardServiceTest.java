@@ -0,0 +1,114 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// composition of the doctor dashboard: the appointments (MySQL) and the prescriptions (Mongo) are loaded at the same
+// time, a failing Mongo leaves the appointments
+class DoctorDashboardServiceTest {
+
+    private static final String TOKEN = "doctor-token";
+    private static final long DOCTOR_ID = 7L;
+    private static final LocalDate DAY = LocalDate.of(2030, 5, 6);
+
+    private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+    private final PrescriptionRepository prescriptionRepository = mock(PrescriptionRepository.class);
+    private final TokenService tokenService = mock(TokenService.class);
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    private DoctorDashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.initialize();
+        dashboardService = new DoctorDashboardService(appointmentRepository, prescriptionRepository, tokenService,
+                mock(PlatformTransactionManager.class), executor, Duration.ofSeconds(5));
+
+        when(tokenService.getDoctorIdFromToken(TOKEN)).thenReturn(DOCTOR_ID);
+        when(appointmentRepository.findIdsByDoctorIdAndAppointmentTimeBetween(eq(DOCTOR_ID), any(), any())).thenReturn(List.of(1L, 2L));
+    }
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void loadsAppointmentsAndPrescriptionsConcurrently() {
+        CountDownLatch prescriptionsRequested = new CountDownLatch(1);
+        when(prescriptionRepository.findByAppointmentIdIn(anyCollection())).thenAnswer(invocation -> {
+            prescriptionsRequested.countDown();
+            return List.of(new Prescription("Patient One", 1L, "Ibuprofen", "400mg", "after meals"),
+                    new Prescription("Patient Two", 2L, "Cetirizine", "10mg", null));
+        });
+        // the appointments complete only while the prescriptions are being loaded
+        List<Appointment> appointments = List.of(appointment(1L));
+        when(appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(eq(DOCTOR_ID), any(), any())).thenAnswer(invocation ->
+                prescriptionsRequested.await(5, TimeUnit.SECONDS) ? appointments : List.of());
+
+        ResponseEntity<Map<String, Object>> response = dashboardService.getDashboard(null, DAY, TOKEN);
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(response.getBody())
+                .containsEntry("appointments", appointments)
+                .containsEntry("prescriptionsAvailable", true);
+        // only the prescriptions of the appointments shown
+        assertThat(response.getBody().get("prescriptions"))
+                .asInstanceOf(InstanceOfAssertFactories.map(Long.class, Object.class))
+                .containsOnlyKeys(1L);
+    }
+
+    @Test
+    void showsTheAppointmentsWithoutMongo() {
+        List<Appointment> appointments = List.of(appointment(1L), appointment(2L));
+        when(appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(eq(DOCTOR_ID), any(), any())).thenReturn(appointments);
+        when(prescriptionRepository.findByAppointmentIdIn(anyCollection())).thenThrow(new IllegalStateException("mongo down"));
+
+        ResponseEntity<Map<String, Object>> response = dashboardService.getDashboard(null, DAY, TOKEN);
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(response.getBody())
+                .containsEntry("appointments", appointments)
+                .containsEntry("prescriptionsAvailable", false)
+                .containsEntry("prescriptions", Map.of());
+    }
+
+    @Test
+    void rejectsAnUnknownDoctor() {
+        when(tokenService.getDoctorIdFromToken("unknown")).thenReturn(null);
+
+        assertThat(dashboardService.getDashboard(null, DAY, "unknown").getStatusCode().value()).isEqualTo(400);
+    }
+
+    private static Appointment appointment(long id) {
+        Appointment appointment = mock(Appointment.class);
+        when(appointment.getId()).thenReturn(id);
+        return appointment;
+    }
+
+}
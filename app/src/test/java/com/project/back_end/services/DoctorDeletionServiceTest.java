@@ -0,0 +1,158 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.ArchivedAppointment;
+import com.project.back_end.models.DailyAppointmentReportEntry;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import com.project.back_end.repo.DailyAppointmentReportRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.InstanceOfAssertFactories.list;
+
+// deleting a doctor: soft delete at once, the appointments are archived (past) / deleted (upcoming) in chunks of 2
+// in the background (the deleted ones also from the daily report), then the doctor is deleted
+@SpringBootTest(properties = {
+        "spring.jpa.properties.jakarta.persistence.validation.mode=none",
+        "spring.datasource.url=jdbc:h2:mem:doctor-deletion;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "clinic.doctors.deletion.chunk-size=2"})
+@ActiveProfiles("test")
+class DoctorDeletionServiceTest {
+
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private DoctorDeletionService doctorDeletionService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private TokenService tokenService;
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private DailyReportService dailyReportService;
+    @Autowired
+    private DailyAppointmentReportRepository reportRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void softDeletesAtOnceAndRemovesTheAppointmentsInTheBackground() {
+        Doctor doctor = doctorRepository.save(new Doctor("deleted-doctor@example.com", "secret1", "5559000000",
+                "Dr. Leaving", "Dr.", "DEL-1", "Surgeon", List.of("09:00-10:00")));
+        Patient patient = patientRepository.save(new Patient("deletion-patient@example.com", "secret1", "5559000001",
+                "Deletion Patient", LocalDate.of(1970, 7, 1), "Main Street 3"));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<Long> past = new ArrayList<>();
+        for (int days = 1; days <= 3; days++) {
+            past.add(save(doctor, patient, now.minusDays(days)));
+        }
+        List<Long> upcoming = List.of(
+                save(doctor, patient, now.plusMinutes(1)), // today (unless run right before midnight)
+                save(doctor, patient, now.plusDays(1)));
+        assertThat(reportOf(doctor, now.plusMinutes(1).toLocalDate())).contains(upcoming.get(0)); // today's report loaded
+        Doctor other = doctorRepository.save(new Doctor("remaining-doctor@example.com", "secret1", "5559000003",
+                "Dr. Remaining", "Dr.", "DEL-3", "Surgeon", List.of("09:00-10:00")));
+        Long olderThanTheArchived = save(other, patient, now.minusDays(10));
+
+        assertThat(doctorService.deleteDoctor(doctor.getId())).isEqualTo(1);
+
+        // gone for everyone right away
+        assertThat(doctorService.getDoctors()).extracting(Doctor::getId).doesNotContain(doctor.getId());
+        assertThat(tokenService.validateToken(tokenService.generateToken(doctor.getEmail()), "doctor")).isFalse();
+        assertThat(doctorService.getDoctorAvailability(doctor.getId(), now.plusDays(3).toLocalDate())).isEmpty();
+
+        Map<String, Object> progress = awaitCompleted(doctor.getId());
+        assertThat(progress)
+                .containsEntry("archived", 3)
+                .containsEntry("deleted", 2)
+                .doesNotContainKey("remaining");
+        assertThat(reportRepository.findAllById(upcoming)).isEmpty();
+        assertThat(reportOf(doctor, now.plusMinutes(1).toLocalDate())).isEmpty();
+        assertThat(reportOf(doctor, now.plusDays(1).toLocalDate())).isEmpty();
+        // the report of the past days stays, as after the housekeeping
+        assertThat(reportRepository.findAllById(past)).hasSize(3);
+        // the archived appointments are more recent than the one of the other doctor: still one chronological history
+        assertThat(patientService.getPatientAppointment(null, tokenService.generateToken(patient.getEmail())).getBody())
+                .extractingByKey("appointments", list(AppointmentDTO.class))
+                .extracting(AppointmentDTO::getId)
+                .containsExactly(olderThanTheArchived, past.get(2), past.get(1), past.get(0));
+
+        assertThat(doctorRepository.findById(doctor.getId())).isEmpty();
+        assertThat(appointmentRepository.countByDoctorId(doctor.getId())).isZero();
+        assertThat(archivedAppointmentRepository.findByPatientIdOrderByAppointmentTimeAsc(patient.getId()))
+                .extracting(ArchivedAppointment::getDoctorId)
+                .containsExactly(doctor.getId(), doctor.getId(), doctor.getId());
+    }
+
+    @Test
+    void noProgressForDoctorsNotDeleted() {
+        Doctor doctor = doctorRepository.save(new Doctor("staying-doctor@example.com", "secret1", "5559000002",
+                "Dr. Staying", "Dr.", "DEL-2", "Surgeon", List.of("09:00-10:00")));
+
+        assertThat(doctorDeletionService.getProgress(doctor.getId())).isEmpty();
+        assertThat(doctorService.deleteDoctor(-1L)).isEqualTo(-1);
+    }
+
+    // as AppointmentService: the appointment and its row of the daily report in one transaction
+    private Long save(Doctor doctor, Patient patient, LocalDateTime time) {
+        return transactionTemplate.execute(status -> {
+            Appointment appointment = appointmentRepository.save(new Appointment(doctor, patient, time, Duration.ofHours(1),
+                    "checkup", null, Appointment.STATUS_SCHEDULED));
+            dailyReportService.onAppointmentChanged(AppointmentChangedEvent.booked(appointment.getId(), doctor.getId(),
+                    patient.getId(), time, Appointment.STATUS_SCHEDULED));
+            return appointment.getId();
+        });
+    }
+
+    private List<Long> reportOf(Doctor doctor, LocalDate date) {
+        return dailyReportService.getReport(date).stream()
+                .filter(entry -> entry.getDoctorId().equals(doctor.getId()))
+                .map(DailyAppointmentReportEntry::getAppointmentId)
+                .toList();
+    }
+
+    private Map<String, Object> awaitCompleted(Long doctorId) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (true) {
+            Map<String, Object> progress = doctorDeletionService.getProgress(doctorId).orElseThrow();
+            if (!DoctorDeletionService.RUNNING.equals(progress.get("state"))) {
+                assertThat(progress).containsEntry("state", DoctorDeletionService.COMPLETED);
+                return progress;
+            }
+            assertThat(System.nanoTime()).as("deletion not completed within 10 s").isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+}
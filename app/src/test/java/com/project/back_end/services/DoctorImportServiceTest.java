@@ -0,0 +1,90 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.InstanceOfAssertFactories.LIST;
+
+// CSV import of doctors in batches of 2: valid rows are imported with their available times, the others are reported
+@SpringBootTest(properties = {
+        "spring.jpa.properties.jakarta.persistence.validation.mode=none",
+        "spring.datasource.url=jdbc:h2:mem:doctor-import;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "clinic.doctors.import.batch-size=2"})
+@ActiveProfiles("test")
+class DoctorImportServiceTest {
+
+    @Autowired
+    private DoctorImportService doctorImportService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void importsTheValidRowsAndReportsTheOthers() throws Exception {
+        doctorRepository.save(new Doctor("import-existing@example.com", "secret1", "5551000000", "Dr. Existing", "Dr.", "IM-0",
+                "Cardiologist", List.of("09:00-10:00")));
+        // cached: no doctor with this email (query cache)
+        assertThat(doctorRepository.findByEmail("import-a@example.com")).isNull();
+
+        Map<String, Object> result = doctorImportService.importCsv(csv("""
+                Name,Email,Password,Phone,Specialty,AvailableTimes,academicDegree
+                "Dr. Adams, Anna",import-a@example.com,secret1,5551000001,Cardiologist,09:00-10:00;10:00-11:00,Dr.
+                Dr. Baker,import-b@example.com,secret1,12345,Dermatologist,,
+                Dr. Clark,import-existing@example.com,secret1,5551000003,Surgeon,,
+                Dr. Davis,import-d@example.com,secret1,5551000004,Surgeon,14:00-15:00,
+                Dr. Again,IMPORT-A@example.com,secret1,5551000005,Surgeon,,
+                Dr. Evans,import-e@example.com,secret1,5551000006,Neurologist,,Prof.
+                """));
+
+        assertThat(result)
+                .containsEntry("imported", 3)
+                .containsEntry("rejected", 3);
+        assertThat(result.get("errors")).asInstanceOf(LIST)
+                .extracting(error -> (Integer) ((Map<?, ?>) error).get("row"))
+                .containsExactlyInAnyOrder(3, 4, 6);
+        assertThat(result.get("errors")).asInstanceOf(LIST)
+                .anySatisfy(error -> assertThat(((Map<?, ?>) error).get("errors")).asInstanceOf(LIST)
+                        .containsExactly("phone: phone soll exakt 10 Ziffern haben"))
+                .anySatisfy(error -> assertThat(((Map<?, ?>) error).get("errors")).asInstanceOf(LIST)
+                        .containsExactly("email: doctor already exists"))
+                .anySatisfy(error -> assertThat(((Map<?, ?>) error).get("errors")).asInstanceOf(LIST)
+                        .containsExactly("email: repeated in the file"));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Doctor adams = doctorRepository.findByEmail("import-a@example.com");
+            assertThat(adams).isNotNull();
+            assertThat(adams.getName()).isEqualTo("Dr. Adams, Anna");
+            assertThat(adams.getAcademicDegree()).isEqualTo("Dr.");
+            assertThat(adams.getAvailableTimes()).containsExactly("09:00-10:00", "10:00-11:00");
+            assertThat(doctorRepository.findByEmail("import-d@example.com").getAvailableTimes()).containsExactly("14:00-15:00");
+            assertThat(doctorRepository.findByEmail("import-e@example.com").getAvailableTimes()).isEmpty();
+            assertThat(doctorRepository.findByEmail("import-b@example.com")).isNull();
+        });
+    }
+
+    @Test
+    void rejectsAFileWithoutTheRequiredColumns() {
+        assertThatThrownBy(() -> doctorImportService.importCsv(csv("email,name\nimport-x@example.com,Dr. X\n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("missing columns: password, phone, specialty");
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
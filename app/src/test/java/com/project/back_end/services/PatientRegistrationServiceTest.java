@@ -0,0 +1,76 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.InstanceOfAssertFactories.LIST;
+
+// bulk registration of patients in batches of 2: the valid, new patients are registered, the others are reported
+@SpringBootTest(properties = {
+        "spring.jpa.properties.jakarta.persistence.validation.mode=none",
+        "spring.datasource.url=jdbc:h2:mem:patient-registration;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "clinic.patients.registration.batch-size=2"})
+@ActiveProfiles("test")
+class PatientRegistrationServiceTest {
+
+    @Autowired
+    private PatientRegistrationService patientRegistrationService;
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Test
+    void registersTheValidPatientsAndReportsTheOthers() {
+        patientRepository.save(patient("bulk-existing@example.com", "5552000000", "Existing Patient"));
+
+        Map<String, Object> result = patientRegistrationService.register(Arrays.asList(
+                patient("bulk-a@example.com", "5552000001", "Anna Adams"),      // 0
+                patient("bulk-b@example.com", "12345", "Ben Baker"),             // 1 invalid phone
+                patient("bulk-existing@example.com", "5552000002", "Carl Clark"), // 2 email taken
+                patient("bulk-d@example.com", "5552000000", "Dora Davis"),       // 3 phone taken
+                patient("BULK-A@example.com", "5552000004", "Anna Again"),       // 4 email repeated
+                patient("bulk-f@example.com", "5552000001", "Fred Fox"),         // 5 phone repeated
+                null,                                                            // 6
+                patient("bulk-g@example.com", "5552000007", "Gina Green")));     // 7
+
+        assertThat(result)
+                .containsEntry("registered", 2)
+                .containsEntry("rejected", 6)
+                .containsKey("patientsPerSecond");
+        assertThat(result.get("errors")).asInstanceOf(LIST)
+                .extracting(error -> (Integer) ((Map<?, ?>) error).get("index"))
+                .containsExactlyInAnyOrder(1, 2, 3, 4, 5, 6);
+        assertThat(result.get("errors")).asInstanceOf(LIST)
+                .anySatisfy(error -> assertThat(((Map<?, ?>) error).get("errors")).asInstanceOf(LIST)
+                        .containsExactly("phone: phone soll exakt 10 Ziffern haben"))
+                .anySatisfy(error -> assertThat(((Map<?, ?>) error).get("errors")).asInstanceOf(LIST)
+                        .containsExactly("email: patient already exists"))
+                .anySatisfy(error -> assertThat(((Map<?, ?>) error).get("errors")).asInstanceOf(LIST)
+                        .containsExactly("phone: patient already exists"))
+                .anySatisfy(error -> assertThat(((Map<?, ?>) error).get("errors")).asInstanceOf(LIST)
+                        .containsExactly("email: repeated in the request"))
+                .anySatisfy(error -> assertThat(((Map<?, ?>) error).get("errors")).asInstanceOf(LIST)
+                        .containsExactly("phone: repeated in the request"));
+
+        Patient anna = patientRepository.findByEmail("bulk-a@example.com");
+        assertThat(anna).isNotNull();
+        assertThat(anna.getName()).isEqualTo("Anna Adams");
+        assertThat(anna.getDateOfBirth()).isEqualTo(LocalDate.of(1980, 5, 17));
+        assertThat(patientRepository.findByEmail("bulk-g@example.com")).isNotNull();
+        assertThat(patientRepository.findByEmail("bulk-d@example.com")).isNull();
+        assertThat(patientRepository.findByEmail("bulk-b@example.com")).isNull();
+    }
+
+    private static Patient patient(String email, String phone, String name) {
+        return new Patient(email, "secret1", phone, name, LocalDate.of(1980, 5, 17), "Main Street 5");
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.project.back_end.services;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.ServerVersion;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.ResponseEntity;
+
+import java.net.InetSocketAddress;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.InstanceOfAssertFactories.list;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// medication history pages over an in-memory Mongo: newest first, one page after the other, and "hasMore" exactly
+// as long as a further prescription exists
+class PrescriptionServiceTest {
+
+    private static final long PATIENT_ID = 1L;
+    private static final LocalDate DAY = LocalDate.of(2030, 5, 6);
+
+    private static MongoServer mongoServer;
+    private static MongoClient mongoClient;
+    private static PrescriptionService prescriptionService;
+
+    @BeforeAll
+    static void startMongo() {
+        mongoServer = new MongoServer(new MemoryBackend().version(ServerVersion.MONGO_5_0));
+        InetSocketAddress address = mongoServer.bind();
+        mongoClient = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        MongoTemplate mongoTemplate = new MongoTemplate(mongoClient, "prescriptions");
+
+        // 5 prescriptions of the patient's appointments (one day apart, the newest on DAY), 1 of another patient
+        for (int i = 0; i < 5; i++) {
+            mongoTemplate.insert(prescription(10L + i % 3, "Medication " + i, DAY.minusDays(4 - i)));
+        }
+        mongoTemplate.insert(prescription(20L, "Other patient", DAY.plusDays(1)));
+
+        AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+        when(appointmentRepository.findIdsByPatientId(PATIENT_ID)).thenReturn(List.of(10L, 11L, 12L));
+        when(appointmentRepository.findIdsByPatientId(2L)).thenReturn(List.of());
+        prescriptionService = new PrescriptionService(null, appointmentRepository, mongoTemplate);
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongoClient.close();
+        mongoServer.shutdown();
+    }
+
+    @Test
+    void pagesNewestFirst() {
+        assertPage(0, 2, true, "Medication 4", "Medication 3");
+        assertPage(1, 2, true, "Medication 2", "Medication 1");
+        assertPage(2, 2, false, "Medication 0");
+    }
+
+    @Test
+    void lastPageEndingExactlyOnTheLastPrescription() {
+        assertPage(0, 5, false, "Medication 4", "Medication 3", "Medication 2", "Medication 1", "Medication 0");
+        assertPage(1, 4, false, "Medication 0");
+        assertPage(3, 2, false);
+    }
+
+    @Test
+    void limitsThePageSize() {
+        ResponseEntity<Map<String, Object>> response = prescriptionService.getMedicationHistory(PATIENT_ID, 0, 1000);
+
+        assertThat(response.getBody()).containsEntry("size", PrescriptionService.HISTORY_PAGE_SIZE_MAX);
+    }
+
+    @Test
+    void emptyWithoutAppointments() {
+        ResponseEntity<Map<String, Object>> response = prescriptionService.getMedicationHistory(2L, 0, 10);
+
+        assertThat(response.getBody())
+                .containsEntry("prescriptions", List.of())
+                .containsEntry("hasMore", false);
+    }
+
+    @Test
+    void rejectsInvalidPages() {
+        assertThat(prescriptionService.getMedicationHistory(PATIENT_ID, -1, 10).getStatusCode().value()).isEqualTo(400);
+        assertThat(prescriptionService.getMedicationHistory(PATIENT_ID, 0, 0).getStatusCode().value()).isEqualTo(400);
+    }
+
+    private static void assertPage(int page, int size, boolean hasMore, String... medications) {
+        ResponseEntity<Map<String, Object>> response = prescriptionService.getMedicationHistory(PATIENT_ID, page, size);
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(response.getBody())
+                .containsEntry("page", page)
+                .containsEntry("hasMore", hasMore);
+        assertThat(response.getBody().get("prescriptions")).asInstanceOf(list(Prescription.class))
+                .extracting(Prescription::getMedication)
+                .containsExactly(medications);
+    }
+
+    private static Prescription prescription(Long appointmentId, String medication, LocalDate date) {
+        Prescription prescription = new Prescription("History Patient", appointmentId, medication, "10mg", null);
+        prescription.setPrescriptionDate(date);
+        return prescription;
+    }
+
+}
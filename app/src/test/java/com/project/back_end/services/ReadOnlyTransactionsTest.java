@@ -0,0 +1,60 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the query methods of the services run in read-only transactions, in which Hibernate neither tracks nor flushes changes
+@SpringBootTest(properties = "spring.jpa.properties.jakarta.persistence.validation.mode=none")
+@ActiveProfiles("test")
+class ReadOnlyTransactionsTest {
+
+    private static final List<String> QUERY_PREFIXES = List.of("get", "find", "filter");
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void transactionalQueryMethodsAreReadOnly() {
+        List<String> readWrite = Stream.of(DoctorService.class, PatientService.class, AppointmentService.class)
+                .flatMap(service -> Arrays.stream(service.getDeclaredMethods()))
+                .filter(method -> Modifier.isPublic(method.getModifiers()))
+                .filter(method -> QUERY_PREFIXES.stream().anyMatch(method.getName()::startsWith))
+                .filter(method -> method.isAnnotationPresent(Transactional.class))
+                .filter(method -> !method.getAnnotation(Transactional.class).readOnly())
+                .map(Method::toString)
+                .toList();
+        assertThat(readWrite).isEmpty();
+    }
+
+    @Test
+    void changesInReadOnlyTransactionAreNotFlushed() {
+        Doctor doctor = doctorRepository.save(new Doctor("readonly-doctor@example.com", "secret1", "5556000000",
+                "Dr. Readonly", "Dr.", "RO-1", "Oncologist", List.of("09:00-10:00")));
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status ->
+                doctorRepository.findById(doctor.getId()).orElseThrow().setName("Dr. Changed"));
+
+        assertThat(doctorRepository.findById(doctor.getId()).orElseThrow().getName()).isEqualTo("Dr. Readonly");
+        doctorRepository.delete(doctor);
+    }
+
+}
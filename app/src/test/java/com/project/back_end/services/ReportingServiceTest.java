@@ -0,0 +1,156 @@
+package com.project.back_end.services;
+
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentDailyCountMonthRepository;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// per doctor and day counters: kept up to date by the appointment changes, rebuilt by the backfill, and the two
+// serialized per month
+@SpringBootTest(properties = {
+        "spring.jpa.properties.jakarta.persistence.validation.mode=none",
+        "spring.datasource.url=jdbc:h2:mem:reporting;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1"})
+@ActiveProfiles("test")
+class ReportingServiceTest {
+
+    @Autowired
+    private ReportingService reportingService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private AppointmentDailyCountMonthRepository monthRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Doctor adams;
+    private Doctor baker;
+    private Patient patient;
+
+    @BeforeEach
+    void seed() {
+        adams = doctor("report-adams@example.com", "Dr. Adams", "5558000001");
+        baker = doctor("report-baker@example.com", "Dr. Baker", "5558000002");
+        patient = patientRepository.findByEmail("report-patient@example.com");
+        if (patient == null) {
+            patient = patientRepository.save(new Patient("report-patient@example.com", "secret1", "5558000003", "Report Patient",
+                    LocalDate.of(1975, 3, 1), "Main Street 8"));
+        }
+    }
+
+    @Test
+    void countsBookingsMovesAndCancellations() {
+        LocalDateTime march4 = LocalDateTime.of(2031, 3, 4, 9, 0);
+        LocalDateTime march5 = LocalDateTime.of(2031, 3, 5, 9, 0);
+        LocalDateTime april1 = LocalDateTime.of(2031, 4, 1, 9, 0);
+        change(AppointmentChangedEvent.booked(1L, adams.getId(), patient.getId(), march4, 0));
+        change(AppointmentChangedEvent.booked(2L, adams.getId(), patient.getId(), march5, 0));
+        change(AppointmentChangedEvent.booked(3L, baker.getId(), patient.getId(), march4, 0));
+        change(AppointmentChangedEvent.updated(2L, adams.getId(), patient.getId(), march5, april1, 0));
+        change(AppointmentChangedEvent.cancelled(3L, baker.getId(), patient.getId(), march4, 2));
+        // status only: not counted again
+        change(AppointmentChangedEvent.updated(1L, adams.getId(), patient.getId(), march4, march4, 1));
+
+        assertThat(reportingService.getTopDoctorsOfMonth(2031, 3, 10))
+                .containsExactly(entry(adams, 1L));
+        assertThat(reportingService.getTopDoctorsOfMonth(2031, 4, 10))
+                .containsExactly(entry(adams, 1L));
+        assertThat(reportingService.getTopDoctorsOfYear(2031, 10))
+                .containsExactly(entry(adams, 2L));
+    }
+
+    @Test
+    void backfillRebuildsTheCountersFromTheAppointmentsAndTheArchive() {
+        LocalDateTime day = LocalDateTime.of(2032, 6, 10, 9, 0);
+        appointmentRepository.save(new Appointment(adams, patient, day, Duration.ofHours(1), "checkup", null, 0));
+        appointmentRepository.save(new Appointment(adams, patient, day.plusHours(1), Duration.ofHours(1), "checkup", null, 0));
+        appointmentRepository.save(new Appointment(baker, patient, day.plusDays(1), Duration.ofHours(1), "checkup", null, 0));
+        jdbcTemplate.update("INSERT INTO appointment_archive (id, doctor_id, patient_id, appointment_time, reason, status, archived_at) " +
+                "VALUES (?, ?, ?, ?, 'checkup', 1, ?)", 800_001L, baker.getId(), patient.getId(), day.minusDays(5), day);
+        // a counter gone wrong
+        change(AppointmentChangedEvent.booked(4L, adams.getId(), patient.getId(), day.plusDays(2), 0));
+
+        Map<String, Object> result = reportingService.backfill(YearMonth.of(2032, 6), YearMonth.of(2032, 6));
+
+        assertThat(result)
+                .containsEntry("months", 1)
+                .containsEntry("rows", 3L);
+        assertThat(reportingService.getTopDoctorsOfMonth(2032, 6, 10))
+                .containsExactly(entry(adams, 2L), entry(baker, 2L));
+    }
+
+    @Test
+    void incrementsWaitForTheBackfillOfTheirMonth() throws Exception {
+        LocalDateTime day = LocalDateTime.of(2033, 9, 1, 9, 0);
+        LocalDate monthStart = day.toLocalDate().withDayOfMonth(1);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // stands in for a running backfill of the month
+        CompletableFuture<Void> backfill = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            monthRepository.createIfMissing(monthStart);
+            monthRepository.lockExclusive(monthStart);
+            locked.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> booking = CompletableFuture.runAsync(() ->
+                change(AppointmentChangedEvent.booked(5L, baker.getId(), patient.getId(), day, 0)));
+        Thread.sleep(300);
+        assertThat(booking).isNotDone();
+
+        release.countDown();
+        backfill.get(5, TimeUnit.SECONDS);
+        booking.get(5, TimeUnit.SECONDS);
+        assertThat(reportingService.getTopDoctorsOfMonth(2033, 9, 10))
+                .containsExactly(entry(baker, 1L));
+    }
+
+    // as AppointmentService: inside the transaction of the change
+    private void change(AppointmentChangedEvent event) {
+        transactionTemplate.executeWithoutResult(status -> reportingService.onAppointmentChanged(event));
+    }
+
+    private Doctor doctor(String email, String name, String phone) {
+        Doctor doctor = doctorRepository.findByEmail(email);
+        return doctor != null ? doctor : doctorRepository.save(new Doctor(email, "secret1", phone, name, "Dr.", "RP-" + phone,
+                "Cardiologist", List.of("09:00-10:00")));
+    }
+
+    private static Map<String, Object> entry(Doctor doctor, long patientsSeen) {
+        return Map.of("doctorId", doctor.getId(), "doctorName", doctor.getName(), "patientsSeen", patientsSeen);
+    }
+
+}